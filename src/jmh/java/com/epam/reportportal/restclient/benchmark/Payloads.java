@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Payloads similar to ones sent by ReportPortal agents. Used by benchmarks
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public final class Payloads {
+
+	private Payloads() {
+		// statics only
+	}
+
+	/**
+	 * Request to start test item
+	 */
+	public static class StartTestItemRQ {
+		public String name;
+		public String description;
+		public Set<String> tags;
+		public Date startTime;
+		public String type;
+		public String launchId;
+		public List<Parameter> parameters;
+		public boolean retry;
+	}
+
+	/**
+	 * Test item parameter
+	 */
+	public static class Parameter {
+		public String key;
+		public String value;
+	}
+
+	/**
+	 * Request to save log message
+	 */
+	public static class SaveLogRQ {
+		public String testItemId;
+		public Date logTime;
+		public String message;
+		public String level;
+	}
+
+	/**
+	 * Response containing ID of created entity
+	 */
+	public static class EntryCreatedRS {
+		public String id;
+	}
+
+	public static StartTestItemRQ startTestItemRQ() {
+		StartTestItemRQ rq = new StartTestItemRQ();
+		rq.name = "com.epam.reportportal.example.LoginPageTest.shouldLoginWithValidCredentials";
+		rq.description = "Checks that user is able to login with valid credentials and is redirected to dashboard page";
+		rq.tags = new TreeSet<String>(Arrays.asList("smoke", "login", "regression", "ui"));
+		rq.startTime = new Date(1476700000000L);
+		rq.type = "STEP";
+		rq.launchId = "57f4a3e5c9e77c0001e3ab27";
+		rq.parameters = new ArrayList<Parameter>();
+		for (int i = 0; i < 3; i++) {
+			Parameter parameter = new Parameter();
+			parameter.key = "param" + i;
+			parameter.value = "value of parameter " + i;
+			rq.parameters.add(parameter);
+		}
+		return rq;
+	}
+
+	public static List<SaveLogRQ> logBatch(int size) {
+		List<SaveLogRQ> batch = new ArrayList<SaveLogRQ>(size);
+		for (int i = 0; i < size; i++) {
+			SaveLogRQ rq = new SaveLogRQ();
+			rq.testItemId = "57f4a3e5c9e77c0001e3ab2" + (i % 10);
+			rq.logTime = new Date(1476700000000L + i);
+			rq.level = i % 5 == 0 ? "ERROR" : "INFO";
+			rq.message = "Step " + i + ": clicking on element By.xpath: //div[@id='login-form']//button[contains(@class, 'submit')]";
+			batch.add(rq);
+		}
+		return batch;
+	}
+}
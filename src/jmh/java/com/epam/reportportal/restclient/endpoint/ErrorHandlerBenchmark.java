@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.epam.reportportal.apache.http.HttpResponse;
+import com.epam.reportportal.apache.http.HttpVersion;
+import com.epam.reportportal.apache.http.entity.StringEntity;
+import com.epam.reportportal.apache.http.message.BasicHttpResponse;
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointException;
+import com.google.common.base.Strings;
+
+/**
+ * Response classification and error handling in {@link DefaultErrorHandler}
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorHandlerBenchmark {
+
+	/** Typical mix of response codes */
+	private static final int[] STATUS_CODES = { 200, 201, 204, 304, 400, 404, 500, 503 };
+
+	private DefaultErrorHandler handler;
+
+	private HttpResponse success;
+
+	private HttpResponse notFound;
+
+	private HttpResponse proxyError;
+
+	@Setup
+	public void setup() {
+		handler = new DefaultErrorHandler();
+		success = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+		notFound = new BasicHttpResponse(HttpVersion.HTTP_1_1, 404, "Not Found");
+		notFound.setEntity(new StringEntity("{\"errorCode\":4040,\"message\":\"Test Item '57f4a3e5c9e77c0001e3ab27' not found\"}",
+				"UTF-8"));
+		/* proxy error page much larger than captured part of body */
+		proxyError = new BasicHttpResponse(HttpVersion.HTTP_1_1, 502, "Bad Gateway");
+		proxyError.setEntity(new StringEntity("<html>" + Strings.repeat("<p>Bad Gateway</p>", 64 * 1024) + "</html>", "UTF-8"));
+	}
+
+	@Benchmark
+	public boolean successPath() throws IOException {
+		boolean hasError = handler.hasError(success);
+		if (hasError) {
+			handler.handle(success);
+		}
+		return hasError;
+	}
+
+	@Benchmark
+	public int classifyStatus() {
+		int errors = 0;
+		for (int statusCode : STATUS_CODES) {
+			if (StatusType.valueOf(statusCode).isError()) {
+				errors++;
+			}
+		}
+		return errors;
+	}
+
+	@Benchmark
+	public Object clientErrorPath() throws IOException {
+		try {
+			handler.handle(notFound);
+			return null;
+		} catch (RestEndpointException e) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public Object largeErrorBodyPath() throws IOException {
+		try {
+			handler.handle(proxyError);
+			return null;
+		} catch (RestEndpointException e) {
+			return e;
+		}
+	}
+}
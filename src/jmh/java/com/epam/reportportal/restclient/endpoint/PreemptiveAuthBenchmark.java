@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.epam.reportportal.apache.http.HttpException;
+import com.epam.reportportal.apache.http.HttpHost;
+import com.epam.reportportal.apache.http.HttpRequest;
+import com.epam.reportportal.apache.http.HttpRequestInterceptor;
+import com.epam.reportportal.apache.http.auth.AuthState;
+import com.epam.reportportal.apache.http.auth.UsernamePasswordCredentials;
+import com.epam.reportportal.apache.http.client.AuthCache;
+import com.epam.reportportal.apache.http.client.protocol.HttpClientContext;
+import com.epam.reportportal.apache.http.impl.auth.BasicScheme;
+import com.epam.reportportal.apache.http.impl.client.BasicAuthCache;
+import com.epam.reportportal.apache.http.message.BasicHttpRequest;
+import com.epam.reportportal.apache.http.protocol.HttpContext;
+import com.epam.reportportal.apache.http.protocol.HttpCoreContext;
+
+/**
+ * Per-request cost of preemptive authentication interceptors
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreemptiveAuthBenchmark {
+
+	private HttpClientContext context;
+
+	private HttpRequestInterceptor perRequestAuthCache;
+
+	private HttpRequestInterceptor sharedAuthCache;
+
+	private HttpRequestInterceptor basicHeader;
+
+	@Setup
+	public void setup() {
+		context = HttpClientContext.create();
+		context.setAttribute(HttpCoreContext.HTTP_TARGET_HOST, new HttpHost("localhost", 8080, "http"));
+		context.setAttribute(HttpClientContext.TARGET_AUTH_STATE, new AuthState());
+		perRequestAuthCache = new PerRequestAuthCacheInterceptor();
+		sharedAuthCache = new PreemptiveAuthInterceptor();
+		basicHeader = new PreemptiveBasicAuthInterceptor(new UsernamePasswordCredentials("default", "1q2w3e"), new HttpHost("localhost",
+				8080, "http"));
+	}
+
+	@Benchmark
+	public HttpRequest perRequestAuthCache() throws HttpException, IOException {
+		return process(perRequestAuthCache);
+	}
+
+	@Benchmark
+	public HttpRequest sharedAuthCache() throws HttpException, IOException {
+		return process(sharedAuthCache);
+	}
+
+	@Benchmark
+	public HttpRequest basicHeader() throws HttpException, IOException {
+		return process(basicHeader);
+	}
+
+	private HttpRequest process(HttpRequestInterceptor interceptor) throws HttpException, IOException {
+		HttpRequest request = new BasicHttpRequest("GET", "/api/v1/default_project/launch");
+		interceptor.process(request, context);
+		return request;
+	}
+
+	/**
+	 * Previous implementation of {@link PreemptiveAuthInterceptor}
+	 */
+	private static class PerRequestAuthCacheInterceptor implements HttpRequestInterceptor {
+		@Override
+		public void process(HttpRequest request, HttpContext context) throws HttpException, IOException {
+			AuthState authState = (AuthState) context.getAttribute(HttpClientContext.TARGET_AUTH_STATE);
+			if (authState.getAuthScheme() == null) {
+				HttpHost targetHost = (HttpHost) context.getAttribute(HttpCoreContext.HTTP_TARGET_HOST);
+				AuthCache authCache = new BasicAuthCache();
+				authCache.put(targetHost, new BasicScheme());
+				context.setAttribute(HttpClientContext.AUTH_CACHE, authCache);
+			}
+		}
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.epam.reportportal.restclient.benchmark.Payloads;
+import com.epam.reportportal.restclient.benchmark.Payloads.EntryCreatedRS;
+import com.epam.reportportal.restclient.benchmark.Payloads.StartTestItemRQ;
+import com.epam.reportportal.restclient.benchmark.StubServer;
+import com.epam.reportportal.restclient.serializer.Jackson2Serializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Full request execution via {@link HttpClientRestEndpoint} against local stub
+ * server
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestEndpointBenchmark {
+
+	private StubServer server;
+
+	private RestEndpoint endpoint;
+
+	private StartTestItemRQ item;
+
+	@Setup
+	public void setup() throws IOException {
+		server = new StubServer("{\"id\":\"57f4a3e5c9e77c0001e3ab27\"}");
+		endpoint = new HttpClientRestEndpoint(new AuthClientFactory(null).createHttpClient(),
+				Arrays.<Serializer> asList(new Jackson2Serializer(new ObjectMapper())), null, server.getBaseUrl());
+		item = Payloads.startTestItemRQ();
+	}
+
+	@TearDown
+	public void tearDown() {
+		server.stop();
+	}
+
+	@Benchmark
+	public EntryCreatedRS post() throws IOException {
+		return endpoint.post("/api/v1/default_project/item", item, EntryCreatedRS.class);
+	}
+
+	@Benchmark
+	public EntryCreatedRS get() throws IOException {
+		return endpoint.get("/api/v1/default_project/item/57f4a3e5c9e77c0001e3ab27", EntryCreatedRS.class);
+	}
+}
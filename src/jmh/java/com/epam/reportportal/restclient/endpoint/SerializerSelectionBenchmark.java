@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.epam.reportportal.restclient.benchmark.Payloads;
+import com.epam.reportportal.restclient.serializer.Jackson2Serializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Selection of serializer for request and response. Compares
+ * {@link SerializerRegistry} with plain iteration over serializers
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerSelectionBenchmark {
+
+	private static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+
+	private List<Serializer> serializers;
+
+	private SerializerRegistry registry;
+
+	private Object request;
+
+	@Setup
+	public void setup() {
+		serializers = Arrays.<Serializer> asList(new StringSerializer(), new Jackson2Serializer(new ObjectMapper()),
+				new ByteArraySerializer());
+		registry = new SerializerRegistry(serializers);
+		request = Payloads.startTestItemRQ();
+	}
+
+	@Benchmark
+	public Serializer registryWriter() throws IOException {
+		return registry.getWriter(request);
+	}
+
+	@Benchmark
+	public Serializer registryReader() throws IOException {
+		return registry.getReader(CONTENT_TYPE);
+	}
+
+	@Benchmark
+	public Serializer scanWriter() {
+		for (Serializer s : serializers) {
+			if (s.canWrite(request)) {
+				return s;
+			}
+		}
+		return null;
+	}
+
+	@Benchmark
+	public Serializer scanReader() {
+		for (Serializer s : serializers) {
+			if (s.canRead(CONTENT_TYPE)) {
+				return s;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.epam.reportportal.restclient.serializer.Jackson2Serializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Building of request URLs in {@link HttpClientRestEndpoint}
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpliceUrlBenchmark {
+
+	private static final String RESOURCE = "/api/v1/default_project/item/57f4a3e5c9e77c0001e3ab27";
+
+	private static final ResourceTemplate TEMPLATE = ResourceTemplate.compile("/api/v1/{project}/item/{id}");
+
+	private HttpClientRestEndpoint endpoint;
+
+	private Map<String, String> parameters;
+
+	@Setup
+	public void setup() {
+		endpoint = new HttpClientRestEndpoint(new AuthClientFactory(null).createHttpClient(),
+				Collections.<Serializer> singletonList(new Jackson2Serializer(new ObjectMapper())), null, "http://localhost:8080");
+		parameters = new LinkedHashMap<String, String>();
+		parameters.put("filter.eq.launch", "57f4a3e5c9e77c0001e3ab27");
+		parameters.put("page.page", "3");
+		parameters.put("page.size", "50");
+		parameters.put("page.sort", "start_time,ASC");
+	}
+
+	@Benchmark
+	public URI spliceUrl() throws IOException {
+		return endpoint.spliceUrl(RESOURCE);
+	}
+
+	@Benchmark
+	public URI spliceUrlTemplate() throws IOException {
+		return endpoint.spliceUrl(TEMPLATE, new Object[] { "default_project", "57f4a3e5c9e77c0001e3ab27" });
+	}
+
+	@Benchmark
+	public URI spliceUrlWithParameters() throws IOException {
+		return endpoint.spliceUrl(RESOURCE, parameters);
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.epam.reportportal.restclient.benchmark.Payloads;
+import com.epam.reportportal.restclient.benchmark.Payloads.SaveLogRQ;
+import com.epam.reportportal.restclient.benchmark.Payloads.StartTestItemRQ;
+import com.epam.reportportal.restclient.endpoint.ParameterizedTypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Compares encoding/decoding time of JSON, Smile and CBOR data formats on
+ * typical ReportPortal payloads. Sizes of encoded payloads are printed on
+ * setup
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataFormatBenchmark {
+
+	private static final Type LOG_BATCH_TYPE = new ParameterizedTypeReference<List<SaveLogRQ>>() {
+	}.getType();
+
+	@Param({ "json", "smile", "cbor" })
+	private String format;
+
+	private Jackson2Serializer serializer;
+
+	private StartTestItemRQ item;
+
+	private List<SaveLogRQ> logBatch;
+
+	private byte[] serializedItem;
+
+	private byte[] serializedLogBatch;
+
+	@Setup
+	public void setup() throws IOException {
+		if ("smile".equals(format)) {
+			serializer = new Jackson2SmileSerializer();
+		} else if ("cbor".equals(format)) {
+			serializer = new Jackson2CborSerializer();
+		} else {
+			serializer = new Jackson2Serializer(new ObjectMapper());
+		}
+		item = Payloads.startTestItemRQ();
+		logBatch = Payloads.logBatch(100);
+		serializedItem = toBytes(item);
+		serializedLogBatch = toBytes(logBatch);
+		System.out.println(String.format("%n%s: item %d bytes, log batch %d bytes", format, serializedItem.length,
+				serializedLogBatch.length));
+	}
+
+	@Benchmark
+	public void serializeItem() throws IOException {
+		serializer.serialize(item, ByteStreams.nullOutputStream());
+	}
+
+	@Benchmark
+	public void serializeLogBatch() throws IOException {
+		serializer.serialize(logBatch, ByteStreams.nullOutputStream());
+	}
+
+	@Benchmark
+	public StartTestItemRQ deserializeItem() throws IOException {
+		return serializer.deserialize(serializedItem, StartTestItemRQ.class);
+	}
+
+	@Benchmark
+	public List<SaveLogRQ> deserializeLogBatch() throws IOException {
+		return serializer.deserialize(serializedLogBatch, LOG_BATCH_TYPE);
+	}
+
+	private byte[] toBytes(Object o) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		serializer.serialize(o, baos);
+		return baos.toByteArray();
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Access token along with its expiration time
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class AccessToken {
+
+	private final String value;
+
+	/** Expiration time (epoch millis). Non-positive means token never expires */
+	private final long expiresAt;
+
+	/**
+	 * Creates token which never expires
+	 * 
+	 * @param value
+	 *            - Token
+	 */
+	public AccessToken(String value) {
+		this(value, -1);
+	}
+
+	/**
+	 * Creates token expiring in provided time
+	 * 
+	 * @param value
+	 *            - Token
+	 * @param expiresIn
+	 *            - Lifetime of token
+	 * @param unit
+	 *            - Time unit of lifetime
+	 */
+	public AccessToken(String value, long expiresIn, TimeUnit unit) {
+		this(value, System.currentTimeMillis() + unit.toMillis(expiresIn));
+	}
+
+	private AccessToken(String value, long expiresAt) {
+		Preconditions.checkArgument(null != value && !value.isEmpty(), "Token shouldn't be empty");
+		this.value = value;
+		this.expiresAt = expiresAt;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public long getExpiresAt() {
+		return expiresAt;
+	}
+
+	public boolean isExpired() {
+		return expiresAt > 0 && System.currentTimeMillis() >= expiresAt;
+	}
+}
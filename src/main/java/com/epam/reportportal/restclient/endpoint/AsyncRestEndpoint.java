@@ -0,0 +1,186 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Asynchronous counterpart of {@link RestEndpoint}. Each method returns
+ * immediately, response (or error) is delivered through
+ * {@link ListenableFuture}
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public interface AsyncRestEndpoint {
+
+	/**
+	 * HTTP POST method
+	 * 
+	 * @param resource
+	 *            - REST resource
+	 * @param rq
+	 *            - Request body
+	 * @param clazz
+	 *            - Type of returned response
+	 * @return - Future of response body
+	 */
+	<RQ, RS> ListenableFuture<RS> post(String resource, RQ rq, Class<RS> clazz);
+
+	/**
+	 * HTTP POST method
+	 * 
+	 * @param resource
+	 *            - REST resource
+	 * @param rq
+	 *            - Request body
+	 * @param type
+	 *            - Type of returned response
+	 * @return - Future of response body
+	 */
+	<RQ, RS> ListenableFuture<RS> post(String resource, RQ rq, Type type);
+
+	/**
+	 * HTTP MultiPart POST. May contain whether serialized and binary parts
+	 * 
+	 * @param resource
+	 *            - REST resource
+	 * @param request
+	 *            - MultiPart request
+	 * @param clazz
+	 *            - Type of returned response
+	 * @return - Future of response body
+	 */
+	<RQ, RS> ListenableFuture<RS> post(String resource, MultiPartRequest<RQ> request, Class<RS> clazz);
+
+	/**
+	 * HTTP POST method with parameters
+	 * 
+	 * @param resource
+	 *            - REST resource
+	 * @param parameters
+	 *            - Parameters
+	 * @param rq
+	 *            - Request body
+	 * @param clazz
+	 *            - Type of returned response
+	 * @return - Future of response body
+	 */
+	<RQ, RS> ListenableFuture<RS> post(String resource, Map<String, String> parameters, RQ rq, Class<RS> clazz);
+
+	/**
+	 * HTTP PUT
+	 * 
+	 * @param resource
+	 *            - REST resource
+	 * @param rq
+	 *            - Request body
+	 * @param clazz
+	 *            - Type of Response
+	 * @return - Future of response body
+	 */
+	<RQ, RS> ListenableFuture<RS> put(String resource, RQ rq, Class<RS> clazz);
+
+	/**
+	 * HTTP PUT
+	 * 
+	 * @param resource
+	 *            - REST resource
+	 * @param rq
+	 *            - Request body
+	 * @param type
+	 *            - {@link Type} of Response
+	 * @return - Future of response body
+	 */
+	<RQ, RS> ListenableFuture<RS> put(String resource, RQ rq, Type type);
+
+	/**
+	 * HTTP DELETE
+	 * 
+	 * @param resource
+	 *            - REST Resource
+	 * @param clazz
+	 *            - Response Body Type
+	 * @return - Future of response body
+	 */
+	<RS> ListenableFuture<RS> delete(String resource, Class<RS> clazz);
+
+	/**
+	 * HTTP GET
+	 * 
+	 * @param resource
+	 *            - REST Resource
+	 * @param clazz
+	 *            - Response Body Type
+	 * @return - Future of response body
+	 */
+	<RS> ListenableFuture<RS> get(String resource, Class<RS> clazz);
+
+	/**
+	 * HTTP GET
+	 * 
+	 * @param resource
+	 *            - REST Resource
+	 * @param type
+	 *            - Response Body Type
+	 * @return - Future of response body
+	 */
+	<RS> ListenableFuture<RS> get(String resource, Type type);
+
+	/**
+	 * HTTP GET with parameters
+	 * 
+	 * @param resource
+	 *            - REST Resource
+	 * @param parameters
+	 *            - Map of query parameters
+	 * @param clazz
+	 *            - Response body type
+	 * @return - Future of response body
+	 */
+	<RS> ListenableFuture<RS> get(String resource, Map<String, String> parameters, Class<RS> clazz);
+
+	/**
+	 * HTTP GET with parameters
+	 * 
+	 * @param resource
+	 *            - REST Resource
+	 * @param parameters
+	 *            - Map of query parameters
+	 * @param type
+	 *            - Response body type. For generic types (e.g. collections)
+	 *            {@link java.lang.reflect.ParameterizedType} may be used
+	 * @return - Future of response body
+	 */
+	<RS> ListenableFuture<RS> get(String resource, Map<String, String> parameters, Type type);
+
+	/**
+	 * Executes request command
+	 * 
+	 * @param command
+	 *            - Request command
+	 * @return - Future of response body
+	 */
+	<RQ, RS> ListenableFuture<RS> executeRequest(RestCommand<RQ, RS> command);
+}
@@ -21,16 +21,29 @@
 package com.epam.reportportal.restclient.endpoint;
 
 import java.net.ProxySelector;
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import com.epam.reportportal.apache.http.HttpHost;
 import com.epam.reportportal.apache.http.HttpRequestInterceptor;
 import com.epam.reportportal.apache.http.auth.AuthScope;
 import com.epam.reportportal.apache.http.auth.Credentials;
 import com.epam.reportportal.apache.http.client.CredentialsProvider;
 import com.epam.reportportal.apache.http.client.HttpClient;
+import com.epam.reportportal.apache.http.client.utils.URIUtils;
+import com.epam.reportportal.apache.http.config.RegistryBuilder;
+import com.epam.reportportal.apache.http.conn.socket.ConnectionSocketFactory;
+import com.epam.reportportal.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import com.epam.reportportal.apache.http.conn.socket.PlainConnectionSocketFactory;
+import com.epam.reportportal.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import com.epam.reportportal.apache.http.impl.client.BasicCredentialsProvider;
 import com.epam.reportportal.apache.http.impl.client.HttpClientBuilder;
+import com.epam.reportportal.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import com.epam.reportportal.apache.http.impl.conn.SystemDefaultRoutePlanner;
+import com.epam.reportportal.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import com.epam.reportportal.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import com.google.common.base.Preconditions;
 
 /**
  * Basic Auth HTTP Client Factory
@@ -48,13 +61,65 @@ public class AuthClientFactory implements HttpClientFactory {
 	 */
 	private List<HttpRequestInterceptor> interceptors;
 
+	/** Connection pool configuration */
+	private ConnectionPoolConfig poolConfig;
+
+	/**
+	 * Hosts Basic authorization header is sent to without waiting for
+	 * challenge. NULL if auth isn't preemptive
+	 */
+	private HttpHost[] preemptiveAuthHosts;
+
+	/** Provider of bearer tokens. May be null */
+	private TokenProvider tokenProvider;
+
 	public AuthClientFactory(Credentials credentials) {
-		this.credentials = credentials;
+		this(credentials, null, ConnectionPoolConfig.DEFAULT);
 	}
 
 	public AuthClientFactory(Credentials credentials, List<HttpRequestInterceptor> interceptors) {
+		this(credentials, interceptors, ConnectionPoolConfig.DEFAULT);
+	}
+
+	public AuthClientFactory(Credentials credentials, List<HttpRequestInterceptor> interceptors, ConnectionPoolConfig poolConfig) {
 		this.credentials = credentials;
 		this.interceptors = interceptors;
+		this.poolConfig = Preconditions.checkNotNull(poolConfig, "Pool config shouldn't be null");
+	}
+
+	/**
+	 * Enables preemptive Basic authorization: header is built once from
+	 * credentials and added to each request to host of provided base URLs, so
+	 * no round-trip for auth challenge is needed and nothing is allocated per
+	 * request. Requests to other hosts (e.g. redirects) are sent without
+	 * credentials. Should be set before client is created
+	 * 
+	 * @param baseUrls
+	 *            - Base URLs of endpoints. Empty disables preemptive auth
+	 */
+	public void setPreemptiveAuth(String... baseUrls) {
+		if (0 == baseUrls.length) {
+			this.preemptiveAuthHosts = null;
+			return;
+		}
+		HttpHost[] hosts = new HttpHost[baseUrls.length];
+		for (int i = 0; i < baseUrls.length; i++) {
+			hosts[i] = URIUtils.extractHost(URI.create(baseUrls[i]));
+			Preconditions.checkArgument(null != hosts[i], "Unable to extract host from base URL '%s'", baseUrls[i]);
+		}
+		this.preemptiveAuthHosts = hosts;
+	}
+
+	/**
+	 * Enables bearer authorization with tokens obtained from provider (e.g.
+	 * {@link RefreshingTokenProvider}). Requests rejected with 401 are retried
+	 * once with refreshed token. Should be set before client is created
+	 * 
+	 * @param tokenProvider
+	 *            - Provider of bearer tokens
+	 */
+	public void setTokenProvider(TokenProvider tokenProvider) {
+		this.tokenProvider = tokenProvider;
 	}
 
 	@Override
@@ -77,8 +142,9 @@ public class AuthClientFactory implements HttpClientFactory {
 			builder.setDefaultCredentialsProvider(credentialsProvider);
 		}
 
-		builder.setMaxConnPerRoute(5);
-		builder.setMaxConnTotal(20);
+		builder.setConnectionManager(initConnectionManager());
+		builder.setDefaultRequestConfig(poolConfig.toRequestConfig());
+
 		// dirty hack to avoid npe in soapui client, soapui client sets default
 		// proxy selector to null
 		ProxySelector proxySelector = ProxySelector.getDefault();
@@ -91,7 +157,96 @@ public class AuthClientFactory implements HttpClientFactory {
 			}
 		}
 
+		if (null != preemptiveAuthHosts && null != credentials) {
+			builder.addInterceptorFirst(new PreemptiveBasicAuthInterceptor(credentials, preemptiveAuthHosts));
+		}
+
+		if (null != tokenProvider) {
+			builder.addInterceptorLast(new BearerAuthorizationInterceptor(tokenProvider));
+			builder.setServiceUnavailableRetryStrategy(new TokenRefreshRetryStrategy(tokenProvider));
+		}
+
+		return builder;
+	}
+
+	/**
+	 * Creates non-blocking HTTP client for {@link HttpAsyncClientRestEndpoint}
+	 * 
+	 * @return
+	 */
+	public CloseableHttpAsyncClient createHttpAsyncClient() {
+		return initDefaultAsyncBuilder().build();
+	}
+
+	/**
+	 * Initializes default non-blocking http client builder instance with the
+	 * same credentials, pool limits, timeouts and interceptors as blocking
+	 * one. Connection TTL, idle connection eviction and retry of requests
+	 * rejected with 401 are not supported by non-blocking client
+	 * 
+	 * @return
+	 */
+	protected HttpAsyncClientBuilder initDefaultAsyncBuilder() {
+		HttpAsyncClientBuilder builder = HttpAsyncClientBuilder.create();
+
+		if (null != credentials) {
+			CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+			credentialsProvider.setCredentials(AuthScope.ANY, credentials);
+			builder.setDefaultCredentialsProvider(credentialsProvider);
+		}
+
+		builder.setMaxConnPerRoute(poolConfig.getMaxConnPerRoute());
+		builder.setMaxConnTotal(poolConfig.getMaxConnTotal());
+		builder.setDefaultRequestConfig(poolConfig.toRequestConfig());
+
+		ProxySelector proxySelector = ProxySelector.getDefault();
+		if (proxySelector != null)
+			builder.setRoutePlanner(new SystemDefaultRoutePlanner(proxySelector));
+
+		if (null != interceptors && !interceptors.isEmpty()) {
+			for (HttpRequestInterceptor interceptor : interceptors) {
+				builder.addInterceptorFirst(interceptor);
+			}
+		}
+
+		if (null != preemptiveAuthHosts && null != credentials) {
+			builder.addInterceptorFirst(new PreemptiveBasicAuthInterceptor(credentials, preemptiveAuthHosts));
+		}
+
+		if (null != tokenProvider) {
+			builder.addInterceptorLast(new BearerAuthorizationInterceptor(tokenProvider));
+		}
+
 		return builder;
 	}
 
+	/**
+	 * Initializes pooled connection manager in accordance with
+	 * {@link ConnectionPoolConfig}. Starts idle connection evictor if
+	 * configured
+	 * 
+	 * @return
+	 */
+	protected PoolingHttpClientConnectionManager initConnectionManager() {
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(RegistryBuilder
+				.<ConnectionSocketFactory> create().register("http", PlainConnectionSocketFactory.getSocketFactory())
+				.register("https", getSslSocketFactory()).build(), null, null, null, poolConfig.getConnectionTtl(), TimeUnit.MILLISECONDS);
+		connectionManager.setDefaultMaxPerRoute(poolConfig.getMaxConnPerRoute());
+		connectionManager.setMaxTotal(poolConfig.getMaxConnTotal());
+
+		if (poolConfig.getEvictionInterval() > 0) {
+			IdleConnectionEvictor.schedule(connectionManager, poolConfig.getEvictionInterval(), poolConfig.getMaxIdleTime());
+		}
+		return connectionManager;
+	}
+
+	/**
+	 * Socket factory for HTTPS connections. May be overridden in subclasses
+	 * 
+	 * @return
+	 */
+	protected LayeredConnectionSocketFactory getSslSocketFactory() {
+		return SSLConnectionSocketFactory.getSocketFactory();
+	}
+
 }
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.epam.reportportal.apache.http.client.utils.URIBuilder;
+import com.google.common.base.Charsets;
+
+/**
+ * Base URL of endpoint parsed once. Builds URLs of resources exactly like
+ * <code>new URIBuilder(baseUrl).setPath(resource)</code> does (path of base
+ * URL is replaced, path and parameters are percent-encoded), but without
+ * re-parsing base URL and without intermediate objects. Falls back to
+ * {@link URIBuilder} for cases fast path doesn't cover (base URL with query
+ * or fragment, relative resources)
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+class BaseUrl {
+
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	/** Characters not encoded in path */
+	private static final boolean[] PATH_SAFE = safe("!$&'()*+,-./:;=@_~");
+
+	/** Characters not encoded in query parameters */
+	private static final boolean[] QUERY_SAFE = safe("*-._");
+
+	private final String baseUrl;
+
+	/** Scheme and authority of base URL. NULL if fast path isn't applicable */
+	private final String prefix;
+
+	BaseUrl(String baseUrl) {
+		this.baseUrl = baseUrl;
+		this.prefix = parsePrefix(baseUrl);
+	}
+
+	/**
+	 * Builds URL of resource
+	 * 
+	 * @param resource
+	 *            - Path of resource
+	 * @param parameters
+	 *            - Query parameters. May be null
+	 * @return URL
+	 * @throws URISyntaxException
+	 */
+	URI resolve(String resource, Map<String, String> parameters) throws URISyntaxException {
+		if (null == prefix || null == resource || !resource.startsWith("/")) {
+			URIBuilder builder = new URIBuilder(baseUrl).setPath(resource);
+			if (null != parameters) {
+				for (Entry<String, String> parameter : parameters.entrySet()) {
+					builder.addParameter(parameter.getKey(), parameter.getValue());
+				}
+			}
+			return builder.build();
+		}
+
+		StringBuilder url = new StringBuilder(prefix.length() + resource.length() + 16).append(prefix);
+		/* collapse leading slashes as URIBuilder does */
+		int start = 0;
+		while (start + 1 < resource.length() && '/' == resource.charAt(start + 1)) {
+			start++;
+		}
+		encode(url, resource, start, PATH_SAFE, false);
+		appendParameters(url, parameters);
+		return new URI(url.toString());
+	}
+
+	/**
+	 * Builds URL of resource expanded from template. Literal parts of
+	 * template are encoded in advance, so only values are encoded. Result is
+	 * the same as of {@link #resolve(String, Map)} with expanded template
+	 * 
+	 * @param template
+	 *            - Resource template
+	 * @param values
+	 *            - Values of template variables
+	 * @param parameters
+	 *            - Query parameters. May be null
+	 * @return URL
+	 * @throws URISyntaxException
+	 */
+	URI resolve(ResourceTemplate template, Object[] values, Map<String, String> parameters) throws URISyntaxException {
+		if (null == prefix || !template.isEncodable()) {
+			return resolve(template.expand(values), parameters);
+		}
+		StringBuilder url = new StringBuilder(prefix.length() + template.getEncodedLength() + 24 * values.length + 16).append(prefix);
+		template.appendEncoded(url, values);
+		appendParameters(url, parameters);
+		return new URI(url.toString());
+	}
+
+	/**
+	 * Percent-encodes path of resource
+	 */
+	static void encodePath(StringBuilder to, String path) {
+		encode(to, path, 0, PATH_SAFE, false);
+	}
+
+	private static void appendParameters(StringBuilder url, Map<String, String> parameters) {
+		if (null == parameters || parameters.isEmpty()) {
+			return;
+		}
+		char separator = '?';
+		for (Entry<String, String> parameter : parameters.entrySet()) {
+			url.append(separator);
+			encode(url, parameter.getKey(), 0, QUERY_SAFE, true);
+			if (null != parameter.getValue()) {
+				url.append('=');
+				encode(url, parameter.getValue(), 0, QUERY_SAFE, true);
+			}
+			separator = '&';
+		}
+	}
+
+	private static String parsePrefix(String baseUrl) {
+		try {
+			URI base = new URI(baseUrl);
+			if (base.isOpaque() || null == base.getScheme() || null == base.getRawAuthority() || null != base.getRawQuery()
+					|| null != base.getRawFragment()) {
+				return null;
+			}
+			return base.getScheme() + "://" + base.getRawAuthority();
+		} catch (URISyntaxException e) {
+			/* URIBuilder reports error on first request */
+			return null;
+		}
+	}
+
+	/**
+	 * Percent-encodes UTF-8 representation of string
+	 */
+	private static void encode(StringBuilder to, String s, int start, boolean[] safe, boolean blankAsPlus) {
+		for (int i = start; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c >= 0x80) {
+				for (byte b : s.substring(i).getBytes(Charsets.UTF_8)) {
+					encode(to, b & 0xFF, safe, blankAsPlus);
+				}
+				return;
+			}
+			encode(to, c, safe, blankAsPlus);
+		}
+	}
+
+	private static void encode(StringBuilder to, int b, boolean[] safe, boolean blankAsPlus) {
+		if (b < 0x80 && safe[b]) {
+			to.append((char) b);
+		} else if (blankAsPlus && ' ' == b) {
+			to.append('+');
+		} else {
+			to.append('%').append(HEX[b >> 4]).append(HEX[b & 0xF]);
+		}
+	}
+
+	private static boolean[] safe(String punctuation) {
+		boolean[] safe = new boolean[0x80];
+		for (char c = 'a'; c <= 'z'; c++) {
+			safe[c] = true;
+		}
+		for (char c = 'A'; c <= 'Z'; c++) {
+			safe[c] = true;
+		}
+		for (char c = '0'; c <= '9'; c++) {
+			safe[c] = true;
+		}
+		for (char c : punctuation.toCharArray()) {
+			safe[c] = true;
+		}
+		return safe;
+	}
+}
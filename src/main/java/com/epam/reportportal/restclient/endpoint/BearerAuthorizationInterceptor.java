@@ -32,17 +32,31 @@ import java.io.IOException;
 import static com.google.common.base.Strings.isNullOrEmpty;
 
 /**
- * Adds bearer token to requests
+ * Adds bearer token to requests. Token is either fixed or obtained from
+ * {@link TokenProvider} for each request. In the latter case token used by
+ * request is stored in context, so it may be invalidated if server rejects it
+ * (see {@link TokenRefreshRetryStrategy})
  *
  * @author Andrei Varabyeu
  */
 public class BearerAuthorizationInterceptor implements HttpRequestInterceptor {
 
+	/** Context attribute holding {@link AccessToken} used by request */
+	public static final String ACCESS_TOKEN = "rp.access-token";
+
 	private final String authorization;
 
+	private final TokenProvider tokenProvider;
+
 	public BearerAuthorizationInterceptor(String token) {
 		Preconditions.checkArgument(!isNullOrEmpty(token));
 		this.authorization = "Bearer " + token;
+		this.tokenProvider = null;
+	}
+
+	public BearerAuthorizationInterceptor(TokenProvider tokenProvider) {
+		this.tokenProvider = Preconditions.checkNotNull(tokenProvider, "Token provider shouldn't be null");
+		this.authorization = null;
 	}
 
 	@Override
@@ -50,6 +64,12 @@ public class BearerAuthorizationInterceptor implements HttpRequestInterceptor {
 		/* remove already existing auth headers if they are present */
 		request.removeHeaders(HttpHeaders.AUTHORIZATION);
 
-		request.setHeader(HttpHeaders.AUTHORIZATION, authorization);
+		if (null == tokenProvider) {
+			request.setHeader(HttpHeaders.AUTHORIZATION, authorization);
+		} else {
+			AccessToken token = tokenProvider.getToken();
+			context.setAttribute(ACCESS_TOKEN, token);
+			request.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token.getValue());
+		}
 	}
 }
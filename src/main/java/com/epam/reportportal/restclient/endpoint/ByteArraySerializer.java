@@ -21,10 +21,13 @@
 package com.epam.reportportal.restclient.endpoint;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 
 import com.epam.reportportal.restclient.endpoint.exception.SerializerException;
+import com.google.common.io.ByteStreams;
 import com.google.common.net.MediaType;
 
 /**
@@ -34,7 +37,7 @@ import com.google.common.net.MediaType;
  * @author Andrei Varabyeu
  * 
  */
-public class ByteArraySerializer implements Serializer {
+public class ByteArraySerializer implements StreamSerializer {
 
 	/*
 	 * (non-Javadoc)
@@ -47,6 +50,21 @@ public class ByteArraySerializer implements Serializer {
 		return new ByteArrayInputStream((byte[]) t);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * StreamSerializer#serialize(java.lang.Object, java.io.OutputStream)
+	 */
+	@Override
+	public <T> void serialize(T t, OutputStream os) throws SerializerException {
+		try {
+			os.write((byte[]) t);
+		} catch (IOException e) {
+			throw new SerializerException("Unable to write byte array", e);
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -77,6 +95,28 @@ public class ByteArraySerializer implements Serializer {
 		throw new SerializerException("Unable to deserialize to type '" + type + "'");
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see StreamSerializer#deserialize(java.io.InputStream,
+	 * java.lang.Class)
+	 */
+	@Override
+	public <T> T deserialize(InputStream content, Class<T> clazz) throws SerializerException {
+		return deserialize(readFully(content), clazz);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see StreamSerializer#deserialize(java.io.InputStream,
+	 * java.lang.reflect.Type)
+	 */
+	@Override
+	public <T> T deserialize(InputStream content, Type type) throws SerializerException {
+		return deserialize(readFully(content), type);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -110,4 +150,12 @@ public class ByteArraySerializer implements Serializer {
 		return byte[].class.equals(o.getClass());
 	}
 
+	private byte[] readFully(InputStream content) throws SerializerException {
+		try {
+			return ByteStreams.toByteArray(content);
+		} catch (IOException e) {
+			throw new SerializerException("Unable to read content", e);
+		}
+	}
+
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Configuration of {@link CircuitBreakerRestEndpoint}. Use
+ * {@link CircuitBreakerConfig.Builder} to create instances. All durations are
+ * in milliseconds
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class CircuitBreakerConfig {
+
+	/** Default configuration */
+	public static final CircuitBreakerConfig DEFAULT = new Builder().build();
+
+	/** Number of last calls failure rate is calculated on */
+	private final int windowSize;
+
+	/** Min number of calls in window before failure rate is evaluated */
+	private final int minimumCalls;
+
+	/** Failure rate (0, 1] opening the circuit */
+	private final double failureRateThreshold;
+
+	/** Time circuit stays open before trial calls are permitted */
+	private final long openDuration;
+
+	/** Number of successful trial calls closing half-open circuit */
+	private final int halfOpenCalls;
+
+	private CircuitBreakerConfig(Builder builder) {
+		this.windowSize = builder.windowSize;
+		this.minimumCalls = builder.minimumCalls;
+		this.failureRateThreshold = builder.failureRateThreshold;
+		this.openDuration = builder.openDuration;
+		this.halfOpenCalls = builder.halfOpenCalls;
+	}
+
+	public int getWindowSize() {
+		return windowSize;
+	}
+
+	public int getMinimumCalls() {
+		return minimumCalls;
+	}
+
+	public double getFailureRateThreshold() {
+		return failureRateThreshold;
+	}
+
+	public long getOpenDuration() {
+		return openDuration;
+	}
+
+	public int getHalfOpenCalls() {
+		return halfOpenCalls;
+	}
+
+	/**
+	 * Builder for {@link CircuitBreakerConfig}
+	 * 
+	 * @author Andrei Varabyeu
+	 * 
+	 */
+	public static class Builder {
+		private int windowSize = 20;
+		private int minimumCalls = 10;
+		private double failureRateThreshold = 0.5;
+		private long openDuration = TimeUnit.SECONDS.toMillis(30);
+		private int halfOpenCalls = 3;
+
+		public Builder windowSize(int windowSize) {
+			Preconditions.checkArgument(windowSize > 0, "Window size should be positive");
+			this.windowSize = windowSize;
+			return this;
+		}
+
+		public Builder minimumCalls(int minimumCalls) {
+			Preconditions.checkArgument(minimumCalls > 0, "Minimum calls should be positive");
+			this.minimumCalls = minimumCalls;
+			return this;
+		}
+
+		public Builder failureRateThreshold(double threshold) {
+			Preconditions.checkArgument(threshold > 0 && threshold <= 1, "Failure rate threshold should be in range (0, 1]");
+			this.failureRateThreshold = threshold;
+			return this;
+		}
+
+		public Builder openDuration(long duration, TimeUnit unit) {
+			Preconditions.checkArgument(duration >= 0, "Open duration should be non-negative");
+			this.openDuration = unit.toMillis(duration);
+			return this;
+		}
+
+		public Builder halfOpenCalls(int halfOpenCalls) {
+			Preconditions.checkArgument(halfOpenCalls > 0, "Half-open calls should be positive");
+			this.halfOpenCalls = halfOpenCalls;
+			return this;
+		}
+
+		public CircuitBreakerConfig build() {
+			Preconditions.checkArgument(windowSize >= minimumCalls, "Window size should be not less than minimum calls");
+			return new CircuitBreakerConfig(this);
+		}
+	}
+}
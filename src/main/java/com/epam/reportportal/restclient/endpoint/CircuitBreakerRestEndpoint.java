@@ -0,0 +1,209 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.epam.reportportal.restclient.endpoint.exception.CircuitBreakerOpenException;
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointException;
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointIOException;
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointServerException;
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link RestEndpoint} decorator implementing circuit breaker. Tracks outcome
+ * of last calls and opens the circuit once failure rate exceeds threshold.
+ * While the circuit is open calls fail fast with
+ * {@link CircuitBreakerOpenException} without touching the network. After
+ * open duration elapses several trial calls are permitted (half-open state):
+ * circuit closes if all of them succeed and opens again otherwise<br>
+ * Server errors, 429 responses and I/O errors are counted as failures. Client
+ * errors mean server is healthy and counted as successful calls
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class CircuitBreakerRestEndpoint extends RestEndpointDecorator {
+
+	/**
+	 * State of circuit
+	 */
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final CircuitBreakerConfig config;
+
+	private final Object lock = new Object();
+
+	private volatile State state = State.CLOSED;
+
+	/** Time circuit has been opened at (nanos) */
+	private volatile long openedAt;
+
+	/**
+	 * Incremented on each state transition. Result of call is counted only if
+	 * state hasn't changed since call has been admitted, so calls admitted in
+	 * closed state aren't counted as trial calls and vice versa
+	 */
+	private volatile long generation;
+
+	/* Ring buffer of outcomes of last calls. Guarded by lock */
+	private final boolean[] window;
+	private int windowIndex;
+	private int calls;
+	private int failures;
+
+	/* Half-open state counters. Guarded by lock */
+	private int trialPermits;
+	private int trialSuccesses;
+
+	public CircuitBreakerRestEndpoint(RestEndpoint delegate) {
+		this(delegate, CircuitBreakerConfig.DEFAULT);
+	}
+
+	public CircuitBreakerRestEndpoint(RestEndpoint delegate, CircuitBreakerConfig config) {
+		super(delegate);
+		this.config = Preconditions.checkNotNull(config, "Circuit breaker config shouldn't be null");
+		this.window = new boolean[config.getWindowSize()];
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	@Override
+	protected <RS> RS execute(HttpMethod method, String resource, Invocation<RS> invocation) throws RestEndpointIOException {
+		long admittedAt = acquirePermission(method, resource);
+		boolean failure = false;
+		try {
+			return invocation.invoke();
+		} catch (RestEndpointException e) {
+			failure = e instanceof RestEndpointServerException || 429 == e.getStatusCode();
+			throw e;
+		} catch (RestEndpointIOException e) {
+			failure = e.getCause() instanceof IOException;
+			throw e;
+		} catch (RuntimeException e) {
+			/* unexpected failure of client (e.g. connection pool is shut down) */
+			failure = true;
+			throw e;
+		} catch (Error e) {
+			failure = true;
+			throw e;
+		} finally {
+			onResult(admittedAt, failure);
+		}
+	}
+
+	/**
+	 * @return Generation of state call is admitted in
+	 */
+	private long acquirePermission(HttpMethod method, String resource) throws CircuitBreakerOpenException {
+		/* generation is read before state since transitions update it first */
+		long admittedAt = generation;
+		if (State.CLOSED == state) {
+			return admittedAt;
+		}
+		/* fail fast without locking while open duration hasn't elapsed */
+		if (State.OPEN == state && !isOpenDurationElapsed()) {
+			throw rejected(method, resource);
+		}
+		synchronized (lock) {
+			if (State.OPEN == state) {
+				if (!isOpenDurationElapsed()) {
+					throw rejected(method, resource);
+				}
+				generation++;
+				state = State.HALF_OPEN;
+				trialPermits = config.getHalfOpenCalls();
+				trialSuccesses = 0;
+			}
+			if (State.HALF_OPEN == state) {
+				if (0 == trialPermits) {
+					throw rejected(method, resource);
+				}
+				trialPermits--;
+			}
+			return generation;
+		}
+	}
+
+	private void onResult(long admittedAt, boolean failure) {
+		synchronized (lock) {
+			if (admittedAt != generation) {
+				/* call started in another state, e.g. before circuit opened */
+				return;
+			}
+			switch (state) {
+			case CLOSED:
+				if (calls == window.length) {
+					if (window[windowIndex]) {
+						failures--;
+					}
+				} else {
+					calls++;
+				}
+				window[windowIndex] = failure;
+				windowIndex = (windowIndex + 1) % window.length;
+				if (failure) {
+					failures++;
+				}
+				if (calls >= config.getMinimumCalls() && failures >= config.getFailureRateThreshold() * calls) {
+					open();
+				}
+				break;
+			case HALF_OPEN:
+				if (failure) {
+					open();
+				} else if (++trialSuccesses >= config.getHalfOpenCalls()) {
+					close();
+				}
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	private void open() {
+		openedAt = System.nanoTime();
+		generation++;
+		state = State.OPEN;
+	}
+
+	private void close() {
+		calls = 0;
+		failures = 0;
+		windowIndex = 0;
+		generation++;
+		state = State.CLOSED;
+	}
+
+	private boolean isOpenDurationElapsed() {
+		return System.nanoTime() - openedAt >= TimeUnit.MILLISECONDS.toNanos(config.getOpenDuration());
+	}
+
+	private CircuitBreakerOpenException rejected(HttpMethod method, String resource) {
+		return new CircuitBreakerOpenException("Circuit breaker is open. Request " + method + " " + resource + " is rejected");
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * Iterator over elements read lazily from underlying resource (e.g. HTTP
+ * response stream). Resource is released once iterator is exhausted, so
+ * {@link #close()} should be called only if iteration is interrupted.
+ * Failures of reading are thrown as
+ * {@link com.epam.reportportal.restclient.endpoint.exception.UncheckedRestEndpointIOException}
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+
+	/**
+	 * Releases underlying resource. Remaining elements are not read
+	 */
+	@Override
+	void close();
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.util.concurrent.TimeUnit;
+
+import com.epam.reportportal.apache.http.client.config.RequestConfig;
+import com.google.common.base.Preconditions;
+
+/**
+ * Configuration of HTTP connection pool and timeouts used by
+ * {@link AuthClientFactory} and {@link SslClientFactory}. Use
+ * {@link ConnectionPoolConfig.Builder} to create instances. All durations are
+ * in milliseconds, negative timeout means system default
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class ConnectionPoolConfig {
+
+	/** Default configuration. Keeps previous hard-coded pool limits */
+	public static final ConnectionPoolConfig DEFAULT = new Builder().build();
+
+	/** Max connections per route (host) */
+	private final int maxConnPerRoute;
+
+	/** Max connections in pool */
+	private final int maxConnTotal;
+
+	/** Time to live of pooled connection. Non-positive means infinite */
+	private final long connectionTtl;
+
+	/**
+	 * Max time connection may be idle in pool. Idle connections are closed by
+	 * background evictor, so they are never leased in stale state
+	 */
+	private final long maxIdleTime;
+
+	/** Whether connection should be checked for staleness before each lease */
+	private final boolean staleConnectionCheckEnabled;
+
+	/** Interval of idle connection evictor. Non-positive disables evictor */
+	private final long evictionInterval;
+
+	/** Socket (read) timeout */
+	private final int socketTimeout;
+
+	/** Connect timeout */
+	private final int connectTimeout;
+
+	/** Timeout of leasing connection from the pool */
+	private final int connectionRequestTimeout;
+
+	private ConnectionPoolConfig(Builder builder) {
+		this.maxConnPerRoute = builder.maxConnPerRoute;
+		this.maxConnTotal = builder.maxConnTotal;
+		this.connectionTtl = builder.connectionTtl;
+		this.maxIdleTime = builder.maxIdleTime;
+		this.staleConnectionCheckEnabled = builder.staleConnectionCheckEnabled;
+		this.evictionInterval = builder.evictionInterval;
+		this.socketTimeout = builder.socketTimeout;
+		this.connectTimeout = builder.connectTimeout;
+		this.connectionRequestTimeout = builder.connectionRequestTimeout;
+	}
+
+	public int getMaxConnPerRoute() {
+		return maxConnPerRoute;
+	}
+
+	public int getMaxConnTotal() {
+		return maxConnTotal;
+	}
+
+	public long getConnectionTtl() {
+		return connectionTtl;
+	}
+
+	public long getMaxIdleTime() {
+		return maxIdleTime;
+	}
+
+	public boolean isStaleConnectionCheckEnabled() {
+		return staleConnectionCheckEnabled;
+	}
+
+	public long getEvictionInterval() {
+		return evictionInterval;
+	}
+
+	public int getSocketTimeout() {
+		return socketTimeout;
+	}
+
+	public int getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public int getConnectionRequestTimeout() {
+		return connectionRequestTimeout;
+	}
+
+	/**
+	 * Builds default request config with configured timeouts
+	 * 
+	 * @return
+	 */
+	public RequestConfig toRequestConfig() {
+		return RequestConfig.custom().setSocketTimeout(socketTimeout).setConnectTimeout(connectTimeout)
+				.setConnectionRequestTimeout(connectionRequestTimeout).setStaleConnectionCheckEnabled(staleConnectionCheckEnabled).build();
+	}
+
+	/**
+	 * Builder for {@link ConnectionPoolConfig}
+	 * 
+	 * @author Andrei Varabyeu
+	 * 
+	 */
+	public static class Builder {
+		private int maxConnPerRoute = 5;
+		private int maxConnTotal = 20;
+		private long connectionTtl = -1;
+		private long maxIdleTime = -1;
+		private boolean staleConnectionCheckEnabled = true;
+		private long evictionInterval = -1;
+		private int socketTimeout = -1;
+		private int connectTimeout = -1;
+		private int connectionRequestTimeout = -1;
+
+		public Builder maxConnPerRoute(int maxConnPerRoute) {
+			Preconditions.checkArgument(maxConnPerRoute > 0, "Max connections per route should be positive");
+			this.maxConnPerRoute = maxConnPerRoute;
+			return this;
+		}
+
+		public Builder maxConnTotal(int maxConnTotal) {
+			Preconditions.checkArgument(maxConnTotal > 0, "Max connections total should be positive");
+			this.maxConnTotal = maxConnTotal;
+			return this;
+		}
+
+		public Builder connectionTtl(long ttl, TimeUnit unit) {
+			this.connectionTtl = unit.toMillis(ttl);
+			return this;
+		}
+
+		public Builder maxIdleTime(long idleTime, TimeUnit unit) {
+			this.maxIdleTime = unit.toMillis(idleTime);
+			return this;
+		}
+
+		public Builder staleConnectionCheckEnabled(boolean enabled) {
+			this.staleConnectionCheckEnabled = enabled;
+			return this;
+		}
+
+		public Builder evictionInterval(long interval, TimeUnit unit) {
+			this.evictionInterval = unit.toMillis(interval);
+			return this;
+		}
+
+		public Builder socketTimeout(int timeout, TimeUnit unit) {
+			this.socketTimeout = (int) unit.toMillis(timeout);
+			return this;
+		}
+
+		public Builder connectTimeout(int timeout, TimeUnit unit) {
+			this.connectTimeout = (int) unit.toMillis(timeout);
+			return this;
+		}
+
+		public Builder connectionRequestTimeout(int timeout, TimeUnit unit) {
+			this.connectionRequestTimeout = (int) unit.toMillis(timeout);
+			return this;
+		}
+
+		public ConnectionPoolConfig build() {
+			Preconditions.checkArgument(maxConnTotal >= maxConnPerRoute, "Max connections total should be not less than per route");
+			return new ConnectionPoolConfig(this);
+		}
+	}
+}
@@ -21,31 +21,94 @@
 package com.epam.reportportal.restclient.endpoint;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import com.epam.reportportal.restclient.endpoint.exception.RestEndpointIOException;
 import com.epam.reportportal.restclient.endpoint.exception.RestEndpointServerException;
+import com.epam.reportportal.apache.http.Header;
 import com.epam.reportportal.apache.http.HttpEntity;
 import com.epam.reportportal.apache.http.HttpResponse;
+import com.epam.reportportal.apache.http.StatusLine;
+import com.epam.reportportal.apache.http.client.utils.DateUtils;
 import com.epam.reportportal.apache.http.util.EntityUtils;
 import com.epam.reportportal.restclient.endpoint.exception.RestEndpointClientException;
 import com.epam.reportportal.restclient.endpoint.exception.RestEndpointException;
+import com.epam.reportportal.restclient.endpoint.exception.SerializerException;
+import com.google.common.base.Preconditions;
+import com.google.common.net.HttpHeaders;
 
 /**
  * Default implementation of
- * {@link ErrorHandler}
+ * {@link ErrorHandler}. Captures only beginning of error body (see
+ * {@link #DEFAULT_MAX_BODY_SIZE}), so large error pages don't inflate
+ * exceptions. Captured body is decoded into structured error object only on
+ * demand, see {@link RestEndpointException#getContent(Class)}
  * 
  * @author Andrei Varabyeu
  * 
  */
 public class DefaultErrorHandler implements ErrorHandler<HttpResponse> {
 
+	/** Size of buffer error body is read with */
+	private static final int BUFFER_SIZE = 4096;
+
+	/**
+	 * Max count of not captured bytes of error body read to release
+	 * connection. Connection of larger bodies is aborted
+	 */
+	private static final int MAX_DRAIN_SIZE = 4096;
+
+	/** Default max count of captured bytes of error body */
+	public static final int DEFAULT_MAX_BODY_SIZE = 64 * 1024;
+
+	/** Serializers for decoding error bodies. May be null */
+	private final SerializerRegistry serializers;
+
+	/** Max count of captured bytes of error body. Zero disables capturing */
+	private final int maxBodySize;
+
+	public DefaultErrorHandler() {
+		this((SerializerRegistry) null, DEFAULT_MAX_BODY_SIZE);
+	}
+
+	/**
+	 * @param serializers
+	 *            - Serializers for decoding error bodies, see
+	 *            {@link RestEndpointException#getContent(Class)}
+	 */
+	public DefaultErrorHandler(List<Serializer> serializers) {
+		this(serializers, DEFAULT_MAX_BODY_SIZE);
+	}
+
+	/**
+	 * @param serializers
+	 *            - Serializers for decoding error bodies, see
+	 *            {@link RestEndpointException#getContent(Class)}. May be null
+	 * @param maxBodySize
+	 *            - Max count of captured bytes of error body. Zero disables
+	 *            capturing, so body is not read at all
+	 */
+	public DefaultErrorHandler(List<Serializer> serializers, int maxBodySize) {
+		this(null == serializers ? null : new SerializerRegistry(serializers), maxBodySize);
+	}
+
+	DefaultErrorHandler(SerializerRegistry serializers, int maxBodySize) {
+		Preconditions.checkArgument(maxBodySize >= 0 && maxBodySize < Integer.MAX_VALUE, "Max body size should be in range [0, "
+				+ Integer.MAX_VALUE + ")");
+		this.serializers = serializers;
+		this.maxBodySize = maxBodySize;
+	}
+
 	/**
 	 * Returns TRUE in case status code of response starts with 4 or 5
 	 */
 	@Override
 	public boolean hasError(HttpResponse rs) {
-		StatusType statusType = StatusType.valueOf(rs.getStatusLine().getStatusCode());
-		return (statusType == StatusType.CLIENT_ERROR || statusType == StatusType.SERVER_ERROR);
+		return StatusType.valueOf(rs.getStatusLine().getStatusCode()).isError();
 	}
 
 	/**
@@ -63,22 +126,52 @@ public class DefaultErrorHandler implements ErrorHandler<HttpResponse> {
 		if (!hasError(rs)) {
 			return;
 		}
-		StatusType statusType = StatusType.valueOf(rs.getStatusLine().getStatusCode());
-		int statusCode = rs.getStatusLine().getStatusCode();
-		String statusMessage = rs.getStatusLine().getReasonPhrase();
-		byte[] errorBody = getErrorBody(rs);
-
-		switch (statusType) {
-		case CLIENT_ERROR:
-			handleClientError(statusCode, statusMessage, errorBody);
-			break;
-		case SERVER_ERROR:
-			handleServerError(statusCode, statusMessage, errorBody);
-			break;
-		default:
-			handleDefaultError(statusCode, statusMessage, errorBody);
-			break;
+		StatusLine statusLine = rs.getStatusLine();
+		int statusCode = statusLine.getStatusCode();
+		StatusType statusType = StatusType.valueOf(statusCode);
+		String statusMessage = statusLine.getReasonPhrase();
+		HttpEntity entity = rs.getEntity();
+		ErrorBody body = getErrorBody(entity);
+		byte[] errorBody = body.content;
+
+		try {
+			switch (statusType) {
+			case CLIENT_ERROR:
+				handleClientError(statusCode, statusMessage, errorBody);
+				break;
+			case SERVER_ERROR:
+				handleServerError(statusCode, statusMessage, errorBody);
+				break;
+			default:
+				handleDefaultError(statusCode, statusMessage, errorBody);
+				break;
+			}
+		} catch (RestEndpointException e) {
+			e.setRetryAfter(getRetryAfter(rs));
+			if (null != errorBody && null != entity.getContentType()) {
+				e.setContentType(entity.getContentType().getValue());
+				e.setContentReader(getContentReader(e.getContentType()));
+			}
+			e.setContentTruncated(body.truncated);
+			throw e;
+		}
+	}
+
+	/**
+	 * Checks response via {@link #hasError(HttpResponse)} and handles it via
+	 * {@link #handle(HttpResponse)}, so both methods may be overridden in
+	 * subclasses
+	 * 
+	 * @param rs
+	 * @return TRUE if response has an error and has been handled
+	 * @throws RestEndpointIOException
+	 */
+	public boolean handleIfError(HttpResponse rs) throws RestEndpointIOException {
+		if (!hasError(rs)) {
+			return false;
 		}
+		handle(rs);
+		return true;
 	}
 
 	/**
@@ -127,25 +220,124 @@ public class DefaultErrorHandler implements ErrorHandler<HttpResponse> {
 	}
 
 	/**
-	 * Parses byte from entity
+	 * Parses Retry-After header. Both delay-seconds and HTTP-date forms are
+	 * supported
 	 * 
 	 * @param rs
-	 * @return
+	 * @return Delay in milliseconds or -1 if header is absent or malformed
+	 */
+	private long getRetryAfter(HttpResponse rs) {
+		Header header = rs.getFirstHeader(HttpHeaders.RETRY_AFTER);
+		if (null == header || null == header.getValue()) {
+			return -1;
+		}
+		String value = header.getValue().trim();
+		try {
+			return TimeUnit.SECONDS.toMillis(Long.parseLong(value));
+		} catch (NumberFormatException e) {
+			Date date = DateUtils.parseDate(value);
+			return null == date ? -1 : Math.max(0, date.getTime() - System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * Finds serializer for error body
+	 * 
+	 * @param contentType
+	 * @return Serializer or NULL if there is no one
+	 */
+	private Serializer getContentReader(String contentType) {
+		if (null == serializers) {
+			return null;
+		}
+		try {
+			return serializers.getReader(contentType);
+		} catch (SerializerException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Reads beginning of error body. If body is read completely or the rest of
+	 * body is small, entity is consumed so connection may be reused.
+	 * Otherwise the rest of body is left unread, so caller aborting request
+	 * doesn't download it
+	 * 
+	 * @param entity
+	 * @return Captured part of body
 	 * @throws RestEndpointIOException
 	 */
-	private byte[] getErrorBody(HttpResponse rs) throws RestEndpointIOException {
-		HttpEntity entity = null;
+	private ErrorBody getErrorBody(HttpEntity entity) throws RestEndpointIOException {
+		if (null == entity) {
+			return ErrorBody.NONE;
+		}
 		try {
-			entity = rs.getEntity();
-			return EntityUtils.toByteArray(rs.getEntity());
-		} catch (IOException e) {
-			throw new RestEndpointIOException("Unable to read body from error", e);
-		} finally {
-			try {
+			long length = entity.getContentLength();
+			if (0 == maxBodySize) {
+				drainIfSmall(entity, length);
+				return ErrorBody.NONE;
+			}
+			InputStream content = entity.getContent();
+			if (null == content) {
+				return ErrorBody.NONE;
+			}
+			byte[] body = new byte[length >= 0 ? (int) Math.min(length, maxBodySize) : Math.min(maxBodySize, BUFFER_SIZE)];
+			int size = 0;
+			while (size < maxBodySize) {
+				if (size == body.length) {
+					if (size == length) {
+						break;
+					}
+					body = Arrays.copyOf(body, (int) Math.min(maxBodySize, 2L * body.length));
+				}
+				int read = content.read(body, size, body.length - size);
+				if (-1 == read) {
+					break;
+				}
+				size += read;
+			}
+
+			/* whether there is something left is known from length or by probing single byte */
+			boolean truncated = size == maxBodySize && (length >= 0 ? length > size : -1 != content.read());
+			if (truncated) {
+				drainIfSmall(entity, length - size);
+			} else {
 				EntityUtils.consume(entity);
-			} catch (IOException e) {
-				throw new RestEndpointIOException("Unable to consume response entity", e);
 			}
+			return new ErrorBody(size == body.length ? body : Arrays.copyOf(body, size), truncated);
+		} catch (IOException e) {
+			throw new RestEndpointIOException("Unable to read body from error", e);
+		}
+	}
+
+	/**
+	 * Consumes entity if amount of bytes left is known and small
+	 * 
+	 * @param entity
+	 * @param remaining
+	 *            - Count of bytes left. Negative if unknown
+	 * @throws IOException
+	 */
+	private static void drainIfSmall(HttpEntity entity, long remaining) throws IOException {
+		if (remaining >= 0 && remaining <= MAX_DRAIN_SIZE) {
+			EntityUtils.consume(entity);
+		}
+	}
+
+	/**
+	 * Captured part of error body
+	 */
+	private static class ErrorBody {
+
+		private static final ErrorBody NONE = new ErrorBody(null, false);
+
+		private final byte[] content;
+
+		private final boolean truncated;
+
+		ErrorBody(byte[] content, boolean truncated) {
+			this.content = content;
+			this.truncated = truncated;
 		}
 	}
 }
@@ -47,4 +47,5 @@ public interface ErrorHandler<RS> {
 	 * @throws RestEndpointIOException
 	 */
 	void handle(RS rs) throws RestEndpointIOException;
+
 }
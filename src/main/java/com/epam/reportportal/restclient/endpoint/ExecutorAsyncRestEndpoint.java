@@ -0,0 +1,318 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.Closeable;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.epam.reportportal.restclient.endpoint.exception.RequestThrottledException;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * {@link AsyncRestEndpoint} adapter of blocking endpoints. Dispatches calls of
+ * wrapped {@link RestEndpoint} (e.g. decorated with retries or circuit
+ * breaker) to the bounded pool of threads, so caller threads are never blocked
+ * on network operations. Each request in-flight occupies a pool thread, so
+ * amount of requests executed in parallel is limited by pool size, the rest of
+ * requests are queued. For non-blocking I/O use
+ * {@link HttpAsyncClientRestEndpoint}<br>
+ * If {@link Throttler} is provided, requests are admitted without blocking:
+ * request not admitted immediately is queued by throttler and dispatched once
+ * permit is handed to it, so I/O threads are never parked waiting for permits
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class ExecutorAsyncRestEndpoint implements AsyncRestEndpoint, Closeable {
+
+	/** Endpoint used to execute requests */
+	private final RestEndpoint delegate;
+
+	/** I/O Executor */
+	private final ListeningExecutorService executor;
+
+	/** Whether executor has been created by this endpoint */
+	private final boolean ownExecutor;
+
+	/** Admission control. NULL if requests aren't throttled */
+	private final Throttler throttler;
+
+	/**
+	 * Creates endpoint with own pool of I/O threads. Pool is released on
+	 * {@link #close()}
+	 * 
+	 * @param delegate
+	 *            - Endpoint used to execute requests
+	 * @param ioThreads
+	 *            - Count of I/O threads
+	 */
+	public ExecutorAsyncRestEndpoint(RestEndpoint delegate, int ioThreads) {
+		this(delegate, ioThreads, null);
+	}
+
+	/**
+	 * Creates endpoint with own pool of I/O threads admitting requests via
+	 * throttler. Pool is released on {@link #close()}
+	 * 
+	 * @param delegate
+	 *            - Endpoint used to execute requests
+	 * @param ioThreads
+	 *            - Count of I/O threads
+	 * @param throttler
+	 *            - Admission control
+	 */
+	public ExecutorAsyncRestEndpoint(RestEndpoint delegate, int ioThreads, Throttler throttler) {
+		this(delegate, Executors.newFixedThreadPool(ioThreads,
+				new ThreadFactoryBuilder().setDaemon(true).setNameFormat("rest-endpoint-io-%d").build()), true, throttler);
+	}
+
+	/**
+	 * Creates endpoint executing requests via provided executor. Lifecycle of
+	 * executor should be managed by caller
+	 * 
+	 * @param delegate
+	 *            - Endpoint used to execute requests
+	 * @param executor
+	 *            - I/O Executor
+	 */
+	public ExecutorAsyncRestEndpoint(RestEndpoint delegate, ExecutorService executor) {
+		this(delegate, executor, false, null);
+	}
+
+	/**
+	 * Creates endpoint executing requests via provided executor and admitting
+	 * them via throttler. Lifecycle of executor should be managed by caller
+	 * 
+	 * @param delegate
+	 *            - Endpoint used to execute requests
+	 * @param executor
+	 *            - I/O Executor
+	 * @param throttler
+	 *            - Admission control
+	 */
+	public ExecutorAsyncRestEndpoint(RestEndpoint delegate, ExecutorService executor, Throttler throttler) {
+		this(delegate, executor, false, throttler);
+	}
+
+	private ExecutorAsyncRestEndpoint(RestEndpoint delegate, ExecutorService executor, boolean ownExecutor, Throttler throttler) {
+		this.delegate = Preconditions.checkNotNull(delegate, "Delegate endpoint shouldn't be null");
+		this.executor = MoreExecutors.listeningDecorator(Preconditions.checkNotNull(executor, "Executor shouldn't be null"));
+		this.ownExecutor = ownExecutor;
+		this.throttler = throttler;
+	}
+
+	@Override
+	public <RQ, RS> ListenableFuture<RS> post(final String resource, final RQ rq, final Class<RS> clazz) {
+		return submit(resource, new Callable<RS>() {
+			@Override
+			public RS call() throws Exception {
+				return delegate.post(resource, rq, clazz);
+			}
+		});
+	}
+
+	@Override
+	public <RQ, RS> ListenableFuture<RS> post(final String resource, final RQ rq, final Type type) {
+		return submit(resource, new Callable<RS>() {
+			@Override
+			public RS call() throws Exception {
+				return delegate.post(resource, rq, type);
+			}
+		});
+	}
+
+	@Override
+	public <RQ, RS> ListenableFuture<RS> post(final String resource, final MultiPartRequest<RQ> request, final Class<RS> clazz) {
+		return submit(resource, new Callable<RS>() {
+			@Override
+			public RS call() throws Exception {
+				return delegate.post(resource, request, clazz);
+			}
+		});
+	}
+
+	@Override
+	public <RQ, RS> ListenableFuture<RS> post(final String resource, final Map<String, String> parameters, final RQ rq,
+			final Class<RS> clazz) {
+		return submit(resource, new Callable<RS>() {
+			@Override
+			public RS call() throws Exception {
+				return delegate.post(resource, parameters, rq, clazz);
+			}
+		});
+	}
+
+	@Override
+	public <RQ, RS> ListenableFuture<RS> put(final String resource, final RQ rq, final Class<RS> clazz) {
+		return submit(resource, new Callable<RS>() {
+			@Override
+			public RS call() throws Exception {
+				return delegate.put(resource, rq, clazz);
+			}
+		});
+	}
+
+	@Override
+	public <RQ, RS> ListenableFuture<RS> put(final String resource, final RQ rq, final Type type) {
+		return submit(resource, new Callable<RS>() {
+			@Override
+			public RS call() throws Exception {
+				return delegate.put(resource, rq, type);
+			}
+		});
+	}
+
+	@Override
+	public <RS> ListenableFuture<RS> delete(final String resource, final Class<RS> clazz) {
+		return submit(resource, new Callable<RS>() {
+			@Override
+			public RS call() throws Exception {
+				return delegate.delete(resource, clazz);
+			}
+		});
+	}
+
+	@Override
+	public <RS> ListenableFuture<RS> get(final String resource, final Class<RS> clazz) {
+		return submit(resource, new Callable<RS>() {
+			@Override
+			public RS call() throws Exception {
+				return delegate.get(resource, clazz);
+			}
+		});
+	}
+
+	@Override
+	public <RS> ListenableFuture<RS> get(final String resource, final Type type) {
+		return submit(resource, new Callable<RS>() {
+			@Override
+			public RS call() throws Exception {
+				return delegate.get(resource, type);
+			}
+		});
+	}
+
+	@Override
+	public <RS> ListenableFuture<RS> get(final String resource, final Map<String, String> parameters, final Class<RS> clazz) {
+		return submit(resource, new Callable<RS>() {
+			@Override
+			public RS call() throws Exception {
+				return delegate.get(resource, parameters, clazz);
+			}
+		});
+	}
+
+	@Override
+	public <RS> ListenableFuture<RS> get(final String resource, final Map<String, String> parameters, final Type type) {
+		return submit(resource, new Callable<RS>() {
+			@Override
+			public RS call() throws Exception {
+				return delegate.get(resource, parameters, type);
+			}
+		});
+	}
+
+	@Override
+	public <RQ, RS> ListenableFuture<RS> executeRequest(final RestCommand<RQ, RS> command) {
+		return submit(command.getUri(), new Callable<RS>() {
+			@Override
+			public RS call() throws Exception {
+				return delegate.executeRequest(command);
+			}
+		});
+	}
+
+	private <RS> ListenableFuture<RS> submit(String resource, Callable<RS> call) {
+		if (null == throttler) {
+			return executor.submit(call);
+		}
+		SettableFuture<RS> future = SettableFuture.create();
+		throttler.acquire(resource, new ThrottledCall<RS>(call, future));
+		return future;
+	}
+
+	/**
+	 * Shutdowns I/O threads if they were created by this endpoint. Already
+	 * submitted requests are completed
+	 */
+	@Override
+	public void close() {
+		if (ownExecutor) {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Call waiting for admission. Dispatched to I/O executor once throttler
+	 * hands permit to it, so neither caller nor I/O threads wait for permits
+	 */
+	private class ThrottledCall<RS> implements Throttler.AdmissionCallback {
+
+		private final Callable<RS> call;
+
+		private final SettableFuture<RS> future;
+
+		ThrottledCall(Callable<RS> call, SettableFuture<RS> future) {
+			this.call = call;
+			this.future = future;
+		}
+
+		@Override
+		public void admitted(final Throttler.Permit permit) {
+			if (future.isCancelled()) {
+				permit.release();
+				return;
+			}
+			try {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							future.set(call.call());
+						} catch (Throwable e) {
+							future.setException(e);
+						} finally {
+							permit.release();
+						}
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				permit.release();
+				future.setException(e);
+			}
+		}
+
+		@Override
+		public void rejected(RequestThrottledException e) {
+			future.setException(e);
+		}
+	}
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link RequestListener} collecting latency histograms per endpoint. Endpoint
+ * is identified by HTTP method and resource template, where path segments
+ * looking like IDs (numbers, ObjectIDs, UUIDs) are replaced with
+ * <code>{id}</code>, e.g. <code>PUT /api/v1/project/item/{id}</code>. Stats
+ * may be scraped at any time via {@link #getStats()}. Latencies are recorded
+ * in microseconds
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class HistogramRequestListener implements RequestListener {
+
+	/** Default max count of tracked endpoints */
+	public static final int DEFAULT_MAX_ENDPOINTS = 512;
+
+	/** Key used for all endpoints once max count is reached */
+	public static final String OTHER_ENDPOINTS = "OTHER";
+
+	private static final String ID_PLACEHOLDER = "{id}";
+
+	private final ConcurrentMap<String, EndpointStats> stats;
+
+	private final int maxEndpoints;
+
+	public HistogramRequestListener() {
+		this(DEFAULT_MAX_ENDPOINTS);
+	}
+
+	public HistogramRequestListener(int maxEndpoints) {
+		this.maxEndpoints = maxEndpoints;
+		this.stats = new ConcurrentHashMap<String, EndpointStats>();
+	}
+
+	@Override
+	public void requestStarted(RequestMetrics metrics) {
+		// nothing to do here
+	}
+
+	@Override
+	public void requestCompleted(RequestMetrics metrics) {
+		getEndpointStats(metrics.getMethod() + " " + toTemplate(metrics.getResource())).record(metrics);
+	}
+
+	/**
+	 * Returns stats per endpoint
+	 * 
+	 * @return Live view of collected stats
+	 */
+	public Map<String, EndpointStats> getStats() {
+		return Collections.unmodifiableMap(stats);
+	}
+
+	private EndpointStats getEndpointStats(String key) {
+		EndpointStats endpointStats = stats.get(key);
+		if (null == endpointStats) {
+			if (stats.size() >= maxEndpoints) {
+				key = OTHER_ENDPOINTS;
+			}
+			EndpointStats created = new EndpointStats();
+			endpointStats = stats.putIfAbsent(key, created);
+			if (null == endpointStats) {
+				endpointStats = created;
+			}
+		}
+		return endpointStats;
+	}
+
+	/**
+	 * Replaces ID-like path segments with placeholder
+	 * 
+	 * @param resource
+	 *            - Path of resource
+	 * @return Resource template
+	 */
+	static String toTemplate(String resource) {
+		if (null == resource) {
+			return "";
+		}
+		StringBuilder template = null;
+		int segmentStart = 0;
+		for (int i = 0; i <= resource.length(); i++) {
+			if (i == resource.length() || resource.charAt(i) == '/') {
+				boolean id = isId(resource, segmentStart, i);
+				if (id && null == template) {
+					template = new StringBuilder(resource.length()).append(resource, 0, segmentStart);
+				}
+				if (null != template) {
+					template.append(id ? ID_PLACEHOLDER : resource.substring(segmentStart, i));
+					if (i < resource.length()) {
+						template.append('/');
+					}
+				}
+				segmentStart = i + 1;
+			}
+		}
+		return null == template ? resource : template.toString();
+	}
+
+	private static boolean isId(String resource, int from, int to) {
+		int length = to - from;
+		if (0 == length) {
+			return false;
+		}
+		boolean digitsOnly = true;
+		boolean hexOnly = true;
+		int dashes = 0;
+		for (int i = from; i < to; i++) {
+			char c = resource.charAt(i);
+			boolean digit = c >= '0' && c <= '9';
+			boolean hex = digit || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+			if (c == '-') {
+				dashes++;
+			} else {
+				hexOnly &= hex;
+			}
+			digitsOnly &= digit;
+		}
+		/* number, MongoDB ObjectID or UUID */
+		return digitsOnly || (hexOnly && dashes == 0 && length == 24) || (hexOnly && dashes == 4 && length == 36);
+	}
+
+	/**
+	 * Stats of single endpoint
+	 * 
+	 * @author Andrei Varabyeu
+	 * 
+	 */
+	public static class EndpointStats {
+
+		private final LatencyHistogram totalTime = new LatencyHistogram();
+
+		private final LatencyHistogram connectionLeaseTime = new LatencyHistogram();
+
+		private final LatencyHistogram responseTime = new LatencyHistogram();
+
+		private final AtomicLong errors = new AtomicLong();
+
+		private final AtomicLong bytesSent = new AtomicLong();
+
+		private final AtomicLong bytesReceived = new AtomicLong();
+
+		void record(RequestMetrics metrics) {
+			totalTime.record(TimeUnit.NANOSECONDS.toMicros(metrics.getTotalTime()));
+			if (metrics.getConnectionLeaseTime() >= 0) {
+				connectionLeaseTime.record(TimeUnit.NANOSECONDS.toMicros(metrics.getConnectionLeaseTime()));
+			}
+			responseTime.record(TimeUnit.NANOSECONDS.toMicros(metrics.getResponseTime()));
+			bytesSent.addAndGet(metrics.getBytesSent());
+			bytesReceived.addAndGet(metrics.getBytesReceived());
+			if (!metrics.isSuccessful()) {
+				errors.incrementAndGet();
+			}
+		}
+
+		/**
+		 * @return Histogram of total request time in microseconds
+		 */
+		public LatencyHistogram getTotalTime() {
+			return totalTime;
+		}
+
+		/**
+		 * @return Histogram of time spent waiting for pooled connection in
+		 *         microseconds
+		 */
+		public LatencyHistogram getConnectionLeaseTime() {
+			return connectionLeaseTime;
+		}
+
+		/**
+		 * @return Histogram of time from connection lease till response
+		 *         headers in microseconds
+		 */
+		public LatencyHistogram getResponseTime() {
+			return responseTime;
+		}
+
+		public long getCount() {
+			return totalTime.getCount();
+		}
+
+		public long getErrors() {
+			return errors.get();
+		}
+
+		public long getBytesSent() {
+			return bytesSent.get();
+		}
+
+		public long getBytesReceived() {
+			return bytesReceived.get();
+		}
+
+		@Override
+		public String toString() {
+			return "EndpointStats [count=" + getCount() + ", errors=" + getErrors() + ", p50=" + totalTime.getValueAtPercentile(50)
+					+ "us, p99=" + totalTime.getValueAtPercentile(99) + "us, max=" + totalTime.getMax() + "us]";
+		}
+	}
+}
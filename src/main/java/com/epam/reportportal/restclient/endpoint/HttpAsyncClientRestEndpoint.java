@@ -0,0 +1,372 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+import com.epam.reportportal.apache.http.HttpEntity;
+import com.epam.reportportal.apache.http.HttpResponse;
+import com.epam.reportportal.apache.http.client.methods.HttpDelete;
+import com.epam.reportportal.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import com.epam.reportportal.apache.http.client.methods.HttpGet;
+import com.epam.reportportal.apache.http.client.methods.HttpPatch;
+import com.epam.reportportal.apache.http.client.methods.HttpPost;
+import com.epam.reportportal.apache.http.client.methods.HttpPut;
+import com.epam.reportportal.apache.http.client.methods.HttpUriRequest;
+import com.epam.reportportal.apache.http.concurrent.FutureCallback;
+import com.epam.reportportal.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import com.epam.reportportal.apache.http.util.EntityUtils;
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointIOException;
+import com.epam.reportportal.restclient.endpoint.exception.SerializerException;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Non-blocking {@link AsyncRestEndpoint} implementation based on
+ * {@link CloseableHttpAsyncClient}. Requests are multiplexed by I/O reactor
+ * of HTTP client over small amount of dispatcher threads, so there is no
+ * thread per request in-flight. Responses are buffered by HTTP client and
+ * converted by callback executor (by default, in dispatcher thread, so
+ * deserialization of large responses may be moved to separate executor)<br>
+ * Client may be created via {@link AuthClientFactory#createHttpAsyncClient()}.
+ * Client is started by endpoint if it isn't running and closed on
+ * {@link #close()}
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class HttpAsyncClientRestEndpoint implements AsyncRestEndpoint, Closeable {
+
+	/** Serializers for converting HTTP messages */
+	private final SerializerRegistry serializers;
+
+	/** Base URL */
+	private final String baseUrl;
+
+	/** Base URL parsed once */
+	private final BaseUrl parsedBaseUrl;
+
+	/** Error handler */
+	private final ErrorHandler<HttpResponse> errorHandler;
+
+	/** Non-blocking HTTP client */
+	private final CloseableHttpAsyncClient httpClient;
+
+	/** Executor of response conversion */
+	private final Executor callbackExecutor;
+
+	/**
+	 * Creates endpoint converting responses in I/O dispatcher threads
+	 * 
+	 * @param httpClient
+	 *            - Non-blocking HTTP client
+	 * @param serializers
+	 *            - Serializers for converting HTTP messages. Shouldn't be null
+	 * @param errorHandler
+	 *            - Error handler for HTTP messages. If null,
+	 *            {@link DefaultErrorHandler} is used
+	 * @param baseUrl
+	 *            - REST WebService Base URL
+	 */
+	public HttpAsyncClientRestEndpoint(CloseableHttpAsyncClient httpClient, List<Serializer> serializers,
+			ErrorHandler<HttpResponse> errorHandler, String baseUrl) {
+		this(httpClient, serializers, errorHandler, baseUrl, MoreExecutors.directExecutor());
+	}
+
+	/**
+	 * Creates endpoint converting responses with provided executor
+	 * 
+	 * @param httpClient
+	 *            - Non-blocking HTTP client
+	 * @param serializers
+	 *            - Serializers for converting HTTP messages. Shouldn't be null
+	 * @param errorHandler
+	 *            - Error handler for HTTP messages. If null,
+	 *            {@link DefaultErrorHandler} is used
+	 * @param baseUrl
+	 *            - REST WebService Base URL
+	 * @param callbackExecutor
+	 *            - Executor of response conversion
+	 */
+	public HttpAsyncClientRestEndpoint(CloseableHttpAsyncClient httpClient, List<Serializer> serializers,
+			ErrorHandler<HttpResponse> errorHandler, String baseUrl, Executor callbackExecutor) {
+		this.httpClient = Preconditions.checkNotNull(httpClient, "HTTP client shouldn't be null");
+		this.serializers = new SerializerRegistry(Preconditions.checkNotNull(serializers, "Serializer should'be be null"));
+		this.baseUrl = Preconditions.checkNotNull(baseUrl, "Base URL shouldn't be null");
+		this.parsedBaseUrl = new BaseUrl(baseUrl);
+		this.errorHandler = errorHandler == null ? new DefaultErrorHandler(this.serializers,
+				DefaultErrorHandler.DEFAULT_MAX_BODY_SIZE) : errorHandler;
+		this.callbackExecutor = Preconditions.checkNotNull(callbackExecutor, "Callback executor shouldn't be null");
+
+		if (!httpClient.isRunning()) {
+			httpClient.start();
+		}
+	}
+
+	@Override
+	public <RQ, RS> ListenableFuture<RS> post(String resource, RQ rq, Class<RS> clazz) {
+		return executeWithBody(HttpPost.METHOD_NAME, resource, null, rq, clazz);
+	}
+
+	@Override
+	public <RQ, RS> ListenableFuture<RS> post(String resource, RQ rq, Type type) {
+		return executeWithBody(HttpPost.METHOD_NAME, resource, null, rq, type);
+	}
+
+	@Override
+	public <RQ, RS> ListenableFuture<RS> post(String resource, MultiPartRequest<RQ> request, Class<RS> clazz) {
+		try {
+			HttpPost post = new HttpPost(spliceUrl(resource, null));
+			/* file parts are streamed from disk by non-blocking entity */
+			post.setEntity(new NonBlockingMultipartEntity(HttpClientRestEndpoint.createMultipartEntity(serializers, request)));
+			return execute(post, clazz);
+		} catch (IOException e) {
+			return Futures.immediateFailedFuture(e);
+		}
+	}
+
+	@Override
+	public <RQ, RS> ListenableFuture<RS> post(String resource, Map<String, String> parameters, RQ rq, Class<RS> clazz) {
+		return executeWithBody(HttpPost.METHOD_NAME, resource, parameters, rq, clazz);
+	}
+
+	@Override
+	public <RQ, RS> ListenableFuture<RS> put(String resource, RQ rq, Class<RS> clazz) {
+		return executeWithBody(HttpPut.METHOD_NAME, resource, null, rq, clazz);
+	}
+
+	@Override
+	public <RQ, RS> ListenableFuture<RS> put(String resource, RQ rq, Type type) {
+		return executeWithBody(HttpPut.METHOD_NAME, resource, null, rq, type);
+	}
+
+	@Override
+	public <RS> ListenableFuture<RS> delete(String resource, Class<RS> clazz) {
+		try {
+			return execute(new HttpDelete(spliceUrl(resource, null)), clazz);
+		} catch (RestEndpointIOException e) {
+			return Futures.immediateFailedFuture(e);
+		}
+	}
+
+	@Override
+	public <RS> ListenableFuture<RS> get(String resource, Class<RS> clazz) {
+		return get(resource, null, (Type) clazz);
+	}
+
+	@Override
+	public <RS> ListenableFuture<RS> get(String resource, Type type) {
+		return get(resource, null, type);
+	}
+
+	@Override
+	public <RS> ListenableFuture<RS> get(String resource, Map<String, String> parameters, Class<RS> clazz) {
+		return get(resource, parameters, (Type) clazz);
+	}
+
+	@Override
+	public <RS> ListenableFuture<RS> get(String resource, Map<String, String> parameters, Type type) {
+		try {
+			return execute(new HttpGet(spliceUrl(resource, parameters)), type);
+		} catch (RestEndpointIOException e) {
+			return Futures.immediateFailedFuture(e);
+		}
+	}
+
+	@Override
+	public <RQ, RS> ListenableFuture<RS> executeRequest(RestCommand<RQ, RS> command) {
+		switch (command.getHttpMethod()) {
+		case GET:
+			return get(command.getUri(), command.getType());
+		case POST:
+			return executeWithBody(HttpPost.METHOD_NAME, command.getUri(), null, command.getRequest(), command.getType());
+		case PUT:
+			return executeWithBody(HttpPut.METHOD_NAME, command.getUri(), null, command.getRequest(), command.getType());
+		case PATCH:
+			return executeWithBody(HttpPatch.METHOD_NAME, command.getUri(), null, command.getRequest(), command.getType());
+		case DELETE:
+			try {
+				return execute(new HttpDelete(spliceUrl(command.getUri(), null)), command.getType());
+			} catch (RestEndpointIOException e) {
+				return Futures.immediateFailedFuture(e);
+			}
+		default:
+			return Futures.immediateFailedFuture(new IllegalArgumentException("Method '" + command.getHttpMethod() + "' is unsupported"));
+		}
+	}
+
+	/**
+	 * Closes HTTP client and stops its I/O reactor
+	 */
+	@Override
+	public void close() throws IOException {
+		httpClient.close();
+	}
+
+	/**
+	 * Executes request with body. Body is serialized on demand by
+	 * non-blocking content producer
+	 * 
+	 * @param method
+	 *            - HTTP method
+	 * @param resource
+	 *            - REST resource
+	 * @param parameters
+	 *            - Query parameters. May be null
+	 * @param body
+	 *            - Request body
+	 * @param type
+	 *            - Type of response
+	 * @return
+	 */
+	private <RS> ListenableFuture<RS> executeWithBody(final String method, String resource, Map<String, String> parameters, Object body,
+			Type type) {
+		try {
+			final URI uri = spliceUrl(resource, parameters);
+			HttpEntityEnclosingRequestBase rq = new HttpEntityEnclosingRequestBase() {
+				@Override
+				public String getMethod() {
+					return method;
+				}
+			};
+			rq.setURI(uri);
+			rq.setEntity(new SerializedEntity(serializers.getWriter(body), body));
+			return execute(rq, type);
+		} catch (RestEndpointIOException e) {
+			return Futures.immediateFailedFuture(e);
+		}
+	}
+
+	/**
+	 * Sends request without blocking. Response is checked for errors and
+	 * converted by callback executor
+	 * 
+	 * @param rq
+	 *            - Request
+	 * @param type
+	 *            - Type of response
+	 * @return
+	 */
+	private <RS> ListenableFuture<RS> execute(HttpUriRequest rq, final Type type) {
+		final SettableFuture<RS> result = SettableFuture.create();
+		final Future<HttpResponse> response = httpClient.execute(rq, new FutureCallback<HttpResponse>() {
+
+			@Override
+			public void completed(final HttpResponse response) {
+				try {
+					callbackExecutor.execute(new Runnable() {
+						@Override
+						public void run() {
+							try {
+								result.set(HttpAsyncClientRestEndpoint.this.<RS> convert(response, type));
+							} catch (Throwable e) {
+								result.setException(e);
+							}
+						}
+					});
+				} catch (RuntimeException e) {
+					result.setException(e);
+				}
+			}
+
+			@Override
+			public void failed(Exception ex) {
+				result.setException(new RestEndpointIOException("Unable to execute request", ex));
+			}
+
+			@Override
+			public void cancelled() {
+				result.cancel(false);
+			}
+		});
+
+		/* cancellation of result aborts request */
+		result.addListener(new Runnable() {
+			@Override
+			public void run() {
+				if (result.isCancelled()) {
+					response.cancel(true);
+				}
+			}
+		}, MoreExecutors.directExecutor());
+		return result;
+	}
+
+	/**
+	 * Checks response for errors and deserializes it
+	 * 
+	 * @param response
+	 *            - HTTP response
+	 * @param type
+	 *            - Type of response
+	 * @return
+	 * @throws IOException
+	 */
+	@SuppressWarnings("unchecked")
+	private <RS> RS convert(HttpResponse response, Type type) throws IOException {
+		if (errorHandler.hasError(response)) {
+			errorHandler.handle(response);
+		}
+
+		HttpEntity entity = response.getEntity();
+		if (null == entity) {
+			return null;
+		}
+		try {
+			if (null == entity.getContentType()) {
+				throw new SerializerException("Unable to convert response without Content-Type");
+			}
+			Serializer serializer = serializers.getReader(entity.getContentType().getValue());
+			return (RS) (type instanceof Class ? SerializerRegistry.deserialize(serializer, entity.getContent(), (Class<?>) type)
+					: SerializerRegistry.deserialize(serializer, entity.getContent(), type));
+		} finally {
+			EntityUtils.consume(entity);
+		}
+	}
+
+	/**
+	 * Splice base URL and URL of resource
+	 * 
+	 * @param resource
+	 * @param parameters
+	 * @return
+	 * @throws RestEndpointIOException
+	 */
+	private URI spliceUrl(String resource, Map<String, String> parameters) throws RestEndpointIOException {
+		try {
+			return parsedBaseUrl.resolve(resource, parameters);
+		} catch (URISyntaxException e) {
+			throw new RestEndpointIOException("Unable to builder URL with base url '" + baseUrl + "' and resouce '" + resource + "'", e);
+		}
+	}
+
+}
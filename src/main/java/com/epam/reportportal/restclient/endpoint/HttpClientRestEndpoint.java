@@ -20,33 +20,43 @@
  */
 package com.epam.reportportal.restclient.endpoint;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 
+import com.epam.reportportal.apache.http.Header;
 import com.epam.reportportal.apache.http.HttpEntity;
+import com.epam.reportportal.apache.http.HttpEntityEnclosingRequest;
 import com.epam.reportportal.apache.http.HttpResponse;
+import com.epam.reportportal.apache.http.HttpStatus;
 import com.epam.reportportal.apache.http.client.HttpClient;
 import com.epam.reportportal.apache.http.client.methods.HttpDelete;
+import com.epam.reportportal.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 import com.epam.reportportal.apache.http.client.methods.HttpGet;
 import com.epam.reportportal.apache.http.client.methods.HttpPatch;
 import com.epam.reportportal.apache.http.client.methods.HttpPost;
 import com.epam.reportportal.apache.http.client.methods.HttpPut;
 import com.epam.reportportal.apache.http.client.methods.HttpUriRequest;
-import com.epam.reportportal.apache.http.client.utils.URIBuilder;
 import com.epam.reportportal.apache.http.entity.ContentType;
-import com.epam.reportportal.apache.http.entity.InputStreamEntity;
 import com.epam.reportportal.apache.http.entity.mime.MultipartEntityBuilder;
+import com.epam.reportportal.apache.http.entity.mime.content.ByteArrayBody;
 import com.epam.reportportal.apache.http.entity.mime.content.InputStreamBody;
 import com.epam.reportportal.apache.http.util.EntityUtils;
 import com.epam.reportportal.restclient.endpoint.MultiPartRequest.MultiPartBinary;
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointException;
 import com.epam.reportportal.restclient.endpoint.exception.RestEndpointIOException;
 import com.epam.reportportal.restclient.endpoint.exception.SerializerException;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.net.HttpHeaders;
+import com.google.common.net.MediaType;
 
 /**
  * {@link RestEndpoint} implementation. Uses
@@ -56,27 +66,50 @@ import com.google.common.base.Preconditions;
  * @author Andrei Varabyeu
  * 
  */
-public class HttpClientRestEndpoint implements RestEndpoint {
+public class HttpClientRestEndpoint implements StreamingRestEndpoint {
 
-	/** Serializer for converting HTTP messages */
-	private List<Serializer> serializers;
+	/** JSON media type of any charset */
+	private static final MediaType JSON = MediaType.JSON_UTF_8.withoutParameters();
+
+	/** Serializers for converting HTTP messages */
+	private SerializerRegistry serializers;
 
 	/** Base Endpoint URL */
 	private String baseUrl;
 
+	/** Base Endpoint URL parsed once */
+	private BaseUrl parsedBaseUrl;
+
 	/** Error Handler for HttpResponses */
 	private ErrorHandler<HttpResponse> errorHandler;
 
 	/** HTTP Client */
 	private HttpClient httpClient;
 
+	/** Listener of executed requests. May be null */
+	private RequestListener requestListener;
+
+	/** Min size of request body to be compressed. Negative disables compression */
+	private int compressionThreshold = -1;
+
+	/** Cache of GET responses validated via ETag/Last-Modified. May be null */
+	private Cache<ResponseCacheKey, CachedResponse> responseCache;
+
+	/** Value of Accept header. NULL if content negotiation is disabled */
+	private String acceptHeader;
+
+	/** Whether server has already answered with JSON content */
+	private volatile boolean jsonAnswered;
+
 	/**
 	 * Default constructor.
 	 * 
 	 * @param serializer
 	 *            - Serializer for converting HTTP messages. Shouldn't be null
 	 * @param errorHandler
-	 *            - Error handler for HTTP messages
+	 *            - Error handler for HTTP messages. If null,
+	 *            {@link DefaultErrorHandler} decoding error bodies with provided
+	 *            serializers is used
 	 * @param credentials
 	 *            - Credentials for HTTP client
 	 * @param baseUrl
@@ -84,13 +117,79 @@ public class HttpClientRestEndpoint implements RestEndpoint {
 	 */
 	public HttpClientRestEndpoint(HttpClient httpClient, List<Serializer> serializers, ErrorHandler<HttpResponse> errorHandler,
 			String baseUrl) {
-		this.serializers = Preconditions.checkNotNull(serializers, "Serializer should'be be null");
+		this.serializers = new SerializerRegistry(Preconditions.checkNotNull(serializers, "Serializer should'be be null"));
 		this.baseUrl = Preconditions.checkNotNull(baseUrl, "Base URL shouldn't be null");
+		this.parsedBaseUrl = new BaseUrl(baseUrl);
 
-		this.errorHandler = errorHandler == null ? new DefaultErrorHandler() : errorHandler;
+		this.errorHandler = errorHandler == null ? new DefaultErrorHandler(this.serializers,
+				DefaultErrorHandler.DEFAULT_MAX_BODY_SIZE) : errorHandler;
 		this.httpClient = httpClient;
 	}
 
+	/**
+	 * Sets listener of executed requests, e.g. {@link HistogramRequestListener}
+	 * to collect metrics. Should be set before endpoint is used
+	 * 
+	 * @param requestListener
+	 *            - Request listener. NULL disables instrumentation
+	 */
+	public void setRequestListener(RequestListener requestListener) {
+		this.requestListener = requestListener;
+	}
+
+	/**
+	 * Enables GZIP compression of request bodies. Bodies larger than threshold
+	 * are sent with <code>Content-Encoding: gzip</code>, so server should
+	 * support compressed requests. Body is serialized once: it's buffered as is
+	 * until it exceeds threshold, the rest of it goes directly into compressor,
+	 * so only compressed form of large body is held in memory. Both compressed
+	 * and plain bodies are sent with Content-Length. Should be set before
+	 * endpoint is used
+	 * 
+	 * @param compressionThreshold
+	 *            - Min size of body in bytes to be compressed. Negative value
+	 *            disables compression
+	 */
+	public void setCompressionThreshold(int compressionThreshold) {
+		this.compressionThreshold = compressionThreshold;
+	}
+
+	/**
+	 * Enables caching of GET responses. Deserialized responses having ETag or
+	 * Last-Modified header are cached by URI and response type. Next GET of
+	 * the same resource is sent with <code>If-None-Match</code>/
+	 * <code>If-Modified-Since</code> headers and cached object is returned if
+	 * server responds with 304 (Not Modified), so body is neither downloaded
+	 * nor deserialized again. Cached objects are shared between callers and
+	 * shouldn't be modified. Should be set before endpoint is used
+	 * 
+	 * @param maxEntries
+	 *            - Max count of cached responses. Least recently used are
+	 *            evicted first. Non-positive value disables caching
+	 */
+	public void setResponseCacheSize(int maxEntries) {
+		this.responseCache = maxEntries > 0 ? CacheBuilder.newBuilder().maximumSize(maxEntries)
+				.<ResponseCacheKey, CachedResponse> build() : null;
+	}
+
+	/**
+	 * Enables content negotiation. Requests are sent with <code>Accept</code>
+	 * header listing MIME types of serializers in order they are registered,
+	 * so binary formats (e.g. {@link com.epam.reportportal.restclient.serializer.Jackson2SmileSerializer})
+	 * may be preferred by registering them before JSON serializer. If server
+	 * doesn't support preferred format, endpoint falls back to the next one:
+	 * request rejected with 415 (Unsupported Media Type) is resent once with
+	 * body written by the next serializer, and server answering with
+	 * <code>application/json</code> makes JSON to be used for further request
+	 * bodies. Should be set before endpoint is used
+	 * 
+	 * @param contentNegotiation
+	 *            - Whether content negotiation is enabled
+	 */
+	public void setContentNegotiation(boolean contentNegotiation) {
+		this.acceptHeader = contentNegotiation ? serializers.getAcceptHeader() : null;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -100,10 +199,7 @@ public class HttpClientRestEndpoint implements RestEndpoint {
 	@Override
 	public <RQ, RS> RS post(String resource, RQ rq, Class<RS> clazz) throws RestEndpointIOException {
 		HttpPost post = new HttpPost(spliceUrl(resource));
-		Serializer serializer = getSupportedSerializer(rq);
-		InputStreamEntity httpEntity = new InputStreamEntity(serializer.serialize(rq), ContentType.create(serializer.getMimeType()));
-		post.setEntity(httpEntity);
-		return executeInternal(post, new ClassConverterCallback<RS>(serializers, clazz));
+		return executeWithBody(post, rq, new ClassConverterCallback<RS>(serializers, clazz));
 	}
 
 	/*
@@ -115,10 +211,7 @@ public class HttpClientRestEndpoint implements RestEndpoint {
 	@Override
 	public <RQ, RS> RS post(String resource, RQ rq, Type type) throws RestEndpointIOException {
 		HttpPost post = new HttpPost(spliceUrl(resource));
-		Serializer serializer = getSupportedSerializer(rq);
-		InputStreamEntity httpEntity = new InputStreamEntity(serializer.serialize(rq), ContentType.create(serializer.getMimeType()));
-		post.setEntity(httpEntity);
-		return executeInternal(post, new TypeConverterCallback<RS>(serializers, type));
+		return executeWithBody(post, rq, new TypeConverterCallback<RS>(serializers, type));
 	}
 
 	/*
@@ -130,37 +223,14 @@ public class HttpClientRestEndpoint implements RestEndpoint {
 	@Override
 	public <RQ, RS> RS post(String resource, MultiPartRequest<RQ> request, Class<RS> clazz) throws RestEndpointIOException {
 		HttpPost post = new HttpPost(spliceUrl(resource));
-
-		try {
-			MultipartEntityBuilder builder = MultipartEntityBuilder.create();
-			for (MultiPartRequest.MultiPartSerialized<RQ> serializedPart : request.getSerializedRQs()) {
-				Serializer serializer = getSupportedSerializer(serializedPart);
-				builder.addPart(serializedPart.getPartName(), new InputStreamBody(serializer.serialize(serializedPart.getRequest()),
-						ContentType.parse(serializer.getMimeType())));
-			}
-
-			for (MultiPartBinary partBinaty : request.getBinaryRQs()) {
-				builder.addPart(
-						partBinaty.getPartName(),
-						new InputStreamBody(partBinaty.getData().openBufferedStream(), ContentType.parse(partBinaty.getContentType()), partBinaty
-								.getFilename()));
-			}
-
-			post.setEntity(builder.build());
-			
-		} catch (Exception e) {
-			throw new RestEndpointIOException("Unable to build post multipart request", e);
-		}
+		post.setEntity(createMultipartEntity(serializers, request));
 		return executeInternal(post, new ClassConverterCallback<RS>(serializers, clazz));
 	}
 
 	@Override
 	public <RQ, RS> RS post(String resource, Map<String, String> parameters, RQ rq, Class<RS> clazz) throws RestEndpointIOException {
 		HttpPost post = new HttpPost(spliceUrl(resource, parameters));
-		Serializer serializer = getSupportedSerializer(rq);
-		InputStreamEntity httpEntity = new InputStreamEntity(serializer.serialize(rq), ContentType.create(serializer.getMimeType()));
-		post.setEntity(httpEntity);
-		return executeInternal(post, new ClassConverterCallback<RS>(serializers, clazz));
+		return executeWithBody(post, rq, new ClassConverterCallback<RS>(serializers, clazz));
 	}
 
 	/*
@@ -172,10 +242,7 @@ public class HttpClientRestEndpoint implements RestEndpoint {
 	@Override
 	public <RQ, RS> RS put(String resource, RQ rq, Class<RS> clazz) throws RestEndpointIOException {
 		HttpPut put = new HttpPut(spliceUrl(resource));
-		Serializer serializer = getSupportedSerializer(rq);
-		InputStreamEntity httpEntity = new InputStreamEntity(serializer.serialize(rq), ContentType.create(serializer.getMimeType()));
-		put.setEntity(httpEntity);
-		return executeInternal(put, new ClassConverterCallback<RS>(serializers, clazz));
+		return executeWithBody(put, rq, new ClassConverterCallback<RS>(serializers, clazz));
 	}
 
 	/*
@@ -187,10 +254,7 @@ public class HttpClientRestEndpoint implements RestEndpoint {
 	@Override
 	public <RQ, RS> RS put(String resource, RQ rq, Type type) throws RestEndpointIOException {
 		HttpPut put = new HttpPut(spliceUrl(resource));
-		Serializer serializer = getSupportedSerializer(rq);
-		InputStreamEntity httpEntity = new InputStreamEntity(serializer.serialize(rq), ContentType.create(serializer.getMimeType()));
-		put.setEntity(httpEntity);
-		return executeInternal(put, new TypeConverterCallback<RS>(serializers, type));
+		return executeWithBody(put, rq, new TypeConverterCallback<RS>(serializers, type));
 	}
 
 	/*
@@ -214,25 +278,38 @@ public class HttpClientRestEndpoint implements RestEndpoint {
 	@Override
 	public <RS> RS get(String resource, Class<RS> clazz) throws RestEndpointIOException {
 		HttpGet get = new HttpGet(spliceUrl(resource));
-		return executeInternal(get, new ClassConverterCallback<RS>(serializers, clazz));
+		return executeGet(get, clazz, new ClassConverterCallback<RS>(serializers, clazz));
 	}
 
 	@Override
 	public <RS> RS get(String resource, Type type) throws RestEndpointIOException {
 		HttpGet get = new HttpGet(spliceUrl(resource));
-		return executeInternal(get, new TypeConverterCallback<RS>(serializers, type));
+		return executeGet(get, type, new TypeConverterCallback<RS>(serializers, type));
 	}
 
 	@Override
 	public <RS> RS get(String resource, Map<String, String> parameters, Class<RS> clazz) throws RestEndpointIOException {
 		HttpGet get = new HttpGet(spliceUrl(resource, parameters));
-		return executeInternal(get, new ClassConverterCallback<RS>(serializers, clazz));
+		return executeGet(get, clazz, new ClassConverterCallback<RS>(serializers, clazz));
 	}
 
 	@Override
 	public <RS> RS get(String resource, Map<String, String> parameters, Type type) throws RestEndpointIOException {
 		HttpGet get = new HttpGet(spliceUrl(resource, parameters));
-		return executeInternal(get, new TypeConverterCallback<RS>(serializers, type));
+		return executeGet(get, type, new TypeConverterCallback<RS>(serializers, type));
+	}
+
+	@Override
+	public <RS> long stream(String resource, Map<String, String> parameters, String arrayField, Type elementType,
+			ElementCallback<RS> callback) throws RestEndpointIOException {
+		return IOUtils.forEach(this.<RS> iterate(resource, parameters, arrayField, elementType), callback);
+	}
+
+	@Override
+	public <RS> CloseableIterator<RS> iterate(String resource, Map<String, String> parameters, String arrayField, Type elementType)
+			throws RestEndpointIOException {
+		HttpGet get = new HttpGet(spliceUrl(resource, parameters));
+		return executeStreaming(get, arrayField, elementType);
 	}
 
 	/**
@@ -246,39 +323,34 @@ public class HttpClientRestEndpoint implements RestEndpoint {
 	 */
 	@Override
 	public <RQ, RS> RS executeRequest(RestCommand<RQ, RS> command) throws RestEndpointIOException {
-		URI uri = spliceUrl(command.getUri());
+		URI uri = null == command.getTemplate() ? spliceUrl(command.getUri()) : spliceUrl(command.getTemplate(), command.getValues());
 		HttpUriRequest rq = null;
-		Serializer serializer = null;
+		HttpEntityEnclosingRequestBase entityRq = null;
 		switch (command.getHttpMethod()) {
 		case GET:
 			rq = new HttpGet(uri);
 			break;
 		case POST:
-			serializer = getSupportedSerializer(command.getRequest());
-			rq = new HttpPost(uri);
-			((HttpPost) rq).setEntity(new InputStreamEntity(serializer.serialize(command.getRequest()), ContentType.create(
-					serializer.getMimeType())));
+			entityRq = new HttpPost(uri);
 			break;
 		case PUT:
-			serializer = getSupportedSerializer(command.getRequest());
-			rq = new HttpPut(uri);
-			((HttpPut) rq).setEntity(new InputStreamEntity(serializer.serialize(command.getRequest()), ContentType.create(
-					serializer.getMimeType())));
+			entityRq = new HttpPut(uri);
 			break;
 		case DELETE:
 			rq = new HttpDelete(uri);
 			break;
 		case PATCH:
-			serializer = getSupportedSerializer(command.getRequest());
-			rq = new HttpPatch(uri);
-			((HttpPatch) rq).setEntity(new InputStreamEntity(serializer.serialize(command.getRequest()), ContentType.create(
-					serializer.getMimeType())));
+			entityRq = new HttpPatch(uri);
 			break;
 		default:
 			throw new IllegalArgumentException("Method '" + command.getHttpMethod() + "' is unsupported");
 		}
 
-		return executeInternal(rq, new TypeConverterCallback<RS>(serializers, command.getType()));
+		TypeConverterCallback<RS> callback = new TypeConverterCallback<RS>(serializers, command.getType());
+		if (null != entityRq) {
+			return executeWithBody(entityRq, command.getRequest(), callback);
+		}
+		return executeInternal(rq, callback);
 	}
 
 	/**
@@ -288,9 +360,10 @@ public class HttpClientRestEndpoint implements RestEndpoint {
 	 * @return
 	 * @throws RestEndpointIOException
 	 */
-	private URI spliceUrl(String resource) throws RestEndpointIOException {
+	@VisibleForTesting
+	URI spliceUrl(String resource) throws RestEndpointIOException {
 		try {
-			return new URIBuilder(baseUrl).setPath(resource).build();
+			return parsedBaseUrl.resolve(resource, null);
 		} catch (URISyntaxException e) {
 			throw new RestEndpointIOException("Unable to builder URL with base url '" + baseUrl + "' and resouce '" + resource + "'", e);
 		}
@@ -303,29 +376,188 @@ public class HttpClientRestEndpoint implements RestEndpoint {
 	 * @return
 	 * @throws RestEndpointIOException
 	 */
-	private URI spliceUrl(String resource, Map<String, String> parameters) throws RestEndpointIOException {
+	@VisibleForTesting
+	URI spliceUrl(String resource, Map<String, String> parameters) throws RestEndpointIOException {
 		try {
-			URIBuilder builder = new URIBuilder(baseUrl).setPath(resource);
-			for (Entry<String, String> parameter : parameters.entrySet()) {
-				builder.addParameter(parameter.getKey(), parameter.getValue());
-			}
-			return builder.build();
+			return parsedBaseUrl.resolve(resource, parameters);
 		} catch (URISyntaxException e) {
 			throw new RestEndpointIOException("Unable to builder URL with base url '" + baseUrl + "' and resouce '" + resource + "'", e);
 		}
 	}
 
-	private Serializer getSupportedSerializer(Object o) throws SerializerException {
-		for (Serializer s : serializers) {
-			if (s.canWrite(o)) {
-				return s;
+	/**
+	 * Splice base URL and resource expanded from template
+	 * 
+	 * @param template
+	 * @param values
+	 * @return
+	 * @throws RestEndpointIOException
+	 */
+	URI spliceUrl(ResourceTemplate template, Object[] values) throws RestEndpointIOException {
+		try {
+			return parsedBaseUrl.resolve(template, values, null);
+		} catch (URISyntaxException e) {
+			throw new RestEndpointIOException("Unable to builder URL with base url '" + baseUrl + "' and resouce '" + template + "'", e);
+		}
+	}
+
+	/**
+	 * Creates HTTP entity serializing body directly into request stream. If
+	 * compression is enabled, body is serialized in advance to find out
+	 * whether it exceeds compression threshold
+	 * 
+	 * @param body
+	 *            - Request body
+	 * @return
+	 * @throws SerializerException
+	 */
+	private HttpEntity createEntity(Object body) throws SerializerException {
+		return createEntity(serializers.getWriter(body), body);
+	}
+
+	/**
+	 * Creates HTTP entity serializing body with provided serializer
+	 * 
+	 * @param serializer
+	 *            - Body serializer
+	 * @param body
+	 *            - Request body
+	 * @return
+	 * @throws SerializerException
+	 */
+	private HttpEntity createEntity(Serializer serializer, Object body) throws SerializerException {
+		if (compressionThreshold < 0) {
+			return new SerializedEntity(serializer, body);
+		}
+
+		/*
+		 * single pass: body is buffered as is up to threshold, the rest of it
+		 * goes directly into compressor
+		 */
+		ThresholdGzipOutputStream os = new ThresholdGzipOutputStream(compressionThreshold);
+		try {
+			SerializerRegistry.serialize(serializer, body, os);
+			os.close();
+		} catch (IOException e) {
+			throw new SerializerException("Unable to compress request body", e);
+		}
+		return os.toEntity(serializer.getMimeType());
+	}
+
+	/**
+	 * Creates multipart entity. Serialized parts are serialized in advance,
+	 * binary parts are streamed
+	 * 
+	 * @param serializers
+	 *            - Serializers of serialized parts
+	 * @param request
+	 *            - MultiPart request
+	 * @return
+	 * @throws RestEndpointIOException
+	 */
+	static <RQ> HttpEntity createMultipartEntity(SerializerRegistry serializers, MultiPartRequest<RQ> request)
+			throws RestEndpointIOException {
+		try {
+			MultipartEntityBuilder builder = MultipartEntityBuilder.create();
+			for (MultiPartRequest.MultiPartSerialized<RQ> serializedPart : request.getSerializedRQs()) {
+				Serializer serializer = serializers.getWriter(serializedPart.getRequest());
+				ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+				SerializerRegistry.serialize(serializer, serializedPart.getRequest(), serialized);
+				builder.addPart(serializedPart.getPartName(), new ByteArrayBody(serialized.toByteArray(), ContentType.parse(serializer
+						.getMimeType()), null));
+			}
+
+			for (MultiPartBinary partBinaty : request.getBinaryRQs()) {
+				ContentType contentType = ContentType.parse(partBinaty.getContentType());
+				if (null != partBinaty.getFile()) {
+					/*
+					 * length of file is known, so whole entity is sent with
+					 * Content-Length. Non-blocking entity streams file from disk
+					 */
+					builder.addPart(partBinaty.getPartName(), new NonBlockingMultipartEntity.SegmentFileBody(partBinaty.getFile(),
+							contentType, partBinaty.getFilename()));
+				} else {
+					builder.addPart(partBinaty.getPartName(), new InputStreamBody(partBinaty.getData().openBufferedStream(), contentType,
+							partBinaty.getFilename()));
+				}
 			}
+			return builder.build();
+
+		} catch (Exception e) {
+			throw new RestEndpointIOException("Unable to build post multipart request", e);
 		}
-		throw new SerializerException("Unable to find serializer for object with type '" + o.getClass() + "'");
 	}
 
 	/**
-	 * Executes {@link org.apache.http.client.methods.HttpUriRequest}
+	 * Executes request with body. If content negotiation is enabled and server
+	 * responds with 415 (Unsupported Media Type), serializer of body is
+	 * rejected and request is resent once with body written by the next
+	 * suitable serializer
+	 * 
+	 * @param rq
+	 *            - Request
+	 * @param body
+	 *            - Request body
+	 * @param callback
+	 *            - Response Body Converter
+	 * @return - Serialized Response Body
+	 * @throws RestEndpointIOException
+	 */
+	private <RS> RS executeWithBody(HttpEntityEnclosingRequestBase rq, Object body, HttpEntityCallback<RS> callback)
+			throws RestEndpointIOException {
+		Serializer writer = serializers.getWriter(body);
+		rq.setEntity(createEntity(writer, body));
+		if (null == acceptHeader) {
+			return executeInternal(rq, callback);
+		}
+		try {
+			return executeInternal(rq, callback);
+		} catch (RestEndpointException e) {
+			if (HttpStatus.SC_UNSUPPORTED_MEDIA_TYPE != e.getStatusCode() || !serializers.reject(writer, body)) {
+				throw e;
+			}
+			rq.reset();
+			rq.setEntity(createEntity(body));
+			return executeInternal(rq, callback);
+		}
+	}
+
+	/**
+	 * Executes GET request validating cached response (if any) with server
+	 * 
+	 * @param get
+	 *            - Request
+	 * @param type
+	 *            - Response Body Type
+	 * @param callback
+	 *            - Response Body Converter
+	 * @return - Serialized Response Body
+	 * @throws RestEndpointIOException
+	 */
+	private <RS> RS executeGet(HttpGet get, Type type, HttpEntityCallback<RS> callback) throws RestEndpointIOException {
+		Cache<ResponseCacheKey, CachedResponse> cache = this.responseCache;
+		if (null == cache) {
+			return executeInternal(get, callback);
+		}
+		ResponseCacheKey key = new ResponseCacheKey(get.getURI(), type);
+		CachedResponse cached = cache.getIfPresent(key);
+		if (null != cached) {
+			if (null != cached.etag) {
+				get.setHeader(HttpHeaders.IF_NONE_MATCH, cached.etag);
+			}
+			if (null != cached.lastModified) {
+				get.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified);
+			}
+		}
+		return executeInternal(get, new CachingCallback<RS>(callback, cache, key, cached));
+	}
+
+	/**
+	 * Executes {@link org.apache.http.client.methods.HttpUriRequest}. If
+	 * response entity has been read completely, underlying connection is
+	 * released back to the pool and may be reused by next requests. Otherwise
+	 * (errors, partially read responses) request is aborted and connection is
+	 * closed
 	 * 
 	 * @param rq
 	 *            - Request
@@ -335,39 +567,283 @@ public class HttpClientRestEndpoint implements RestEndpoint {
 	 * @throws RestEndpointIOException
 	 */
 	private <RS> RS executeInternal(HttpUriRequest rq, HttpEntityCallback<RS> callback) throws RestEndpointIOException {
+		RequestListener listener = this.requestListener;
+		RequestMetrics metrics = requestStarted(rq, listener);
+
+		boolean consumed = false;
 		try {
-			HttpResponse response = httpClient.execute(rq);
-			if (errorHandler.hasError(response)) {
-				errorHandler.handle(response);
-			}
+			HttpResponse response = send(rq, metrics);
+			HttpEntity entity = response.getEntity();
+			RS rs = callback.callback(response);
+
+			/* read the rest of entity (if any) to release connection */
+			EntityUtils.consume(entity);
+			consumed = true;
+			return rs;
+
+		} catch (SerializerException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new RestEndpointIOException("Unable to execute request", e);
+		} finally {
+			requestCompleted(rq, consumed, metrics, listener);
+		}
+	}
 
+	/**
+	 * Executes {@link org.apache.http.client.methods.HttpUriRequest} and
+	 * returns iterator reading elements of response array lazily. Iterator
+	 * owns the response: connection is released once iterator is exhausted
+	 * and request is aborted if iterator is closed before
+	 * 
+	 * @param rq
+	 *            - Request
+	 * @param arrayField
+	 *            - Field containing array. NULL if response is array
+	 * @param elementType
+	 *            - Type of array element
+	 * @return - Lazy iterator over array elements
+	 * @throws RestEndpointIOException
+	 */
+	private <RS> CloseableIterator<RS> executeStreaming(HttpUriRequest rq, String arrayField, Type elementType)
+			throws RestEndpointIOException {
+		RequestListener listener = this.requestListener;
+		RequestMetrics metrics = requestStarted(rq, listener);
+
+		boolean opened = false;
+		try {
+			HttpResponse response = send(rq, metrics);
 			HttpEntity entity = response.getEntity();
-			return callback.callback(entity);
+			if (null == entity) {
+				opened = true;
+				requestCompleted(rq, true, metrics, listener);
+				return new ResponseIterator<RS>(null, rq, null, null, null);
+			}
+			if (null == entity.getContentType()) {
+				throw new SerializerException("Unable to stream response without Content-Type");
+			}
+			Serializer serializer = serializers.getReader(entity.getContentType().getValue());
+			if (!(serializer instanceof StreamingSerializer)) {
+				throw new SerializerException("Serializer of content type '" + entity.getContentType().getValue()
+						+ "' doesn't support streaming");
+			}
+			CloseableIterator<RS> elements = ((StreamingSerializer) serializer).deserializeElements(entity.getContent(), arrayField,
+					elementType);
+			opened = true;
+			return new ResponseIterator<RS>(elements, rq, entity, metrics, listener);
 
 		} catch (SerializerException e) {
 			throw e;
 		} catch (IOException e) {
 			throw new RestEndpointIOException("Unable to execute request", e);
 		} finally {
+			if (!opened) {
+				requestCompleted(rq, false, metrics, listener);
+			}
+		}
+	}
+
+	/**
+	 * Notifies listener (if any) request is started
+	 * 
+	 * @param rq
+	 *            - Request
+	 * @param listener
+	 *            - Request listener. May be null
+	 * @return - Metrics of request or NULL if there is no listener
+	 */
+	private RequestMetrics requestStarted(HttpUriRequest rq, RequestListener listener) {
+		if (null == listener) {
+			return null;
+		}
+		RequestMetrics metrics = new RequestMetrics(rq.getMethod(), rq.getURI().getRawPath());
+		if (rq instanceof HttpEntityEnclosingRequest && null != ((HttpEntityEnclosingRequest) rq).getEntity()) {
+			HttpEntityEnclosingRequest entityRq = (HttpEntityEnclosingRequest) rq;
+			entityRq.setEntity(new InstrumentedEntity(entityRq.getEntity(), metrics));
+		}
+		listener.requestStarted(metrics);
+		return metrics;
+	}
+
+	/**
+	 * Sends request and checks response for errors
+	 * 
+	 * @param rq
+	 *            - Request
+	 * @param metrics
+	 *            - Metrics of request. May be null
+	 * @return - Response without errors
+	 * @throws IOException
+	 */
+	private HttpResponse send(HttpUriRequest rq, RequestMetrics metrics) throws IOException {
+		String accept = this.acceptHeader;
+		if (null != accept && !rq.containsHeader(HttpHeaders.ACCEPT)) {
+			rq.setHeader(HttpHeaders.ACCEPT, accept);
+		}
+
+		HttpResponse response = null == metrics ? httpClient.execute(rq) : httpClient.execute(rq, new InstrumentedContext(metrics));
+		if (null != metrics) {
+			metrics.responseReceived(response.getStatusLine().getStatusCode());
+			if (null != response.getEntity()) {
+				response.setEntity(new InstrumentedEntity(response.getEntity(), metrics));
+			}
+		}
+
+		if (errorHandler.hasError(response)) {
+			errorHandler.handle(response);
+		}
+
+		HttpEntity entity = response.getEntity();
+		if (null != accept && !jsonAnswered && null != entity && null != entity.getContentType()) {
+			negotiate(entity.getContentType().getValue());
+		}
+		return response;
+	}
+
+	/**
+	 * Aborts request if response hasn't been consumed and notifies listener
+	 * (if any) request is completed
+	 * 
+	 * @param rq
+	 *            - Request
+	 * @param consumed
+	 *            - Whether response has been consumed
+	 * @param metrics
+	 *            - Metrics of request. May be null
+	 * @param listener
+	 *            - Request listener. May be null
+	 */
+	private static void requestCompleted(HttpUriRequest rq, boolean consumed, RequestMetrics metrics, RequestListener listener) {
+		if (!consumed) {
 			rq.abort();
 		}
+		if (null != metrics) {
+			metrics.completed(consumed);
+			listener.requestCompleted(metrics);
+		}
+	}
+
+	/**
+	 * Falls back to JSON if server answers with JSON content although other
+	 * formats are preferred in <code>Accept</code> header
+	 * 
+	 * @param contentType
+	 *            - Content Type of response
+	 * @throws SerializerException
+	 */
+	private void negotiate(String contentType) throws SerializerException {
+		MediaType mediaType;
+		try {
+			mediaType = MediaType.parse(contentType);
+		} catch (IllegalArgumentException e) {
+			/* malformed content type is reported by response converter */
+			return;
+		}
+		if (mediaType.is(JSON)) {
+			serializers.rejectPreferred(contentType);
+			jsonAnswered = true;
+		}
+	}
+
+	/**
+	 * Iterator over elements of response. Consumes the rest of response once
+	 * elements are exhausted, so connection may be reused
+	 */
+	private static class ResponseIterator<RS> implements CloseableIterator<RS> {
+
+		/** Elements of response. NULL once completed */
+		private CloseableIterator<RS> elements;
+
+		private final HttpUriRequest rq;
+
+		private final HttpEntity entity;
+
+		private final RequestMetrics metrics;
+
+		private final RequestListener listener;
+
+		public ResponseIterator(CloseableIterator<RS> elements, HttpUriRequest rq, HttpEntity entity, RequestMetrics metrics,
+				RequestListener listener) {
+			this.elements = elements;
+			this.rq = rq;
+			this.entity = entity;
+			this.metrics = metrics;
+			this.listener = listener;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (null == elements) {
+				return false;
+			}
+			boolean hasNext;
+			try {
+				hasNext = elements.hasNext();
+			} catch (RuntimeException e) {
+				close();
+				throw e;
+			}
+			if (!hasNext) {
+				complete();
+			}
+			return hasNext;
+		}
+
+		@Override
+		public RS next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return elements.next();
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() {
+			if (null != elements) {
+				/* abort before closing content stream, otherwise it's read till the end */
+				requestCompleted(rq, false, metrics, listener);
+				elements.close();
+				elements = null;
+			}
+		}
+
+		/**
+		 * Reads the rest of response (if any) to release connection
+		 */
+		private void complete() {
+			boolean consumed = false;
+			try {
+				EntityUtils.consume(entity);
+				consumed = true;
+			} catch (IOException e) {
+				/* connection is closed by abort */
+			} finally {
+				elements.close();
+				elements = null;
+				requestCompleted(rq, consumed, metrics, listener);
+			}
+		}
 	}
 
 	private static abstract class HttpEntityCallback<RS> {
 
-		protected List<Serializer> serializers;
+		protected SerializerRegistry serializers;
 
-		public HttpEntityCallback(List<Serializer> serializers) {
+		public HttpEntityCallback(SerializerRegistry serializers) {
 			this.serializers = serializers;
 		}
 
 		protected Serializer getSupported(String contentType) throws SerializerException {
-			for (Serializer s : serializers) {
-				if (s.canRead(contentType)) {
-					return s;
-				}
-			}
-			throw new SerializerException("Unsupported media type '" + contentType);
+			return serializers.getReader(contentType);
+		}
+
+		public RS callback(HttpResponse response) throws SerializerException, IOException {
+			return callback(response.getEntity());
 		}
 
 		abstract public RS callback(HttpEntity entity) throws SerializerException, IOException;
@@ -377,14 +853,14 @@ public class HttpClientRestEndpoint implements RestEndpoint {
 
 		private Type type;
 
-		public TypeConverterCallback(List<Serializer> serializers, Type type) {
+		public TypeConverterCallback(SerializerRegistry serializers, Type type) {
 			super(serializers);
 			this.type = type;
 		}
 
 		@Override
 		public RS callback(HttpEntity entity) throws SerializerException, IOException {
-			return getSupported(entity.getContentType().getValue()).deserialize(EntityUtils.toByteArray(entity), type);
+			return SerializerRegistry.deserialize(getSupported(entity.getContentType().getValue()), entity.getContent(), type);
 		}
 
 	}
@@ -393,15 +869,119 @@ public class HttpClientRestEndpoint implements RestEndpoint {
 
 		private Class<RS> clazz;
 
-		public ClassConverterCallback(List<Serializer> serializers, Class<RS> clazz) {
+		public ClassConverterCallback(SerializerRegistry serializers, Class<RS> clazz) {
 			super(serializers);
 			this.clazz = clazz;
 		}
 
 		@Override
 		public RS callback(HttpEntity entity) throws SerializerException, IOException {
-			return getSupported(entity.getContentType().getValue()).deserialize(EntityUtils.toByteArray(entity), clazz);
+			return SerializerRegistry.deserialize(getSupported(entity.getContentType().getValue()), entity.getContent(), clazz);
+		}
+
+	}
+
+	/**
+	 * Returns cached response if server responds with 304 (Not Modified).
+	 * Otherwise converts response and caches it if it has validators. Cached
+	 * response is taken before request is sent, so it's returned even if
+	 * evicted meanwhile. 304 to request sent without cached response (e.g.
+	 * validators are set by caller) can't be converted and is thrown as
+	 * {@link RestEndpointException}
+	 */
+	private static class CachingCallback<RS> extends HttpEntityCallback<RS> {
+
+		private final HttpEntityCallback<RS> delegate;
+
+		private final Cache<ResponseCacheKey, CachedResponse> cache;
+
+		private final ResponseCacheKey key;
+
+		private final CachedResponse cached;
+
+		public CachingCallback(HttpEntityCallback<RS> delegate, Cache<ResponseCacheKey, CachedResponse> cache, ResponseCacheKey key,
+				CachedResponse cached) {
+			super(delegate.serializers);
+			this.delegate = delegate;
+			this.cache = cache;
+			this.key = key;
+			this.cached = cached;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public RS callback(HttpResponse response) throws SerializerException, IOException {
+			if (HttpStatus.SC_NOT_MODIFIED == response.getStatusLine().getStatusCode()) {
+				if (null == cached) {
+					throw new RestEndpointException(HttpStatus.SC_NOT_MODIFIED, response.getStatusLine().getReasonPhrase(), null);
+				}
+				return (RS) cached.value;
+			}
+			RS rs = delegate.callback(response);
+			Header etag = response.getFirstHeader(HttpHeaders.ETAG);
+			Header lastModified = response.getFirstHeader(HttpHeaders.LAST_MODIFIED);
+			if (HttpStatus.SC_OK == response.getStatusLine().getStatusCode() && (null != etag || null != lastModified)) {
+				cache.put(key, new CachedResponse(rs, null == etag ? null : etag.getValue(), null == lastModified ? null
+						: lastModified.getValue()));
+			} else {
+				cache.invalidate(key);
+			}
+			return rs;
+		}
+
+		@Override
+		public RS callback(HttpEntity entity) throws SerializerException, IOException {
+			return delegate.callback(entity);
+		}
+	}
+
+	/**
+	 * Key of cached response: URI of resource and type of response
+	 */
+	private static final class ResponseCacheKey {
+
+		private final URI uri;
+
+		private final Type type;
+
+		public ResponseCacheKey(URI uri, Type type) {
+			this.uri = uri;
+			this.type = type;
 		}
 
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof ResponseCacheKey)) {
+				return false;
+			}
+			ResponseCacheKey that = (ResponseCacheKey) o;
+			return uri.equals(that.uri) && type.equals(that.type);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * uri.hashCode() + type.hashCode();
+		}
+	}
+
+	/**
+	 * Deserialized response along with its validators
+	 */
+	private static final class CachedResponse {
+
+		private final Object value;
+
+		private final String etag;
+
+		private final String lastModified;
+
+		public CachedResponse(Object value, String etag, String lastModified) {
+			this.value = value;
+			this.etag = etag;
+			this.lastModified = lastModified;
+		}
 	}
-}
\ No newline at end of file
+}
@@ -23,6 +23,9 @@ package com.epam.reportportal.restclient.endpoint;
 import java.io.Closeable;
 import java.io.IOException;
 
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointIOException;
+import com.epam.reportportal.restclient.endpoint.exception.UncheckedRestEndpointIOException;
+
 /**
  * IO Helper. Added to avoid dependency to similar Apache commons-io library
  * 
@@ -45,4 +48,31 @@ public class IOUtils {
 			// ignore
 		}
 	}
+
+	/**
+	 * Passes all elements of iterator to callback and closes iterator.
+	 * Failures of reading wrapped by iterator into {@link RuntimeException}
+	 * are unwrapped
+	 * 
+	 * @param elements
+	 *            - Elements to be passed
+	 * @param callback
+	 *            - Element callback
+	 * @return Count of passed elements
+	 * @throws RestEndpointIOException
+	 */
+	public static <T> long forEach(CloseableIterator<T> elements, ElementCallback<T> callback) throws RestEndpointIOException {
+		long count = 0;
+		try {
+			while (elements.hasNext()) {
+				callback.onElement(elements.next());
+				count++;
+			}
+			return count;
+		} catch (UncheckedRestEndpointIOException e) {
+			throw e.getCause();
+		} finally {
+			elements.close();
+		}
+	}
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.epam.reportportal.apache.http.conn.HttpClientConnectionManager;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Closes expired and idle connections of {@link HttpClientConnectionManager}
+ * in background. All evictors share one daemon thread. Connection manager is
+ * referenced weakly, so evictor stops itself once HTTP client has gone
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+class IdleConnectionEvictor implements Runnable {
+
+	private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+			.setDaemon(true).setNameFormat("rest-endpoint-connection-evictor").build());
+
+	private final WeakReference<HttpClientConnectionManager> connectionManager;
+
+	private final long maxIdleTime;
+
+	private volatile ScheduledFuture<?> future;
+
+	private IdleConnectionEvictor(HttpClientConnectionManager connectionManager, long maxIdleTime) {
+		this.connectionManager = new WeakReference<HttpClientConnectionManager>(connectionManager);
+		this.maxIdleTime = maxIdleTime;
+	}
+
+	/**
+	 * Starts eviction of connections
+	 * 
+	 * @param connectionManager
+	 *            - Connection manager to be cleaned
+	 * @param interval
+	 *            - Eviction interval in milliseconds
+	 * @param maxIdleTime
+	 *            - Max idle time in milliseconds. Non-positive means only
+	 *            expired connections are closed
+	 */
+	static void schedule(HttpClientConnectionManager connectionManager, long interval, long maxIdleTime) {
+		IdleConnectionEvictor evictor = new IdleConnectionEvictor(connectionManager, maxIdleTime);
+		evictor.future = SCHEDULER.scheduleWithFixedDelay(evictor, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void run() {
+		HttpClientConnectionManager manager = connectionManager.get();
+		if (null == manager) {
+			if (null != future) {
+				future.cancel(false);
+			}
+			return;
+		}
+		manager.closeExpiredConnections();
+		if (maxIdleTime > 0) {
+			manager.closeIdleConnections(maxIdleTime, TimeUnit.MILLISECONDS);
+		}
+	}
+}
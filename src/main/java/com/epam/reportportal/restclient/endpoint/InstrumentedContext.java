@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import com.epam.reportportal.apache.http.protocol.BasicHttpContext;
+import com.epam.reportportal.apache.http.protocol.HttpCoreContext;
+
+/**
+ * Execution context recording time of connection lease into
+ * {@link RequestMetrics}. Client binds leased connection to context right
+ * after it's obtained from the pool, before connection is established, so
+ * lease time covers only waiting for free connection
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+class InstrumentedContext extends BasicHttpContext {
+
+	private final RequestMetrics metrics;
+
+	InstrumentedContext(RequestMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	@Override
+	public void setAttribute(String id, Object obj) {
+		if (HttpCoreContext.HTTP_CONNECTION.equals(id) && null != obj) {
+			metrics.connectionLeased();
+		}
+		super.setAttribute(id, obj);
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.epam.reportportal.apache.http.HttpEntity;
+import com.epam.reportportal.apache.http.entity.HttpEntityWrapper;
+
+/**
+ * Entity wrapper counting bytes written/read and time of writing into
+ * {@link RequestMetrics}
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+class InstrumentedEntity extends HttpEntityWrapper {
+
+	private final RequestMetrics metrics;
+
+	InstrumentedEntity(HttpEntity wrapped, RequestMetrics metrics) {
+		super(wrapped);
+		this.metrics = metrics;
+	}
+
+	@Override
+	public InputStream getContent() throws IOException {
+		InputStream content = super.getContent();
+		return null == content ? null : new CountingInputStream(content);
+	}
+
+	@Override
+	public void writeTo(OutputStream outstream) throws IOException {
+		long start = System.nanoTime();
+		try {
+			super.writeTo(new CountingOutputStream(outstream));
+		} finally {
+			metrics.addRequestWriteTime(System.nanoTime() - start);
+		}
+	}
+
+	private class CountingOutputStream extends FilterOutputStream {
+
+		CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			metrics.addBytesSent(1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			metrics.addBytesSent(len);
+		}
+	}
+
+	private class CountingInputStream extends FilterInputStream {
+
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = in.read();
+			if (b != -1) {
+				metrics.addBytesReceived(1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = in.read(b, off, len);
+			if (read > 0) {
+				metrics.addBytesReceived(read);
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = in.skip(n);
+			metrics.addBytesReceived(skipped);
+			return skipped;
+		}
+	}
+}
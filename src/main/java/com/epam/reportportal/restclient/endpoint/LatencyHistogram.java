@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Lock-free histogram of non-negative values (e.g. latencies). Values are
+ * counted in log-linear buckets: each power of two is split into 8 linear
+ * sub-buckets, so reported percentiles have relative error below 12.5%.
+ * Values above 2^40 are counted as 2^40
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	private static final long MAX_VALUE = 1L << 40;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(indexOf(MAX_VALUE) + 1);
+
+	private final AtomicLong count = new AtomicLong();
+
+	private final AtomicLong sum = new AtomicLong();
+
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records value
+	 * 
+	 * @param value
+	 *            - Non-negative value
+	 */
+	public void record(long value) {
+		long normalized = Math.min(Math.max(value, 0), MAX_VALUE);
+		buckets.incrementAndGet(indexOf(normalized));
+		count.incrementAndGet();
+		sum.addAndGet(normalized);
+
+		long currentMax;
+		while (normalized > (currentMax = max.get())) {
+			if (max.compareAndSet(currentMax, normalized)) {
+				break;
+			}
+		}
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public double getMean() {
+		long c = count.get();
+		return 0 == c ? 0 : (double) sum.get() / c;
+	}
+
+	/**
+	 * Returns value at given percentile. Since values are recorded
+	 * concurrently, result is approximate
+	 * 
+	 * @param percentile
+	 *            - Percentile in range [0, 100]
+	 * @return Upper bound of bucket containing the percentile
+	 */
+	public long getValueAtPercentile(double percentile) {
+		Preconditions.checkArgument(percentile >= 0 && percentile <= 100, "Percentile should be in range [0, 100]");
+		long total = 0;
+		long[] snapshot = new long[buckets.length()];
+		for (int i = 0; i < snapshot.length; i++) {
+			snapshot[i] = buckets.get(i);
+			total += snapshot[i];
+		}
+		if (0 == total) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long seen = 0;
+		for (int i = 0; i < snapshot.length; i++) {
+			seen += snapshot[i];
+			if (seen >= rank) {
+				return Math.min(upperBoundOf(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	private static int indexOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+		return (shift + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	private static long lowerBoundOf(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int group = index / SUB_BUCKETS;
+		int subBucket = index % SUB_BUCKETS;
+		return (long) (SUB_BUCKETS + subBucket) << (group - 1);
+	}
+
+	private static long upperBoundOf(int index) {
+		return lowerBoundOf(index + 1) - 1;
+	}
+}
@@ -20,6 +20,7 @@
  */
 package com.epam.reportportal.restclient.endpoint;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,6 +28,7 @@ import javax.annotation.Nonnull;
 
 import com.google.common.base.Preconditions;
 import com.google.common.io.ByteSource;
+import com.google.common.io.Files;
 
 /**
  * MultiPartRequest. Contains part which should be serialized and binary part to
@@ -86,7 +88,8 @@ public class MultiPartRequest<RQ> {
 	}
 
 	/**
-	 * Binary part of request
+	 * Binary part of request. May be backed by file, in this case length of
+	 * part is known in advance and it's streamed from disk as is
 	 * 
 	 * @author Andrei Varabyeu
 	 * 
@@ -96,6 +99,7 @@ public class MultiPartRequest<RQ> {
 		private String filename;
 		private String contentType;
 		private ByteSource data;
+		private File file;
 
 		public MultiPartBinary(String partName, String filename, String contentType, ByteSource data) {
 			this.partName = partName;
@@ -104,10 +108,22 @@ public class MultiPartRequest<RQ> {
 			this.contentType = contentType;
 		}
 
+		public MultiPartBinary(String partName, String filename, String contentType, File file) {
+			this(partName, filename, contentType, Files.asByteSource(file));
+			this.file = file;
+		}
+
 		public ByteSource getData() {
 			return data;
 		}
 
+		/**
+		 * @return File part is backed by or NULL
+		 */
+		public File getFile() {
+			return file;
+		}
+
 		public String getFilename() {
 			return filename;
 		}
@@ -150,6 +166,13 @@ public class MultiPartRequest<RQ> {
 			return this;
 		}
 
+		public Builder<RQ> addBinaryPart(String partName, String filename, String contentType, @Nonnull File file) {
+			Preconditions.checkNotNull(file, "Provided file shouldn't be null");
+			Preconditions.checkArgument(file.isFile(), "File '%s' doesn't exist", file);
+			binaryRQs.add(new MultiPartBinary(partName, filename, contentType, file));
+			return this;
+		}
+
 		public MultiPartRequest<RQ> build() {
 			return new MultiPartRequest<RQ>(serializedRQs, binaryRQs);
 		}
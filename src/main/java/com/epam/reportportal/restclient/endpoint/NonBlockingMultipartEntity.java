@@ -0,0 +1,248 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.epam.reportportal.apache.http.HttpEntity;
+import com.epam.reportportal.apache.http.entity.AbstractHttpEntity;
+import com.epam.reportportal.apache.http.entity.ContentType;
+import com.epam.reportportal.apache.http.entity.mime.content.FileBody;
+import com.epam.reportportal.apache.http.nio.ContentEncoder;
+import com.epam.reportportal.apache.http.nio.FileContentEncoder;
+import com.epam.reportportal.apache.http.nio.IOControl;
+import com.epam.reportportal.apache.http.nio.entity.HttpAsyncContentProducer;
+import com.google.common.io.Files;
+
+/**
+ * Multipart entity produced by non-blocking HTTP client. Multipart entity can
+ * be only written into stream, so it's written once into segments: multipart
+ * framing and in-memory parts are kept as byte arrays, while file parts (see
+ * {@link SegmentFileBody}) are kept as references to files. Files are
+ * streamed from disk when request is sent, via zero-copy transfer if content
+ * encoder supports it, so attachments are never held on heap
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+class NonBlockingMultipartEntity extends AbstractHttpEntity implements HttpAsyncContentProducer {
+
+	/** Size of buffer files are read with if zero-copy isn't supported */
+	private static final int BUFFER_SIZE = 8192;
+
+	/** Byte arrays and files in order they are sent */
+	private final List<Object> segments;
+
+	private final long contentLength;
+
+	/* state of production. Accessed by I/O dispatcher thread only */
+	private int current;
+
+	private ByteBuffer buffer;
+
+	private FileChannel channel;
+
+	private long position;
+
+	NonBlockingMultipartEntity(HttpEntity multipart) throws IOException {
+		SegmentOutputStream os = new SegmentOutputStream();
+		multipart.writeTo(os);
+		this.segments = os.getSegments();
+		this.contentLength = multipart.getContentLength();
+		setContentType(multipart.getContentType());
+		setChunked(multipart.isChunked());
+	}
+
+	@Override
+	public boolean isRepeatable() {
+		return true;
+	}
+
+	@Override
+	public long getContentLength() {
+		return contentLength;
+	}
+
+	@Override
+	public InputStream getContent() throws IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void writeTo(OutputStream outstream) throws IOException {
+		for (Object segment : segments) {
+			if (segment instanceof File) {
+				Files.copy((File) segment, outstream);
+			} else {
+				outstream.write((byte[]) segment);
+			}
+		}
+		outstream.flush();
+	}
+
+	@Override
+	public boolean isStreaming() {
+		return false;
+	}
+
+	@Override
+	public void produceContent(ContentEncoder encoder, IOControl ioctrl) throws IOException {
+		while (current < segments.size()) {
+			Object segment = segments.get(current);
+			boolean completed = segment instanceof File ? produceFile((File) segment, encoder) : produceBytes((byte[]) segment,
+					encoder);
+			if (!completed) {
+				/* encoder is full, production is continued once it's writable */
+				return;
+			}
+			buffer = null;
+			current++;
+		}
+		encoder.complete();
+		close();
+	}
+
+	/**
+	 * Resets state of production, so entity may be produced again (e.g. on
+	 * retry)
+	 */
+	@Override
+	public void close() throws IOException {
+		current = 0;
+		buffer = null;
+		position = 0;
+		if (null != channel) {
+			FileChannel opened = channel;
+			channel = null;
+			opened.close();
+		}
+	}
+
+	/**
+	 * @return TRUE if whole segment is written
+	 */
+	private boolean produceBytes(byte[] segment, ContentEncoder encoder) throws IOException {
+		if (null == buffer) {
+			buffer = ByteBuffer.wrap(segment);
+		}
+		encoder.write(buffer);
+		return !buffer.hasRemaining();
+	}
+
+	/**
+	 * @return TRUE if whole file is written
+	 */
+	private boolean produceFile(File file, ContentEncoder encoder) throws IOException {
+		if (null == channel) {
+			channel = new FileInputStream(file).getChannel();
+			position = 0;
+		}
+		long size = channel.size();
+		if (encoder instanceof FileContentEncoder) {
+			while (position < size) {
+				long transferred = ((FileContentEncoder) encoder).transfer(channel, position, size - position);
+				if (transferred <= 0) {
+					return false;
+				}
+				position += transferred;
+			}
+		} else {
+			if (null == buffer) {
+				buffer = ByteBuffer.allocate(BUFFER_SIZE);
+				buffer.flip();
+			}
+			while (position < size || buffer.hasRemaining()) {
+				if (!buffer.hasRemaining()) {
+					buffer.clear();
+					int read = channel.read(buffer, position);
+					buffer.flip();
+					if (read < 0) {
+						break;
+					}
+					position += read;
+				}
+				encoder.write(buffer);
+				if (buffer.hasRemaining()) {
+					return false;
+				}
+			}
+		}
+		channel.close();
+		channel = null;
+		return true;
+	}
+
+	/**
+	 * File part written into {@link NonBlockingMultipartEntity} as reference to
+	 * file. Into any other stream file is copied as usual
+	 */
+	static class SegmentFileBody extends FileBody {
+
+		SegmentFileBody(File file, ContentType contentType, String filename) {
+			super(file, contentType, filename);
+		}
+
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			if (out instanceof SegmentOutputStream) {
+				((SegmentOutputStream) out).addFile(getFile());
+			} else {
+				super.writeTo(out);
+			}
+		}
+	}
+
+	/**
+	 * Splits written content into segments: bytes written between files and
+	 * files
+	 */
+	private static class SegmentOutputStream extends ByteArrayOutputStream {
+
+		private final List<Object> segments = new ArrayList<Object>();
+
+		void addFile(File file) {
+			addBytes();
+			segments.add(file);
+		}
+
+		List<Object> getSegments() {
+			addBytes();
+			return Collections.unmodifiableList(segments);
+		}
+
+		private void addBytes() {
+			if (size() > 0) {
+				segments.add(toByteArray());
+				reset();
+			}
+		}
+	}
+}
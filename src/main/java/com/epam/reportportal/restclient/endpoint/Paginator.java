@@ -0,0 +1,259 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointIOException;
+import com.epam.reportportal.restclient.endpoint.exception.UncheckedRestEndpointIOException;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Iterates over all elements of paged server collection. Pages are requested
+ * lazily via {@link StreamingRestEndpoint#stream(String, Map, String, Type, ElementCallback)}.
+ * Once page is taken for iteration, next pages (up to configured window) are
+ * requested in background, so traversal isn't blocked by round trip of each
+ * page. Page having less elements than page size is considered to be the
+ * last one
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class Paginator {
+
+	/** Time idle thread of default executor is kept for */
+	private static final long IDLE_THREAD_TIMEOUT = 60;
+
+	private final StreamingRestEndpoint endpoint;
+
+	private final ExecutorService executor;
+
+	private final PaginatorConfig config;
+
+	/**
+	 * Creates paginator requesting pages in background via own pool of daemon
+	 * threads. Pool is bounded by count of prefetched pages, idle threads are
+	 * terminated, so there is nothing to be released
+	 * 
+	 * @param endpoint
+	 *            - Endpoint pages are requested from
+	 * @param config
+	 *            - Paginator configuration
+	 */
+	public Paginator(StreamingRestEndpoint endpoint, PaginatorConfig config) {
+		this(endpoint, createExecutor(config), config);
+	}
+
+	/**
+	 * Creates paginator requesting pages in background via provided executor.
+	 * Lifecycle of executor is managed by caller
+	 * 
+	 * @param endpoint
+	 *            - Endpoint pages are requested from
+	 * @param executor
+	 *            - Executor of background page requests
+	 * @param config
+	 *            - Paginator configuration
+	 */
+	public Paginator(StreamingRestEndpoint endpoint, ExecutorService executor, PaginatorConfig config) {
+		this.endpoint = Preconditions.checkNotNull(endpoint, "Endpoint shouldn't be null");
+		this.executor = Preconditions.checkNotNull(executor, "Executor shouldn't be null");
+		this.config = Preconditions.checkNotNull(config, "Config shouldn't be null");
+	}
+
+	/**
+	 * Creates pool of daemon threads bounded by count of prefetched pages.
+	 * Page requests exceeding pool size are queued
+	 */
+	private static ExecutorService createExecutor(PaginatorConfig config) {
+		int threads = Math.max(1, config.getPrefetchPages());
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, IDLE_THREAD_TIMEOUT, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactoryBuilder().setDaemon(true).setNameFormat("rest-endpoint-paginator-%d")
+						.build());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Returns lazy iterator over all elements of collection. Nothing is
+	 * requested until iterator is used. Iterator should be closed if it isn't
+	 * exhausted, so prefetched pages are cancelled
+	 * 
+	 * @param resource
+	 *            - REST Resource
+	 * @param parameters
+	 *            - Query parameters (e.g. filter). Page parameters are added
+	 *            by paginator. May be null
+	 * @param elementType
+	 *            - Type of collection element
+	 * @return - Lazy iterator over elements
+	 */
+	public <T> CloseableIterator<T> iterate(String resource, Map<String, String> parameters, Type elementType) {
+		return new PageIterator<T>(resource, null == parameters ? Collections.<String, String> emptyMap() : parameters, elementType);
+	}
+
+	/**
+	 * Iterator requesting next pages once previous one is taken
+	 */
+	private class PageIterator<T> implements CloseableIterator<T> {
+
+		private final String resource;
+
+		private final Map<String, String> parameters;
+
+		private final Type elementType;
+
+		/** Requested pages in order of page numbers */
+		private final Deque<Future<List<T>>> pages;
+
+		/** Elements of page being iterated */
+		private Iterator<T> current;
+
+		/** Number of next page to be requested */
+		private int nextPage;
+
+		/** Whether the last page has been taken */
+		private boolean completed;
+
+		public PageIterator(String resource, Map<String, String> parameters, Type elementType) {
+			this.resource = resource;
+			this.parameters = parameters;
+			this.elementType = elementType;
+			this.pages = new ArrayDeque<Future<List<T>>>(config.getPrefetchPages());
+			this.current = Collections.<T> emptyList().iterator();
+			this.nextPage = config.getFirstPage();
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (!current.hasNext()) {
+				if (completed) {
+					return false;
+				}
+				List<T> page;
+				try {
+					page = pages.isEmpty() ? requestPage(nextPage++) : await(pages.poll());
+				} catch (RuntimeException e) {
+					close();
+					throw e;
+				}
+				if (page.size() < config.getPageSize()) {
+					close();
+				} else {
+					prefetch();
+				}
+				current = page.iterator();
+			}
+			return true;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return current.next();
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * Cancels prefetched pages. Elements of page being iterated are still
+		 * available
+		 */
+		@Override
+		public void close() {
+			completed = true;
+			for (Future<List<T>> page : pages) {
+				page.cancel(true);
+			}
+			pages.clear();
+		}
+
+		/**
+		 * Requests next pages in background until window is full
+		 */
+		private void prefetch() {
+			while (pages.size() < config.getPrefetchPages()) {
+				final int pageNumber = nextPage++;
+				pages.add(executor.submit(new Callable<List<T>>() {
+					@Override
+					public List<T> call() throws RestEndpointIOException {
+						return requestPage(pageNumber);
+					}
+				}));
+			}
+		}
+
+		private List<T> await(Future<List<T>> page) {
+			try {
+				return page.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new UncheckedRestEndpointIOException(new RestEndpointIOException("Interrupted while waiting for page", e));
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw new RuntimeException(e.getCause());
+			}
+		}
+
+		private List<T> requestPage(int pageNumber) {
+			Map<String, String> pageParameters = new LinkedHashMap<String, String>(parameters);
+			pageParameters.put(config.getPageParameter(), String.valueOf(pageNumber));
+			pageParameters.put(config.getSizeParameter(), String.valueOf(config.getPageSize()));
+
+			final List<T> page = new ArrayList<T>(config.getPageSize());
+			try {
+				endpoint.stream(resource, pageParameters, config.getContentField(), elementType, new ElementCallback<T>() {
+					@Override
+					public void onElement(T element) {
+						page.add(element);
+					}
+				});
+			} catch (RestEndpointIOException e) {
+				throw new UncheckedRestEndpointIOException(e);
+			}
+			return page;
+		}
+	}
+}
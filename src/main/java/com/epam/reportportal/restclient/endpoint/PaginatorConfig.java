@@ -0,0 +1,151 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Configuration of {@link Paginator}. Use {@link PaginatorConfig.Builder} to
+ * create instances. Defaults follow ReportPortal API: pages are requested via
+ * <code>page.page</code>/<code>page.size</code> parameters starting from
+ * page 1, and elements are in <code>content</code> field of response
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class PaginatorConfig {
+
+	/** Default configuration */
+	public static final PaginatorConfig DEFAULT = new Builder().build();
+
+	/** Query parameter containing page number */
+	private final String pageParameter;
+
+	/** Query parameter containing page size */
+	private final String sizeParameter;
+
+	/** Number of first page */
+	private final int firstPage;
+
+	/** Count of elements requested per page */
+	private final int pageSize;
+
+	/** Count of pages requested ahead of the one being iterated */
+	private final int prefetchPages;
+
+	/** Field of response containing page elements. NULL if response is array */
+	private final String contentField;
+
+	private PaginatorConfig(Builder builder) {
+		this.pageParameter = builder.pageParameter;
+		this.sizeParameter = builder.sizeParameter;
+		this.firstPage = builder.firstPage;
+		this.pageSize = builder.pageSize;
+		this.prefetchPages = builder.prefetchPages;
+		this.contentField = builder.contentField;
+	}
+
+	public String getPageParameter() {
+		return pageParameter;
+	}
+
+	public String getSizeParameter() {
+		return sizeParameter;
+	}
+
+	public int getFirstPage() {
+		return firstPage;
+	}
+
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	public int getPrefetchPages() {
+		return prefetchPages;
+	}
+
+	public String getContentField() {
+		return contentField;
+	}
+
+	/**
+	 * Builder for {@link PaginatorConfig}
+	 * 
+	 * @author Andrei Varabyeu
+	 * 
+	 */
+	public static class Builder {
+		private String pageParameter = "page.page";
+		private String sizeParameter = "page.size";
+		private int firstPage = 1;
+		private int pageSize = 50;
+		private int prefetchPages = 2;
+		private String contentField = "content";
+
+		public Builder pageParameter(String pageParameter) {
+			this.pageParameter = Preconditions.checkNotNull(pageParameter, "Page parameter shouldn't be null");
+			return this;
+		}
+
+		public Builder sizeParameter(String sizeParameter) {
+			this.sizeParameter = Preconditions.checkNotNull(sizeParameter, "Size parameter shouldn't be null");
+			return this;
+		}
+
+		public Builder firstPage(int firstPage) {
+			Preconditions.checkArgument(firstPage >= 0, "First page should be non-negative");
+			this.firstPage = firstPage;
+			return this;
+		}
+
+		public Builder pageSize(int pageSize) {
+			Preconditions.checkArgument(pageSize > 0, "Page size should be positive");
+			this.pageSize = pageSize;
+			return this;
+		}
+
+		/**
+		 * @param prefetchPages
+		 *            - Count of pages requested in background ahead of the one
+		 *            being iterated. Zero disables prefetch
+		 */
+		public Builder prefetchPages(int prefetchPages) {
+			Preconditions.checkArgument(prefetchPages >= 0, "Prefetch pages should be non-negative");
+			this.prefetchPages = prefetchPages;
+			return this;
+		}
+
+		/**
+		 * @param contentField
+		 *            - Field of response containing page elements. NULL if
+		 *            response is array of elements
+		 */
+		public Builder contentField(String contentField) {
+			this.contentField = contentField;
+			return this;
+		}
+
+		public PaginatorConfig build() {
+			return new PaginatorConfig(this);
+		}
+	}
+}
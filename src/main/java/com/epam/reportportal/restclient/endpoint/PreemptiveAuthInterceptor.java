@@ -21,6 +21,8 @@
 package com.epam.reportportal.restclient.endpoint;
 
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.epam.reportportal.apache.http.HttpException;
 import com.epam.reportportal.apache.http.HttpHost;
@@ -31,18 +33,25 @@ import com.epam.reportportal.apache.http.auth.AuthState;
 import com.epam.reportportal.apache.http.client.AuthCache;
 import com.epam.reportportal.apache.http.client.HttpClient;
 import com.epam.reportportal.apache.http.client.protocol.HttpClientContext;
+import com.epam.reportportal.apache.http.conn.UnsupportedSchemeException;
 import com.epam.reportportal.apache.http.impl.auth.BasicScheme;
 import com.epam.reportportal.apache.http.impl.client.BasicAuthCache;
+import com.epam.reportportal.apache.http.impl.conn.DefaultSchemePortResolver;
 import com.epam.reportportal.apache.http.protocol.HttpContext;
 import com.epam.reportportal.apache.http.protocol.HttpCoreContext;
+import com.google.common.base.Preconditions;
 
 /**
  * Adds {@link AuthScheme} to all requests as {@link AuthCache} object. This way
- * we are able to force {@link HttpClient} to use auth preemptively
+ * we are able to force {@link HttpClient} to use auth preemptively. Auth cache
+ * is shared between requests, so nothing is allocated per request once target
+ * host is cached
  * 
  */
 public class PreemptiveAuthInterceptor implements HttpRequestInterceptor {
 
+	private final AuthCache authCache = new ConcurrentAuthCache();
+
 	/**
 	 * Adds provided auth scheme to the client if there are no another provided
 	 * auth schemes
@@ -54,9 +63,60 @@ public class PreemptiveAuthInterceptor implements HttpRequestInterceptor {
 		if (authState.getAuthScheme() == null) {
 
 			HttpHost targetHost = (HttpHost) context.getAttribute(HttpCoreContext.HTTP_TARGET_HOST);
-			AuthCache authCache = new BasicAuthCache();
-			authCache.put(targetHost, new BasicScheme());
+			if (null == authCache.get(targetHost)) {
+				authCache.put(targetHost, new BasicScheme());
+			}
 			context.setAttribute(HttpClientContext.AUTH_CACHE, authCache);
 		}
 	}
+
+	/**
+	 * Thread-safe {@link AuthCache}. Unlike {@link BasicAuthCache} may be
+	 * shared between concurrently executed requests
+	 */
+	private static class ConcurrentAuthCache implements AuthCache {
+
+		private final ConcurrentMap<HttpHost, AuthScheme> schemes = new ConcurrentHashMap<HttpHost, AuthScheme>();
+
+		@Override
+		public void put(HttpHost host, AuthScheme authScheme) {
+			Preconditions.checkNotNull(host, "HTTP host shouldn't be null");
+			if (null == authScheme) {
+				remove(host);
+			} else {
+				schemes.put(getKey(host), authScheme);
+			}
+		}
+
+		@Override
+		public AuthScheme get(HttpHost host) {
+			Preconditions.checkNotNull(host, "HTTP host shouldn't be null");
+			return schemes.get(getKey(host));
+		}
+
+		@Override
+		public void remove(HttpHost host) {
+			Preconditions.checkNotNull(host, "HTTP host shouldn't be null");
+			schemes.remove(getKey(host));
+		}
+
+		@Override
+		public void clear() {
+			schemes.clear();
+		}
+
+		/**
+		 * Normalizes host the same way as {@link BasicAuthCache} does
+		 */
+		private static HttpHost getKey(HttpHost host) {
+			if (host.getPort() > 0) {
+				return host;
+			}
+			try {
+				return new HttpHost(host.getHostName(), DefaultSchemePortResolver.INSTANCE.resolve(host), host.getSchemeName());
+			} catch (UnsupportedSchemeException e) {
+				return host;
+			}
+		}
+	}
 }
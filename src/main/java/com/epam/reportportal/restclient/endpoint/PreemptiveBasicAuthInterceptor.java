@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.IOException;
+
+import com.epam.reportportal.apache.http.HttpException;
+import com.epam.reportportal.apache.http.HttpHost;
+import com.epam.reportportal.apache.http.HttpRequest;
+import com.epam.reportportal.apache.http.HttpRequestInterceptor;
+import com.epam.reportportal.apache.http.auth.Credentials;
+import com.epam.reportportal.apache.http.conn.SchemePortResolver;
+import com.epam.reportportal.apache.http.conn.UnsupportedSchemeException;
+import com.epam.reportportal.apache.http.impl.conn.DefaultSchemePortResolver;
+import com.epam.reportportal.apache.http.protocol.HttpContext;
+import com.epam.reportportal.apache.http.protocol.HttpCoreContext;
+import com.google.common.base.Charsets;
+import com.google.common.base.Preconditions;
+import com.google.common.io.BaseEncoding;
+import com.google.common.net.HttpHeaders;
+
+/**
+ * Adds Basic authorization header to requests sent to provided hosts. Header
+ * is built once from provided credentials, so auth schemes and caches are not
+ * involved at all. Requests to other hosts (e.g. redirected to third-party
+ * host) are sent without credentials. Header already set on request is kept
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class PreemptiveBasicAuthInterceptor implements HttpRequestInterceptor {
+
+	private static final SchemePortResolver PORT_RESOLVER = DefaultSchemePortResolver.INSTANCE;
+
+	private final String authorization;
+
+	/** Hosts credentials are sent to */
+	private final HttpHost[] targetHosts;
+
+	/**
+	 * @param credentials
+	 *            - Credentials
+	 * @param targetHosts
+	 *            - Hosts credentials are sent to, e.g. host of endpoint's base
+	 *            URL. Host without port matches default port of its scheme
+	 */
+	public PreemptiveBasicAuthInterceptor(Credentials credentials, HttpHost... targetHosts) {
+		Preconditions.checkNotNull(credentials, "Credentials shouldn't be null");
+		Preconditions.checkNotNull(credentials.getUserPrincipal(), "User principal shouldn't be null");
+		Preconditions.checkArgument(null != targetHosts && targetHosts.length > 0, "Target hosts shouldn't be empty");
+		/* same as BasicScheme does */
+		String userPass = credentials.getUserPrincipal().getName() + ":" + credentials.getPassword();
+		this.authorization = "Basic " + BaseEncoding.base64().encode(userPass.getBytes(Charsets.US_ASCII));
+		this.targetHosts = targetHosts.clone();
+	}
+
+	@Override
+	public void process(HttpRequest request, HttpContext context) throws HttpException, IOException {
+		if (!request.containsHeader(HttpHeaders.AUTHORIZATION)
+				&& isTarget((HttpHost) context.getAttribute(HttpCoreContext.HTTP_TARGET_HOST))) {
+			request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+		}
+	}
+
+	/**
+	 * Compares host with target hosts field by field, so nothing is allocated
+	 * per request
+	 */
+	private boolean isTarget(HttpHost host) {
+		if (null == host) {
+			return false;
+		}
+		for (HttpHost target : targetHosts) {
+			if (target.getHostName().equalsIgnoreCase(host.getHostName()) && target.getSchemeName().equalsIgnoreCase(host.getSchemeName())
+					&& resolvePort(target) == resolvePort(host)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int resolvePort(HttpHost host) {
+		if (host.getPort() > 0) {
+			return host.getPort();
+		}
+		try {
+			return PORT_RESOLVER.resolve(host);
+		} catch (UnsupportedSchemeException e) {
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * {@link TokenProvider} caching tokens obtained from another (e.g. remote)
+ * provider. Token is refreshed in background shortly before expiration, so
+ * requests don't wait for refresh. Refresh is single-flight: when several
+ * requests fail with the same rejected token, token is refreshed only once
+ * and the rest of requests reuse refreshed token
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class RefreshingTokenProvider implements TokenProvider, Closeable {
+
+	private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+			.setDaemon(true).setNameFormat("rest-endpoint-token-refresher").build());
+
+	/** Delay of next attempt if background refresh fails */
+	private static final long RETRY_DELAY = TimeUnit.SECONDS.toMillis(1);
+
+	/** Provider tokens are obtained from */
+	private final TokenProvider source;
+
+	/** How long before expiration token is refreshed */
+	private final long refreshAhead;
+
+	private final Object refreshLock = new Object();
+
+	private volatile AccessToken current;
+
+	/** Scheduled background refresh. Guarded by refreshLock */
+	private ScheduledFuture<?> scheduledRefresh;
+
+	/**
+	 * @param source
+	 *            - Provider tokens are obtained from
+	 * @param refreshAhead
+	 *            - How long before expiration token is refreshed
+	 * @param unit
+	 *            - Time unit of refresh ahead
+	 */
+	public RefreshingTokenProvider(TokenProvider source, long refreshAhead, TimeUnit unit) {
+		this.source = Preconditions.checkNotNull(source, "Token source shouldn't be null");
+		this.refreshAhead = unit.toMillis(refreshAhead);
+	}
+
+	public RefreshingTokenProvider(TokenProvider source) {
+		this(source, 30, TimeUnit.SECONDS);
+	}
+
+	@Override
+	public AccessToken getToken() throws IOException {
+		AccessToken token = current;
+		if (null != token && !token.isExpired()) {
+			return token;
+		}
+		return refresh(token);
+	}
+
+	/**
+	 * Refreshes token unless it has already been refreshed by another thread.
+	 * Caller is blocked until token is refreshed
+	 */
+	@Override
+	public void invalidate(AccessToken token) {
+		try {
+			refresh(token);
+		} catch (IOException e) {
+			/* next getToken() attempts to refresh again */
+		}
+	}
+
+	/**
+	 * Cancels background refresh
+	 */
+	@Override
+	public void close() {
+		synchronized (refreshLock) {
+			if (null != scheduledRefresh) {
+				scheduledRefresh.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * Obtains new token from source if the current one is still the stale
+	 * one
+	 */
+	private AccessToken refresh(AccessToken stale) throws IOException {
+		synchronized (refreshLock) {
+			AccessToken token = current;
+			if (token != stale && null != token && !token.isExpired()) {
+				return token;
+			}
+			if (null != scheduledRefresh) {
+				scheduledRefresh.cancel(false);
+				scheduledRefresh = null;
+			}
+			token = Preconditions.checkNotNull(source.getToken(), "Token source returned null");
+			current = token;
+			if (token.getExpiresAt() > 0) {
+				schedule(token, token.getExpiresAt() - refreshAhead - System.currentTimeMillis());
+			}
+			return token;
+		}
+	}
+
+	/** Guarded by refreshLock */
+	private void schedule(final AccessToken token, long delay) {
+		scheduledRefresh = SCHEDULER.schedule(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					refresh(token);
+				} catch (Exception e) {
+					synchronized (refreshLock) {
+						if (current == token && !token.isExpired()) {
+							schedule(token, RETRY_DELAY);
+						}
+					}
+				}
+			}
+		}, Math.max(0, delay), TimeUnit.MILLISECONDS);
+	}
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.Closeable;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointIOException;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Accumulates requests to the same resource and sends them as one HTTP POST
+ * with JSON array of requests. Server is expected to respond with array of
+ * responses of the same size and order, so each caller's future is completed
+ * with corresponding element of response.<br>
+ * Batch is sent once it reaches max size or max delay after first request of
+ * batch is submitted. Batches are sent from background thread, so
+ * {@link #submit(Object)} never blocks
+ * 
+ * @author Andrei Varabyeu
+ * 
+ * @param <RQ>
+ *            - Type of single request
+ * @param <RS>
+ *            - Type of single response
+ */
+public class RequestBatcher<RQ, RS> implements Closeable {
+
+	private final RestEndpoint endpoint;
+
+	private final String resource;
+
+	/** Type of response of whole batch, e.g. List&lt;RS&gt; */
+	private final Type batchResponseType;
+
+	private final int maxBatchSize;
+
+	private final long maxDelay;
+
+	private final ScheduledExecutorService scheduler;
+
+	private final boolean ownScheduler;
+
+	private final Object lock = new Object();
+
+	private List<PendingRequest<RQ, RS>> pending;
+
+	private ScheduledFuture<?> scheduledFlush;
+
+	private boolean closed;
+
+	/**
+	 * Creates batcher with own background thread
+	 * 
+	 * @param endpoint
+	 *            - Endpoint used to send batches
+	 * @param resource
+	 *            - REST resource accepting batches
+	 * @param batchResponseType
+	 *            - Type of batch response. For example
+	 *            <code>new ParameterizedTypeReference&lt;List&lt;RS&gt;&gt;() {}.getType()</code>
+	 * @param maxBatchSize
+	 *            - Max count of requests in batch
+	 * @param maxDelay
+	 *            - Max delay of request in batch
+	 * @param unit
+	 *            - Time unit of delay
+	 */
+	public RequestBatcher(RestEndpoint endpoint, String resource, Type batchResponseType, int maxBatchSize, long maxDelay, TimeUnit unit) {
+		this(endpoint, resource, batchResponseType, maxBatchSize, maxDelay, unit, Executors.newSingleThreadScheduledExecutor(
+				new ThreadFactoryBuilder().setDaemon(true).setNameFormat("rest-endpoint-batcher-%d").build()), true);
+	}
+
+	/**
+	 * Creates batcher sending batches via provided scheduler. Lifecycle of
+	 * scheduler should be managed by caller
+	 */
+	public RequestBatcher(RestEndpoint endpoint, String resource, Type batchResponseType, int maxBatchSize, long maxDelay, TimeUnit unit,
+			ScheduledExecutorService scheduler) {
+		this(endpoint, resource, batchResponseType, maxBatchSize, maxDelay, unit, scheduler, false);
+	}
+
+	private RequestBatcher(RestEndpoint endpoint, String resource, Type batchResponseType, int maxBatchSize, long maxDelay,
+			TimeUnit unit, ScheduledExecutorService scheduler, boolean ownScheduler) {
+		Preconditions.checkArgument(maxBatchSize > 0, "Max batch size should be positive");
+		this.endpoint = Preconditions.checkNotNull(endpoint, "Endpoint shouldn't be null");
+		this.resource = Preconditions.checkNotNull(resource, "Resource shouldn't be null");
+		this.batchResponseType = Preconditions.checkNotNull(batchResponseType, "Response type shouldn't be null");
+		this.maxBatchSize = maxBatchSize;
+		this.maxDelay = unit.toNanos(maxDelay);
+		this.scheduler = scheduler;
+		this.ownScheduler = ownScheduler;
+		this.pending = new ArrayList<PendingRequest<RQ, RS>>(maxBatchSize);
+	}
+
+	/**
+	 * Adds request to the current batch
+	 * 
+	 * @param rq
+	 *            - Request
+	 * @return Future of response to this request
+	 */
+	public ListenableFuture<RS> submit(RQ rq) {
+		SettableFuture<RS> future = SettableFuture.create();
+		List<PendingRequest<RQ, RS>> batch = null;
+		synchronized (lock) {
+			Preconditions.checkState(!closed, "Batcher is closed");
+			pending.add(new PendingRequest<RQ, RS>(rq, future));
+			if (pending.size() >= maxBatchSize) {
+				batch = drain();
+			} else if (pending.size() == 1) {
+				scheduledFlush = scheduler.schedule(new Runnable() {
+					@Override
+					public void run() {
+						flush();
+					}
+				}, maxDelay, TimeUnit.NANOSECONDS);
+			}
+		}
+		if (null != batch) {
+			scheduler.execute(new BatchSender(batch));
+		}
+		return future;
+	}
+
+	/**
+	 * Sends current batch in calling thread
+	 */
+	public void flush() {
+		List<PendingRequest<RQ, RS>> batch;
+		synchronized (lock) {
+			batch = drain();
+		}
+		new BatchSender(batch).run();
+	}
+
+	/**
+	 * Sends pending requests and releases background thread if it has been
+	 * created by this batcher
+	 */
+	@Override
+	public void close() {
+		synchronized (lock) {
+			closed = true;
+		}
+		flush();
+		if (ownScheduler) {
+			scheduler.shutdown();
+		}
+	}
+
+	private List<PendingRequest<RQ, RS>> drain() {
+		if (null != scheduledFlush) {
+			scheduledFlush.cancel(false);
+			scheduledFlush = null;
+		}
+		List<PendingRequest<RQ, RS>> batch = pending;
+		pending = new ArrayList<PendingRequest<RQ, RS>>(maxBatchSize);
+		return batch;
+	}
+
+	private class BatchSender implements Runnable {
+
+		private final List<PendingRequest<RQ, RS>> batch;
+
+		BatchSender(List<PendingRequest<RQ, RS>> batch) {
+			this.batch = batch;
+		}
+
+		@Override
+		public void run() {
+			if (batch.isEmpty()) {
+				return;
+			}
+			List<RQ> rqs = new ArrayList<RQ>(batch.size());
+			for (PendingRequest<RQ, RS> request : batch) {
+				rqs.add(request.request);
+			}
+			try {
+				List<RS> rs = endpoint.post(resource, rqs, batchResponseType);
+				if (null == rs || rs.size() != batch.size()) {
+					throw new RestEndpointIOException("Batch of " + batch.size() + " requests to '" + resource + "' has been answered with "
+							+ (null == rs ? 0 : rs.size()) + " responses");
+				}
+				for (int i = 0; i < batch.size(); i++) {
+					batch.get(i).future.set(rs.get(i));
+				}
+			} catch (Throwable e) {
+				for (PendingRequest<RQ, RS> request : batch) {
+					request.future.setException(e);
+				}
+			}
+		}
+	}
+
+	private static class PendingRequest<RQ, RS> {
+		private final RQ request;
+		private final SettableFuture<RS> future;
+
+		PendingRequest(RQ request, SettableFuture<RS> future) {
+			this.request = request;
+			this.future = future;
+		}
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+/**
+ * Listener of requests executed by {@link HttpClientRestEndpoint}. May be used
+ * to collect metrics. Methods are called in thread executing the request, so
+ * implementations should be thread-safe and fast
+ * 
+ * @author Andrei Varabyeu
+ * 
+ * @see HistogramRequestListener
+ */
+public interface RequestListener {
+
+	/**
+	 * Called before request is sent
+	 * 
+	 * @param metrics
+	 *            - Metrics of request. Contains only method and resource at
+	 *            this point
+	 */
+	void requestStarted(RequestMetrics metrics);
+
+	/**
+	 * Called once request is completed, whether successfully or not
+	 * 
+	 * @param metrics
+	 *            - Metrics of completed request
+	 */
+	void requestCompleted(RequestMetrics metrics);
+}
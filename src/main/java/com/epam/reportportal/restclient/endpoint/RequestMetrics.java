@@ -0,0 +1,169 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+/**
+ * Metrics of single request executed by {@link HttpClientRestEndpoint}. All
+ * durations are in nanoseconds
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class RequestMetrics {
+
+	/** HTTP Method */
+	private final String method;
+
+	/** Path of requested resource */
+	private final String resource;
+
+	private final long startTime;
+
+	private volatile int statusCode = -1;
+
+	private volatile long bytesSent;
+
+	private volatile long bytesReceived;
+
+	private volatile long requestWriteTime;
+
+	private volatile long connectionLeaseTime = -1;
+
+	private volatile long responseTime;
+
+	private volatile long totalTime;
+
+	private volatile boolean successful;
+
+	RequestMetrics(String method, String resource) {
+		this.method = method;
+		this.resource = resource;
+		this.startTime = System.nanoTime();
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * @return HTTP status code or -1 if response hasn't been received
+	 */
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * @return Count of bytes of request body
+	 */
+	public long getBytesSent() {
+		return bytesSent;
+	}
+
+	/**
+	 * @return Count of bytes of response body read by client
+	 */
+	public long getBytesReceived() {
+		return bytesReceived;
+	}
+
+	/**
+	 * @return Time spent on serialization and writing of request body
+	 */
+	public long getRequestWriteTime() {
+		return requestWriteTime;
+	}
+
+	/**
+	 * @return Time spent waiting for connection from the pool or -1 if
+	 *         connection hasn't been leased. For redirected/retried requests
+	 *         only the first lease is counted
+	 */
+	public long getConnectionLeaseTime() {
+		return connectionLeaseTime;
+	}
+
+	/**
+	 * @return Time from connection lease till response headers are received.
+	 *         Includes connecting, sending of request and server wait
+	 */
+	public long getResponseTime() {
+		return responseTime;
+	}
+
+	/**
+	 * @return Time spent on reading and deserialization of response body
+	 */
+	public long getResponseReadTime() {
+		return responseTime > 0 ? totalTime - Math.max(0, connectionLeaseTime) - responseTime : 0;
+	}
+
+	/**
+	 * @return Total time of request
+	 */
+	public long getTotalTime() {
+		return totalTime;
+	}
+
+	/**
+	 * @return TRUE if request has been completed without errors
+	 */
+	public boolean isSuccessful() {
+		return successful;
+	}
+
+	void addBytesSent(long count) {
+		this.bytesSent += count;
+	}
+
+	void addBytesReceived(long count) {
+		this.bytesReceived += count;
+	}
+
+	void addRequestWriteTime(long time) {
+		this.requestWriteTime += time;
+	}
+
+	void connectionLeased() {
+		if (-1 == connectionLeaseTime) {
+			this.connectionLeaseTime = System.nanoTime() - startTime;
+		}
+	}
+
+	void responseReceived(int statusCode) {
+		this.statusCode = statusCode;
+		this.responseTime = System.nanoTime() - startTime - Math.max(0, connectionLeaseTime);
+	}
+
+	void completed(boolean successful) {
+		this.successful = successful;
+		this.totalTime = System.nanoTime() - startTime;
+	}
+
+	@Override
+	public String toString() {
+		return "RequestMetrics [method=" + method + ", resource=" + resource + ", statusCode=" + statusCode + ", bytesSent=" + bytesSent
+				+ ", bytesReceived=" + bytesReceived + ", totalTime=" + totalTime + ", successful=" + successful + "]";
+	}
+}
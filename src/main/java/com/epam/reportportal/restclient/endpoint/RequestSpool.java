@@ -0,0 +1,166 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Write-ahead queue of records stored in memory-mapped
+ * {@link SpoolSegment}s. Disk usage is bounded by max count of segments.
+ * Fully delivered segments are deleted. Existing segments are recovered on
+ * start, so records survive restarts<br>
+ * Sync policy: segment is forced to disk once it's full and the next one is
+ * started, and on {@link #close()}. Records of the tail segment and delivery
+ * marks survive crash of the process, but may be lost on crash of OS. Lost
+ * delivery mark only makes record to be delivered again
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+class RequestSpool implements Closeable {
+
+	private static final String SEGMENT_PREFIX = "spool-";
+
+	private static final String SEGMENT_SUFFIX = ".seg";
+
+	private final File directory;
+
+	private final int segmentSize;
+
+	private final int maxSegments;
+
+	private final Deque<SpoolSegment> segments = new ArrayDeque<SpoolSegment>();
+
+	private long nextSequence;
+
+	RequestSpool(File directory, int segmentSize, int maxSegments) throws IOException {
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.maxSegments = maxSegments;
+
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Unable to create spool directory '" + directory + "'");
+		}
+		String[] files = directory.list(new FilenameFilter() {
+			@Override
+			public boolean accept(File dir, String name) {
+				return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+			}
+		});
+		/* sequence is zero-padded, so lexicographical order is order of creation */
+		Arrays.sort(files);
+		for (String file : files) {
+			long sequence = Long.parseLong(file.substring(SEGMENT_PREFIX.length(), file.length() - SEGMENT_SUFFIX.length()));
+			nextSequence = Math.max(nextSequence, sequence + 1);
+			SpoolSegment segment = SpoolSegment.open(new File(directory, file), segmentSize);
+			if (segment.isDrained()) {
+				delete(segment);
+			} else {
+				segments.addLast(segment);
+			}
+		}
+	}
+
+	/**
+	 * Appends record to the tail of spool
+	 * 
+	 * @param record
+	 *            - Record
+	 * @return FALSE if record is too big or spool is full
+	 * @throws IOException
+	 */
+	synchronized boolean append(byte[] record) throws IOException {
+		if (record.length > segmentSize - SpoolSegment.HEADER_SIZE) {
+			return false;
+		}
+		SpoolSegment tail = segments.peekLast();
+		if (null != tail && tail.append(record)) {
+			return true;
+		}
+		if (segments.size() >= maxSegments) {
+			return false;
+		}
+		if (null != tail) {
+			tail.force();
+		}
+		tail = SpoolSegment.open(new File(directory, String.format("%s%019d%s", SEGMENT_PREFIX, nextSequence++, SEGMENT_SUFFIX)),
+				segmentSize);
+		segments.addLast(tail);
+		return tail.append(record);
+	}
+
+	/**
+	 * @return Head record or NULL if spool is empty
+	 */
+	synchronized byte[] peek() {
+		SpoolSegment head = head();
+		return null == head ? null : head.peek();
+	}
+
+	/**
+	 * Removes head record
+	 */
+	synchronized void remove() {
+		SpoolSegment head = head();
+		if (null != head) {
+			head.markDelivered();
+		}
+	}
+
+	synchronized boolean isEmpty() {
+		return null == head();
+	}
+
+	@Override
+	public synchronized void close() {
+		for (SpoolSegment segment : segments) {
+			segment.close();
+		}
+		segments.clear();
+	}
+
+	/**
+	 * @return First segment with not delivered records. Drained segments are
+	 *         deleted
+	 */
+	private SpoolSegment head() {
+		SpoolSegment head;
+		while (null != (head = segments.peekFirst()) && head.isDrained()) {
+			segments.removeFirst();
+			delete(head);
+		}
+		return head;
+	}
+
+	private void delete(SpoolSegment segment) {
+		segment.close();
+		if (!segment.getFile().delete()) {
+			/* cannot be deleted while mapped on some platforms. Deleted on next start */
+			segment.getFile().deleteOnExit();
+		}
+	}
+}
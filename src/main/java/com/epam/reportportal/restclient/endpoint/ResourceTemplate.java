@@ -0,0 +1,188 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Precompiled template of REST resource, e.g.
+ * <code>/launch/{id}/finish</code>. Template is parsed once (keep instances in
+ * constants), expansion just concatenates literal parts and values. Values
+ * are inserted as is, resource is encoded by {@link RestEndpoint}. Literal
+ * parts are percent-encoded once on compilation, so command created from
+ * template (see {@link RestCommand#RestCommand(ResourceTemplate, HttpMethod, Object, Object...)})
+ * encodes only values
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public final class ResourceTemplate {
+
+	private final String template;
+
+	/** Literal parts. Count of literals is count of variables plus one */
+	private final String[] literals;
+
+	private final String[] variables;
+
+	/** Percent-encoded literal parts */
+	private final String[] encodedLiterals;
+
+	/** Total length of literal parts */
+	private final int literalsLength;
+
+	/** Total length of encoded literal parts */
+	private final int encodedLength;
+
+	private ResourceTemplate(String template, List<String> literals, List<String> variables) {
+		this.template = template;
+		this.literals = literals.toArray(new String[literals.size()]);
+		this.variables = variables.toArray(new String[variables.size()]);
+		this.encodedLiterals = new String[this.literals.length];
+		int length = 0;
+		int encodedLength = 0;
+		for (int i = 0; i < this.literals.length; i++) {
+			StringBuilder encoded = new StringBuilder(this.literals[i].length());
+			BaseUrl.encodePath(encoded, this.literals[i]);
+			encodedLiterals[i] = encoded.toString();
+			length += this.literals[i].length();
+			encodedLength += encodedLiterals[i].length();
+		}
+		this.literalsLength = length;
+		this.encodedLength = encodedLength;
+	}
+
+	/**
+	 * Parses template
+	 * 
+	 * @param template
+	 *            - Resource template with variables in curly braces
+	 * @return Compiled template
+	 */
+	public static ResourceTemplate compile(String template) {
+		Preconditions.checkNotNull(template, "Template shouldn't be null");
+		List<String> literals = new ArrayList<String>();
+		List<String> variables = new ArrayList<String>();
+		int position = 0;
+		int open;
+		while (-1 != (open = template.indexOf('{', position))) {
+			int close = template.indexOf('}', open);
+			Preconditions.checkArgument(-1 != close, "Unclosed variable in template '%s'", template);
+			String variable = template.substring(open + 1, close);
+			Preconditions.checkArgument(!variable.isEmpty(), "Empty variable in template '%s'", template);
+			literals.add(template.substring(position, open));
+			variables.add(variable);
+			position = close + 1;
+		}
+		literals.add(template.substring(position));
+		return new ResourceTemplate(template, literals, variables);
+	}
+
+	/**
+	 * Expands template with values in order of variables
+	 * 
+	 * @param values
+	 *            - Values of variables
+	 * @return Resource
+	 */
+	public String expand(Object... values) {
+		checkValues(values);
+		if (0 == variables.length) {
+			return template;
+		}
+		StringBuilder resource = new StringBuilder(literalsLength + 24 * variables.length).append(literals[0]);
+		for (int i = 0; i < variables.length; i++) {
+			resource.append(Preconditions.checkNotNull(values[i], "Value of '%s' is null", variables[i])).append(literals[i + 1]);
+		}
+		return resource.toString();
+	}
+
+	/**
+	 * Expands template with values of variables by name
+	 * 
+	 * @param values
+	 *            - Values of variables
+	 * @return Resource
+	 */
+	public String expand(Map<String, ?> values) {
+		Object[] ordered = new Object[variables.length];
+		for (int i = 0; i < variables.length; i++) {
+			Preconditions.checkArgument(values.containsKey(variables[i]), "Value of '%s' isn't provided", variables[i]);
+			ordered[i] = values.get(variables[i]);
+		}
+		return expand(ordered);
+	}
+
+	/**
+	 * Appends percent-encoded resource expanded with values. Should be called
+	 * only if template is encodable, see {@link #isEncodable()}
+	 * 
+	 * @param to
+	 *            - URL being built
+	 * @param values
+	 *            - Values of variables
+	 */
+	void appendEncoded(StringBuilder to, Object[] values) {
+		checkValues(values);
+		to.append(encodedLiterals[0]);
+		for (int i = 0; i < variables.length; i++) {
+			BaseUrl.encodePath(to, Preconditions.checkNotNull(values[i], "Value of '%s' is null", variables[i]).toString());
+			to.append(encodedLiterals[i + 1]);
+		}
+	}
+
+	/**
+	 * Checks whether expanded resource may be built from encoded parts. It
+	 * can't if resource isn't absolute or leading slashes of it may need to be
+	 * collapsed, see {@link BaseUrl#resolve(String, Map)}
+	 */
+	boolean isEncodable() {
+		String first = literals[0];
+		return first.startsWith("/") && !first.startsWith("//") && (first.length() > 1 || 0 == variables.length);
+	}
+
+	int getEncodedLength() {
+		return encodedLength;
+	}
+
+	/**
+	 * Checks count of values
+	 */
+	void checkValues(Object[] values) {
+		Preconditions.checkArgument(values.length == variables.length, "Template '%s' expects %s values, but %s provided", template,
+				variables.length, values.length);
+	}
+
+	public List<String> getVariables() {
+		return Collections.unmodifiableList(Arrays.asList(variables));
+	}
+
+	@Override
+	public String toString() {
+		return template;
+	}
+}
@@ -22,6 +22,8 @@ package com.epam.reportportal.restclient.endpoint;
 
 import java.lang.reflect.Type;
 
+import com.google.common.base.Preconditions;
+
 /**
  * Base Rest request representation
  * 
@@ -39,6 +41,11 @@ public class RestCommand<RQ, RS> {
 	private String uri;
 	private ParameterizedTypeReference<RS> typeReference;
 
+	/** Template of URI. NULL if command is created with URI */
+	private ResourceTemplate template;
+
+	private Object[] values;
+
 	public RestCommand(String uri, HttpMethod method, RQ request) {
 		this.httpMethod = method;
 		this.request = request;
@@ -48,6 +55,26 @@ public class RestCommand<RQ, RS> {
 		validate();
 	}
 
+	/**
+	 * Creates command with URI expanded from template. Endpoint encodes only
+	 * values, since literal parts of template are encoded in advance
+	 * 
+	 * @param template
+	 *            - Template of URI
+	 * @param method
+	 *            - HTTP method
+	 * @param request
+	 *            - Request body
+	 * @param values
+	 *            - Values of template variables
+	 */
+	public RestCommand(ResourceTemplate template, HttpMethod method, RQ request, Object... values) {
+		this(null, method, request);
+		this.template = Preconditions.checkNotNull(template, "Template shouldn't be null");
+		template.checkValues(values);
+		this.values = values;
+	}
+
 	public HttpMethod getHttpMethod() {
 		return httpMethod;
 	}
@@ -57,9 +84,20 @@ public class RestCommand<RQ, RS> {
 	}
 
 	public String getUri() {
+		if (null == uri && null != template) {
+			uri = template.expand(values);
+		}
 		return uri;
 	}
 
+	ResourceTemplate getTemplate() {
+		return template;
+	}
+
+	Object[] getValues() {
+		return values;
+	}
+
 	public Type getType() {
 		return typeReference.getType();
 	}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointIOException;
+import com.google.common.base.Preconditions;
+
+/**
+ * Base class for {@link RestEndpoint} decorators. All methods are funneled
+ * through {@link #execute(HttpMethod, String, Invocation)}, so subclasses add
+ * their behavior (retries, throttling, etc) in one place
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public abstract class RestEndpointDecorator implements StreamingRestEndpoint {
+
+	/** Decorated endpoint */
+	protected final RestEndpoint delegate;
+
+	protected RestEndpointDecorator(RestEndpoint delegate) {
+		this.delegate = Preconditions.checkNotNull(delegate, "Delegate endpoint shouldn't be null");
+	}
+
+	/**
+	 * Executes invocation of decorated endpoint
+	 * 
+	 * @param method
+	 *            - HTTP Method of request
+	 * @param resource
+	 *            - REST resource
+	 * @param invocation
+	 *            - Invocation of decorated endpoint. May be called more than
+	 *            once
+	 * @return - Response body
+	 * @throws RestEndpointIOException
+	 */
+	protected abstract <RS> RS execute(HttpMethod method, String resource, Invocation<RS> invocation) throws RestEndpointIOException;
+
+	@Override
+	public <RQ, RS> RS post(final String resource, final RQ rq, final Class<RS> clazz) throws RestEndpointIOException {
+		return execute(HttpMethod.POST, resource, new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.post(resource, rq, clazz);
+			}
+		});
+	}
+
+	@Override
+	public <RQ, RS> RS post(final String resource, final RQ rq, final Type type) throws RestEndpointIOException {
+		return execute(HttpMethod.POST, resource, new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.post(resource, rq, type);
+			}
+		});
+	}
+
+	@Override
+	public <RQ, RS> RS post(final String resource, final MultiPartRequest<RQ> request, final Class<RS> clazz)
+			throws RestEndpointIOException {
+		return execute(HttpMethod.POST, resource, new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.post(resource, request, clazz);
+			}
+		});
+	}
+
+	@Override
+	public <RQ, RS> RS post(final String resource, final Map<String, String> parameters, final RQ rq, final Class<RS> clazz)
+			throws RestEndpointIOException {
+		return execute(HttpMethod.POST, resource, new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.post(resource, parameters, rq, clazz);
+			}
+		});
+	}
+
+	@Override
+	public <RQ, RS> RS put(final String resource, final RQ rq, final Class<RS> clazz) throws RestEndpointIOException {
+		return execute(HttpMethod.PUT, resource, new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.put(resource, rq, clazz);
+			}
+		});
+	}
+
+	@Override
+	public <RQ, RS> RS put(final String resource, final RQ rq, final Type type) throws RestEndpointIOException {
+		return execute(HttpMethod.PUT, resource, new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.put(resource, rq, type);
+			}
+		});
+	}
+
+	@Override
+	public <RS> RS delete(final String resource, final Class<RS> clazz) throws RestEndpointIOException {
+		return execute(HttpMethod.DELETE, resource, new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.delete(resource, clazz);
+			}
+		});
+	}
+
+	@Override
+	public <RS> RS get(final String resource, final Class<RS> clazz) throws RestEndpointIOException {
+		return execute(HttpMethod.GET, resource, new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.get(resource, clazz);
+			}
+		});
+	}
+
+	@Override
+	public <RS> RS get(final String resource, final Type type) throws RestEndpointIOException {
+		return execute(HttpMethod.GET, resource, new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.get(resource, type);
+			}
+		});
+	}
+
+	@Override
+	public <RS> RS get(final String resource, final Map<String, String> parameters, final Class<RS> clazz) throws RestEndpointIOException {
+		return execute(HttpMethod.GET, resource, new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.get(resource, parameters, clazz);
+			}
+		});
+	}
+
+	@Override
+	public <RS> RS get(final String resource, final Map<String, String> parameters, final Type type) throws RestEndpointIOException {
+		return execute(HttpMethod.GET, resource, new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.get(resource, parameters, type);
+			}
+		});
+	}
+
+	/**
+	 * Streams elements of iterator opened via {@link #iterate(String, Map, String, Type)},
+	 * so only opening of response is decorated and elements are never passed
+	 * twice
+	 */
+	@Override
+	public <RS> long stream(String resource, Map<String, String> parameters, String arrayField, Type elementType,
+			ElementCallback<RS> callback) throws RestEndpointIOException {
+		return IOUtils.forEach(this.<RS> iterate(resource, parameters, arrayField, elementType), callback);
+	}
+
+	@Override
+	public <RS> CloseableIterator<RS> iterate(final String resource, final Map<String, String> parameters, final String arrayField,
+			final Type elementType) throws RestEndpointIOException {
+		return execute(HttpMethod.GET, resource, new Invocation<CloseableIterator<RS>>() {
+			@Override
+			public CloseableIterator<RS> invoke() throws RestEndpointIOException {
+				return streamingDelegate().<RS> iterate(resource, parameters, arrayField, elementType);
+			}
+		});
+	}
+
+	@Override
+	public <RQ, RS> RS executeRequest(final RestCommand<RQ, RS> command) throws RestEndpointIOException {
+		return execute(command.getHttpMethod(), command.getUri(), new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.executeRequest(command);
+			}
+		});
+	}
+
+	/**
+	 * @return Decorated endpoint able to stream collections
+	 * @throws UnsupportedOperationException
+	 *             if decorated endpoint doesn't support streaming
+	 */
+	protected StreamingRestEndpoint streamingDelegate() {
+		if (!(delegate instanceof StreamingRestEndpoint)) {
+			throw new UnsupportedOperationException("Decorated endpoint " + delegate.getClass().getName() + " doesn't support streaming");
+		}
+		return (StreamingRestEndpoint) delegate;
+	}
+
+	/**
+	 * Invocation of decorated endpoint
+	 * 
+	 * @param <RS>
+	 *            - Type of response
+	 */
+	protected interface Invocation<RS> {
+		RS invoke() throws RestEndpointIOException;
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointException;
+import com.epam.reportportal.restclient.endpoint.exception.SerializerException;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Retry policy used by {@link RetryingRestEndpoint}. Defines which requests
+ * may be retried and how long to wait between attempts. Use
+ * {@link RetryPolicy.Builder} to create instances. All durations are in
+ * milliseconds<br>
+ * By default only idempotent methods (GET, PUT, DELETE) are retried on I/O
+ * errors and on 429, 502, 503, 504 responses
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class RetryPolicy {
+
+	/** Default policy */
+	public static final RetryPolicy DEFAULT = new Builder().build();
+
+	/** Max number of attempts including the first one */
+	private final int maxAttempts;
+
+	/** Backoff before the first retry */
+	private final long initialBackoff;
+
+	/** Max backoff between attempts. Caps Retry-After as well */
+	private final long maxBackoff;
+
+	/** Backoff multiplier */
+	private final double multiplier;
+
+	/**
+	 * Jitter factor in range [0, 1]. Actual backoff is picked randomly
+	 * between (1 - jitter) * backoff and backoff
+	 */
+	private final double jitter;
+
+	/** HTTP methods allowed to be retried */
+	private final Set<HttpMethod> methods;
+
+	/** HTTP status codes allowed to be retried */
+	private final Set<Integer> statusCodes;
+
+	/** Whether I/O errors (connection reset, timeouts, etc) are retried */
+	private final boolean retryOnIOError;
+
+	private RetryPolicy(Builder builder) {
+		this.maxAttempts = builder.maxAttempts;
+		this.initialBackoff = builder.initialBackoff;
+		this.maxBackoff = builder.maxBackoff;
+		this.multiplier = builder.multiplier;
+		this.jitter = builder.jitter;
+		this.methods = ImmutableSet.copyOf(builder.methods);
+		this.statusCodes = ImmutableSet.copyOf(builder.statusCodes);
+		this.retryOnIOError = builder.retryOnIOError;
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	public Set<HttpMethod> getMethods() {
+		return methods;
+	}
+
+	public Set<Integer> getStatusCodes() {
+		return statusCodes;
+	}
+
+	/**
+	 * Checks whether failed request may be retried
+	 * 
+	 * @param method
+	 *            - HTTP method of request
+	 * @param e
+	 *            - Failure
+	 * @return TRUE if request may be retried
+	 */
+	public boolean isRetryable(HttpMethod method, Throwable e) {
+		if (!methods.contains(method)) {
+			return false;
+		}
+		if (e instanceof RestEndpointException) {
+			return statusCodes.contains(((RestEndpointException) e).getStatusCode());
+		}
+		/* serialization errors are not transient */
+		if (e instanceof SerializerException) {
+			return false;
+		}
+		return retryOnIOError && e.getCause() instanceof IOException;
+	}
+
+	/**
+	 * Calculates backoff before next attempt
+	 * 
+	 * @param attempt
+	 *            - Number of failed attempts (starting from 1)
+	 * @param retryAfter
+	 *            - Delay requested by server or -1
+	 * @return Backoff in milliseconds
+	 */
+	public long getBackoff(int attempt, long retryAfter) {
+		double backoff = Math.min(maxBackoff, initialBackoff * Math.pow(multiplier, attempt - 1));
+		long delay = (long) (backoff * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+		if (retryAfter > 0) {
+			delay = Math.max(delay, Math.min(retryAfter, maxBackoff));
+		}
+		return delay;
+	}
+
+	/**
+	 * Builder for {@link RetryPolicy}
+	 * 
+	 * @author Andrei Varabyeu
+	 * 
+	 */
+	public static class Builder {
+		private int maxAttempts = 3;
+		private long initialBackoff = 200;
+		private long maxBackoff = TimeUnit.SECONDS.toMillis(10);
+		private double multiplier = 2;
+		private double jitter = 0.5;
+		private Set<HttpMethod> methods = EnumSet.of(HttpMethod.GET, HttpMethod.PUT, HttpMethod.DELETE);
+		private Set<Integer> statusCodes = ImmutableSet.of(429, 502, 503, 504);
+		private boolean retryOnIOError = true;
+
+		public Builder maxAttempts(int maxAttempts) {
+			Preconditions.checkArgument(maxAttempts > 0, "Max attempts should be positive");
+			this.maxAttempts = maxAttempts;
+			return this;
+		}
+
+		public Builder initialBackoff(long backoff, TimeUnit unit) {
+			Preconditions.checkArgument(backoff >= 0, "Backoff should be non-negative");
+			this.initialBackoff = unit.toMillis(backoff);
+			return this;
+		}
+
+		public Builder maxBackoff(long backoff, TimeUnit unit) {
+			Preconditions.checkArgument(backoff >= 0, "Backoff should be non-negative");
+			this.maxBackoff = unit.toMillis(backoff);
+			return this;
+		}
+
+		public Builder multiplier(double multiplier) {
+			Preconditions.checkArgument(multiplier >= 1, "Multiplier should be not less than 1");
+			this.multiplier = multiplier;
+			return this;
+		}
+
+		public Builder jitter(double jitter) {
+			Preconditions.checkArgument(jitter >= 0 && jitter <= 1, "Jitter should be in range [0, 1]");
+			this.jitter = jitter;
+			return this;
+		}
+
+		/**
+		 * Overrides retryable methods. Non-idempotent methods (POST, PATCH)
+		 * should be added only if server de-duplicates requests
+		 */
+		public Builder methods(HttpMethod... methods) {
+			this.methods = EnumSet.noneOf(HttpMethod.class);
+			this.methods.addAll(Arrays.asList(methods));
+			return this;
+		}
+
+		public Builder statusCodes(Integer... statusCodes) {
+			this.statusCodes = ImmutableSet.copyOf(statusCodes);
+			return this;
+		}
+
+		public Builder retryOnIOError(boolean retry) {
+			this.retryOnIOError = retry;
+			return this;
+		}
+
+		public RetryPolicy build() {
+			Preconditions.checkArgument(maxBackoff >= initialBackoff, "Max backoff should be not less than initial");
+			return new RetryPolicy(this);
+		}
+	}
+}
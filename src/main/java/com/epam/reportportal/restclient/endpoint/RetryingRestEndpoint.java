@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.util.concurrent.TimeUnit;
+
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointException;
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointIOException;
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link RestEndpoint} decorator retrying failed requests according to
+ * {@link RetryPolicy}. Waits between attempts with exponential backoff and
+ * jitter, so clients failed at the same time do not reconnect at the same
+ * time. Retry-After header of response takes precedence over calculated
+ * backoff<br>
+ * Request bodies are replayable: each attempt serializes request (or re-opens
+ * binary part's source) again
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class RetryingRestEndpoint extends RestEndpointDecorator {
+
+	private final RetryPolicy policy;
+
+	public RetryingRestEndpoint(RestEndpoint delegate) {
+		this(delegate, RetryPolicy.DEFAULT);
+	}
+
+	public RetryingRestEndpoint(RestEndpoint delegate, RetryPolicy policy) {
+		super(delegate);
+		this.policy = Preconditions.checkNotNull(policy, "Retry policy shouldn't be null");
+	}
+
+	@Override
+	protected <RS> RS execute(HttpMethod method, String resource, Invocation<RS> invocation) throws RestEndpointIOException {
+		int attempt = 1;
+		while (true) {
+			try {
+				return invocation.invoke();
+			} catch (RestEndpointException e) {
+				backoff(method, attempt, e, e.getRetryAfter());
+			} catch (RestEndpointIOException e) {
+				backoff(method, attempt, e, -1);
+			}
+			attempt++;
+		}
+	}
+
+	/**
+	 * Rethrows failure if request cannot be retried, otherwise sleeps until
+	 * next attempt
+	 */
+	private <E extends Exception> void backoff(HttpMethod method, int attempt, E e, long retryAfter) throws E {
+		if (attempt >= policy.getMaxAttempts() || !policy.isRetryable(method, e)) {
+			throw e;
+		}
+		try {
+			TimeUnit.MILLISECONDS.sleep(policy.getBackoff(attempt, retryAfter));
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.epam.reportportal.apache.http.entity.AbstractHttpEntity;
+
+/**
+ * HTTP Entity writing body via {@link Serializer} directly into connection
+ * output stream. Body is serialized on demand, so there is no intermediate
+ * buffer and entity can be written more than once (e.g. on retries). Since
+ * length is unknown before serialization, entity is sent in chunked mode
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+class SerializedEntity extends AbstractHttpEntity {
+
+	private final Serializer serializer;
+
+	private final Object body;
+
+	SerializedEntity(Serializer serializer, Object body) {
+		this.serializer = serializer;
+		this.body = body;
+		setContentType(serializer.getMimeType());
+		setChunked(true);
+	}
+
+	@Override
+	public boolean isRepeatable() {
+		return true;
+	}
+
+	@Override
+	public long getContentLength() {
+		return -1;
+	}
+
+	@Override
+	public InputStream getContent() throws IOException {
+		return serializer.serialize(body);
+	}
+
+	@Override
+	public void writeTo(OutputStream outstream) throws IOException {
+		SerializerRegistry.serialize(serializer, body, outstream);
+		outstream.flush();
+	}
+
+	@Override
+	public boolean isStreaming() {
+		return false;
+	}
+
+}
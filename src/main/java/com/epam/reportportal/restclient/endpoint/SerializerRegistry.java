@@ -0,0 +1,306 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.epam.reportportal.restclient.endpoint.exception.SerializerException;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+import com.google.common.net.MediaType;
+
+/**
+ * Registry of {@link Serializer}s. Caches serializer chosen for request class
+ * and for response content type, so after warm-up selection is a single map
+ * lookup instead of iteration over all serializers.<br>
+ * Serializers are checked in order they are registered. Decision for request
+ * is cached per class of object, so {@link Serializer#canWrite(Object)} is
+ * expected to depend on object's class only<br>
+ * Serializers rejected by server (see {@link #reject(Serializer, Object)})
+ * are no longer used for writing, but still used for reading
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class SerializerRegistry {
+
+	/** Max count of cached content types */
+	private static final int MAX_CACHED_CONTENT_TYPES = 256;
+
+	private final List<Serializer> serializers;
+
+	/** Serializers per class of request */
+	private final ConcurrentMap<Class<?>, Serializer> writers;
+
+	/** Serializers per normalized content type of response */
+	private final ConcurrentMap<String, Serializer> readers;
+
+	/** Serializers which content is not accepted by server */
+	private final Set<Serializer> rejected;
+
+	public SerializerRegistry(List<Serializer> serializers) {
+		this.serializers = ImmutableList.copyOf(Preconditions.checkNotNull(serializers, "Serializers shouldn't be null"));
+		this.writers = new ConcurrentHashMap<Class<?>, Serializer>();
+		this.readers = new ConcurrentHashMap<String, Serializer>();
+		this.rejected = Collections.newSetFromMap(new ConcurrentHashMap<Serializer, Boolean>());
+	}
+
+	/**
+	 * Returns all registered serializers
+	 * 
+	 * @return
+	 */
+	public List<Serializer> getSerializers() {
+		return serializers;
+	}
+
+	/**
+	 * Finds serializer able to write provided object
+	 * 
+	 * @param o
+	 *            - Object to be serialized
+	 * @return
+	 * @throws SerializerException
+	 *             if there is no such serializer
+	 */
+	public Serializer getWriter(Object o) throws SerializerException {
+		Class<?> clazz = o.getClass();
+		Serializer serializer = writers.get(clazz);
+		if (null == serializer) {
+			for (Serializer s : serializers) {
+				if (!rejected.contains(s) && s.canWrite(o)) {
+					serializer = s;
+					break;
+				}
+			}
+			if (null == serializer) {
+				throw new SerializerException("Unable to find serializer for object with type '" + clazz + "'");
+			}
+			writers.putIfAbsent(clazz, serializer);
+		}
+		return serializer;
+	}
+
+	/**
+	 * Finds serializer able to read content of provided type. Serializers are
+	 * cached by raw header value (servers usually send the same string, so
+	 * lookup doesn't allocate) and by normalized content type
+	 * 
+	 * @param contentType
+	 *            - Content Type (MIME type) of response
+	 * @return
+	 * @throws SerializerException
+	 *             if there is no such serializer
+	 */
+	public Serializer getReader(String contentType) throws SerializerException {
+		Serializer serializer = readers.get(contentType);
+		if (null != serializer) {
+			return serializer;
+		}
+		String normalized = contentType.trim().toLowerCase(Locale.US);
+		serializer = readers.get(normalized);
+		if (null == serializer) {
+			for (Serializer s : serializers) {
+				if (s.canRead(contentType)) {
+					serializer = s;
+					break;
+				}
+			}
+			if (null == serializer) {
+				throw new SerializerException("Unsupported media type '" + contentType);
+			}
+			/* content types may contain arbitrary parameters, so cache is bounded */
+			if (readers.size() < MAX_CACHED_CONTENT_TYPES) {
+				readers.putIfAbsent(normalized, serializer);
+			}
+		}
+		if (!normalized.equals(contentType) && readers.size() < MAX_CACHED_CONTENT_TYPES) {
+			readers.putIfAbsent(contentType, serializer);
+		}
+		return serializer;
+	}
+
+	/**
+	 * Builds value of <code>Accept</code> header listing MIME types of
+	 * registered serializers. Serializers registered first are preferred
+	 * 
+	 * @return
+	 */
+	public String getAcceptHeader() {
+		Set<String> mimeTypes = new LinkedHashSet<String>();
+		for (Serializer s : serializers) {
+			mimeTypes.add(MediaType.parse(s.getMimeType()).withoutParameters().toString());
+		}
+		StringBuilder accept = new StringBuilder();
+		int quality = 10;
+		for (String mimeType : mimeTypes) {
+			if (accept.length() > 0) {
+				accept.append(", ");
+			}
+			accept.append(mimeType);
+			if (quality < 10) {
+				accept.append(";q=0.").append(quality);
+			}
+			quality = Math.max(1, quality - 1);
+		}
+		return accept.toString();
+	}
+
+	/**
+	 * Marks serializer as not accepted by server, so objects it has written
+	 * are written by the next suitable serializer. Serializer is rejected only
+	 * if there is another one able to write provided object
+	 * 
+	 * @param writer
+	 *            - Serializer content of which has been rejected by server
+	 * @param o
+	 *            - Rejected object
+	 * @return TRUE if serializer has been rejected and object may be written
+	 *         by another serializer
+	 */
+	public boolean reject(Serializer writer, Object o) {
+		if (rejected.contains(writer)) {
+			return false;
+		}
+		for (Serializer s : serializers) {
+			if (s != writer && !rejected.contains(s) && s.canWrite(o)) {
+				rejected.add(writer);
+				writers.clear();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Rejects serializers preferred over the reader of provided content type
+	 * which are unable to read it. Server answering with content type less
+	 * preferred in <code>Accept</code> header (see {@link #getAcceptHeader()})
+	 * is supposed not to support more preferred ones
+	 * 
+	 * @param contentType
+	 *            - Content Type (MIME type) of response
+	 * @return TRUE if at least one serializer has been rejected
+	 * @throws SerializerException
+	 *             if there is no serializer for provided content type
+	 */
+	public boolean rejectPreferred(String contentType) throws SerializerException {
+		Serializer reader = getReader(contentType);
+		boolean changed = false;
+		for (Serializer s : serializers) {
+			if (s == reader) {
+				break;
+			}
+			if (!rejected.contains(s) && !s.canRead(contentType)) {
+				rejected.add(s);
+				changed = true;
+			}
+		}
+		if (changed) {
+			writers.clear();
+		}
+		return changed;
+	}
+
+	/**
+	 * Serializes message directly into output stream. Serializers not
+	 * implementing {@link StreamSerializer} serialize message into byte array
+	 * first
+	 * 
+	 * @param serializer
+	 *            - Serializer of message
+	 * @param t
+	 *            - Message to be serialized
+	 * @param os
+	 *            - Target output stream. Not closed
+	 * @throws SerializerException
+	 */
+	static <T> void serialize(Serializer serializer, T t, OutputStream os) throws SerializerException {
+		if (serializer instanceof StreamSerializer) {
+			((StreamSerializer) serializer).serialize(t, os);
+			return;
+		}
+		try {
+			ByteStreams.copy(serializer.serialize(t), os);
+		} catch (IOException e) {
+			throw new SerializerException("Unable to write serialized object", e);
+		}
+	}
+
+	/**
+	 * Deserializes message directly from input stream. Serializers not
+	 * implementing {@link StreamSerializer} read the whole stream into byte
+	 * array first
+	 * 
+	 * @param serializer
+	 *            - Serializer of message
+	 * @param content
+	 *            - Message content. Not closed
+	 * @param clazz
+	 *            - Type of message
+	 * @throws SerializerException
+	 */
+	static <T> T deserialize(Serializer serializer, InputStream content, Class<T> clazz) throws SerializerException {
+		if (serializer instanceof StreamSerializer) {
+			return ((StreamSerializer) serializer).deserialize(content, clazz);
+		}
+		return serializer.deserialize(toByteArray(content), clazz);
+	}
+
+	/**
+	 * Deserializes message directly from input stream. Serializers not
+	 * implementing {@link StreamSerializer} read the whole stream into byte
+	 * array first
+	 * 
+	 * @param serializer
+	 *            - Serializer of message
+	 * @param content
+	 *            - Message content. Not closed
+	 * @param type
+	 *            - Type of message
+	 * @throws SerializerException
+	 */
+	static <T> T deserialize(Serializer serializer, InputStream content, Type type) throws SerializerException {
+		if (serializer instanceof StreamSerializer) {
+			return ((StreamSerializer) serializer).deserialize(content, type);
+		}
+		return serializer.deserialize(toByteArray(content), type);
+	}
+
+	private static byte[] toByteArray(InputStream content) throws SerializerException {
+		try {
+			return ByteStreams.toByteArray(content);
+		} catch (IOException e) {
+			throw new SerializerException("Unable to read serialized object", e);
+		}
+	}
+}
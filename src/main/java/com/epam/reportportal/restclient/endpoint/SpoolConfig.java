@@ -0,0 +1,113 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Configuration of {@link SpoolingRestEndpoint}. Use
+ * {@link SpoolConfig.Builder} to create instances. Max disk usage of spool is
+ * segment size multiplied by max count of segments
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class SpoolConfig {
+
+	/** Directory segment files are stored in */
+	private final File directory;
+
+	/** Size of segment file in bytes. Limits size of spooled request */
+	private final int segmentSize;
+
+	/** Max count of segment files */
+	private final int maxSegments;
+
+	/** Interval (milliseconds) of attempts to drain spool */
+	private final long drainInterval;
+
+	private SpoolConfig(Builder builder) {
+		this.directory = builder.directory;
+		this.segmentSize = builder.segmentSize;
+		this.maxSegments = builder.maxSegments;
+		this.drainInterval = builder.drainInterval;
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	public int getSegmentSize() {
+		return segmentSize;
+	}
+
+	public int getMaxSegments() {
+		return maxSegments;
+	}
+
+	public long getDrainInterval() {
+		return drainInterval;
+	}
+
+	/**
+	 * Builder for {@link SpoolConfig}
+	 * 
+	 * @author Andrei Varabyeu
+	 * 
+	 */
+	public static class Builder {
+		private File directory;
+		private int segmentSize = 4 * 1024 * 1024;
+		private int maxSegments = 16;
+		private long drainInterval = TimeUnit.SECONDS.toMillis(1);
+
+		public Builder directory(File directory) {
+			this.directory = directory;
+			return this;
+		}
+
+		public Builder segmentSize(int segmentSize) {
+			Preconditions.checkArgument(segmentSize > SpoolSegment.HEADER_SIZE, "Segment size is too small");
+			this.segmentSize = segmentSize;
+			return this;
+		}
+
+		public Builder maxSegments(int maxSegments) {
+			Preconditions.checkArgument(maxSegments > 0, "Max segments should be positive");
+			this.maxSegments = maxSegments;
+			return this;
+		}
+
+		public Builder drainInterval(long interval, TimeUnit unit) {
+			Preconditions.checkArgument(interval > 0, "Drain interval should be positive");
+			this.drainInterval = unit.toMillis(interval);
+			return this;
+		}
+
+		public SpoolConfig build() {
+			Preconditions.checkNotNull(directory, "Spool directory should be specified");
+			return new SpoolConfig(this);
+		}
+	}
+}
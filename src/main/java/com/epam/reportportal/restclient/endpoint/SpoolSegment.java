@@ -0,0 +1,244 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped segment file of {@link RequestSpool}. Contains sequence of
+ * records: <br>
+ * <code>[int length][int crc32][byte status][payload]</code><br>
+ * Length is written last, so record becomes visible only once it's fully
+ * written. Zero length marks end of segment. Delivered records are marked in
+ * place via status byte, so position of reader survives restarts<br>
+ * Writes go to page cache and survive crash of the process. Segment is
+ * flushed to disk only via {@link #force()} and on {@link #close()}, see
+ * {@link RequestSpool} for the policy. Closed segment is unmapped and shouldn't
+ * be used anymore<br>
+ * Not thread-safe
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+class SpoolSegment implements Closeable {
+
+	/** Size of record header */
+	static final int HEADER_SIZE = 9;
+
+	private static final byte PENDING = 1;
+
+	private static final byte DELIVERED = 2;
+
+	private final File file;
+
+	private final MappedByteBuffer buffer;
+
+	/** Position of first not delivered record */
+	private int readPosition;
+
+	/** Position next record is written at */
+	private int writePosition;
+
+	private SpoolSegment(File file, MappedByteBuffer buffer) {
+		this.file = file;
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Opens (or creates) segment file and restores positions of reader and
+	 * writer
+	 * 
+	 * @param file
+	 *            - Segment file
+	 * @param size
+	 *            - Size of segment. Existing files are never truncated
+	 * @return Segment
+	 * @throws IOException
+	 */
+	static SpoolSegment open(File file, int size) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			if (raf.length() < size) {
+				raf.setLength(size);
+			}
+			/* mapping remains valid once channel is closed */
+			SpoolSegment segment = new SpoolSegment(file, raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length()));
+			segment.recover();
+			return segment;
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Appends record
+	 * 
+	 * @param payload
+	 *            - Record payload
+	 * @return FALSE if there is no room for record
+	 */
+	boolean append(byte[] payload) {
+		if (writePosition + HEADER_SIZE + payload.length > buffer.capacity()) {
+			return false;
+		}
+		ByteBuffer data = buffer.duplicate();
+		data.position(writePosition + HEADER_SIZE);
+		data.put(payload);
+		buffer.putInt(writePosition + 4, crc(payload));
+		buffer.put(writePosition + 8, PENDING);
+		buffer.putInt(writePosition, payload.length);
+		writePosition += HEADER_SIZE + payload.length;
+		return true;
+	}
+
+	/**
+	 * @return Payload of first not delivered record or NULL if all records
+	 *         have been delivered
+	 */
+	byte[] peek() {
+		if (isDrained()) {
+			return null;
+		}
+		byte[] payload = new byte[buffer.getInt(readPosition)];
+		ByteBuffer data = buffer.duplicate();
+		data.position(readPosition + HEADER_SIZE);
+		data.get(payload);
+		return payload;
+	}
+
+	/**
+	 * Marks first not delivered record as delivered
+	 */
+	void markDelivered() {
+		if (!isDrained()) {
+			buffer.put(readPosition + 8, DELIVERED);
+			readPosition += HEADER_SIZE + buffer.getInt(readPosition);
+		}
+	}
+
+	boolean isDrained() {
+		return readPosition >= writePosition;
+	}
+
+	File getFile() {
+		return file;
+	}
+
+	/**
+	 * Flushes segment to disk
+	 */
+	void force() {
+		buffer.force();
+	}
+
+	/**
+	 * Flushes segment to disk and unmaps it, so file may be deleted
+	 */
+	@Override
+	public void close() {
+		buffer.force();
+		unmap(buffer);
+	}
+
+	/**
+	 * Scans records validating checksums. Torn record (e.g. after OS crash)
+	 * and everything after it is discarded
+	 */
+	private void recover() {
+		int position = 0;
+		readPosition = -1;
+		while (position + HEADER_SIZE <= buffer.capacity()) {
+			int length = buffer.getInt(position);
+			if (length <= 0 || !isValid(position, length)) {
+				break;
+			}
+			if (readPosition < 0 && DELIVERED != buffer.get(position + 8)) {
+				readPosition = position;
+			}
+			position += HEADER_SIZE + length;
+		}
+		writePosition = position;
+		if (readPosition < 0) {
+			readPosition = writePosition;
+		}
+		if (writePosition + 4 <= buffer.capacity() && 0 != buffer.getInt(writePosition)) {
+			for (int i = writePosition; i < buffer.capacity(); i++) {
+				buffer.put(i, (byte) 0);
+			}
+		}
+	}
+
+	private boolean isValid(int position, int length) {
+		if (position + HEADER_SIZE + length > buffer.capacity()) {
+			return false;
+		}
+		byte status = buffer.get(position + 8);
+		if (PENDING != status && DELIVERED != status) {
+			return false;
+		}
+		byte[] payload = new byte[length];
+		ByteBuffer data = buffer.duplicate();
+		data.position(position + HEADER_SIZE);
+		data.get(payload);
+		return crc(payload) == buffer.getInt(position + 4);
+	}
+
+	private static int crc(byte[] payload) {
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * Releases mapping without waiting for GC. Mapping is left to GC if
+	 * platform doesn't allow to release it explicitly
+	 */
+	private static void unmap(MappedByteBuffer buffer) {
+		try {
+			try {
+				/* Java 9+ */
+				Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+				Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+				theUnsafe.setAccessible(true);
+				unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(theUnsafe.get(null), buffer);
+			} catch (NoSuchMethodException e) {
+				/* Java 7-8 */
+				Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+				cleanerMethod.setAccessible(true);
+				Object cleaner = cleanerMethod.invoke(buffer);
+				if (null != cleaner) {
+					cleaner.getClass().getMethod("clean").invoke(cleaner);
+				}
+			}
+		} catch (Exception e) {
+			/* left to GC */
+		}
+	}
+}
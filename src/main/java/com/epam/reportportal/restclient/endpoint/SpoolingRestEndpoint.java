@@ -0,0 +1,367 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.epam.reportportal.restclient.endpoint.exception.CircuitBreakerOpenException;
+import com.epam.reportportal.restclient.endpoint.exception.RequestSpooledException;
+import com.epam.reportportal.restclient.endpoint.exception.RequestThrottledException;
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointException;
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointIOException;
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointServerException;
+import com.epam.reportportal.restclient.endpoint.exception.SerializerException;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * {@link RestEndpoint} decorator with disk-backed write-ahead spool. POST,
+ * PUT and PATCH requests failed because server is unavailable (I/O errors,
+ * server errors, open circuit breaker) are appended to the spool and
+ * {@link RequestSpooledException} is thrown. While spool isn't empty new
+ * requests are spooled as well, so requests are replayed in order they've
+ * been submitted<br>
+ * Background drainer replays spooled requests once server is available.
+ * Requests rejected by server on replay (e.g. client errors) are dropped, see
+ * {@link #getDropped()}. Delivery is at-least-once: request replayed right
+ * before crash may be replayed once more on restart<br>
+ * Request bodies are stored serialized with provided serializer along with
+ * class name and deserialized back on replay. Query parameters are stored as
+ * is. Multipart requests are not spooled since their parts may reference
+ * files which aren't guaranteed to exist on replay. Instead they fail with
+ * {@link RestEndpointIOException} while spool isn't empty, so they never
+ * overtake spooled requests
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class SpoolingRestEndpoint extends RestEndpointDecorator implements Closeable {
+
+	private final Serializer serializer;
+
+	private final RequestSpool spool;
+
+	private final ScheduledExecutorService drainer;
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	/**
+	 * Creates endpoint and recovers requests spooled before restart
+	 * 
+	 * @param delegate
+	 *            - Decorated endpoint
+	 * @param serializer
+	 *            - Serializer of request bodies
+	 * @param config
+	 *            - Spool configuration
+	 * @throws RestEndpointIOException
+	 *             if spool cannot be opened
+	 */
+	public SpoolingRestEndpoint(RestEndpoint delegate, Serializer serializer, SpoolConfig config) throws RestEndpointIOException {
+		super(delegate);
+		this.serializer = Preconditions.checkNotNull(serializer, "Serializer shouldn't be null");
+		try {
+			this.spool = new RequestSpool(config.getDirectory(), config.getSegmentSize(), config.getMaxSegments());
+		} catch (IOException e) {
+			throw new RestEndpointIOException("Unable to open spool in '" + config.getDirectory() + "'", e);
+		}
+		this.drainer = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+				.setNameFormat("rest-endpoint-spool-drainer").build());
+		this.drainer.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				drain();
+			}
+		}, config.getDrainInterval(), config.getDrainInterval(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @return Count of spooled requests dropped because server rejected them
+	 *         on replay
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	@Override
+	public <RQ, RS> RS post(final String resource, final RQ rq, final Class<RS> clazz) throws RestEndpointIOException {
+		return spooled(HttpMethod.POST, resource, rq, new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.post(resource, rq, clazz);
+			}
+		});
+	}
+
+	@Override
+	public <RQ, RS> RS post(final String resource, final RQ rq, final Type type) throws RestEndpointIOException {
+		return spooled(HttpMethod.POST, resource, rq, new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.post(resource, rq, type);
+			}
+		});
+	}
+
+	@Override
+	public <RQ, RS> RS post(final String resource, final Map<String, String> parameters, final RQ rq, final Class<RS> clazz)
+			throws RestEndpointIOException {
+		return spooled(HttpMethod.POST, resource, parameters, rq, new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.post(resource, parameters, rq, clazz);
+			}
+		});
+	}
+
+	/**
+	 * Multipart requests aren't spooled. Fails while spool isn't empty to keep
+	 * order of requests
+	 */
+	@Override
+	public <RQ, RS> RS post(String resource, MultiPartRequest<RQ> request, Class<RS> clazz) throws RestEndpointIOException {
+		if (!spool.isEmpty()) {
+			throw new RestEndpointIOException("Multipart request " + HttpMethod.POST + " " + resource
+					+ " cannot be sent before spooled requests are replayed");
+		}
+		return delegate.post(resource, request, clazz);
+	}
+
+	@Override
+	public <RQ, RS> RS put(final String resource, final RQ rq, final Class<RS> clazz) throws RestEndpointIOException {
+		return spooled(HttpMethod.PUT, resource, rq, new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.put(resource, rq, clazz);
+			}
+		});
+	}
+
+	@Override
+	public <RQ, RS> RS put(final String resource, final RQ rq, final Type type) throws RestEndpointIOException {
+		return spooled(HttpMethod.PUT, resource, rq, new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.put(resource, rq, type);
+			}
+		});
+	}
+
+	@Override
+	public <RQ, RS> RS executeRequest(final RestCommand<RQ, RS> command) throws RestEndpointIOException {
+		Invocation<RS> invocation = new Invocation<RS>() {
+			@Override
+			public RS invoke() throws RestEndpointIOException {
+				return delegate.executeRequest(command);
+			}
+		};
+		switch (command.getHttpMethod()) {
+		case POST:
+		case PUT:
+		case PATCH:
+			return spooled(command.getHttpMethod(), command.getUri(), command.getRequest(), invocation);
+		default:
+			return invocation.invoke();
+		}
+	}
+
+	@Override
+	protected <RS> RS execute(HttpMethod method, String resource, Invocation<RS> invocation) throws RestEndpointIOException {
+		return invocation.invoke();
+	}
+
+	/**
+	 * Stops drainer and flushes spool to disk. Not replayed requests are
+	 * recovered on next start
+	 */
+	@Override
+	public void close() {
+		drainer.shutdown();
+		try {
+			drainer.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		spool.close();
+	}
+
+	/**
+	 * Replays spooled requests until spool is empty or server is unavailable
+	 */
+	@VisibleForTesting
+	void drain() {
+		byte[] record;
+		while (!Thread.currentThread().isInterrupted() && null != (record = spool.peek())) {
+			if (!replay(record)) {
+				return;
+			}
+			spool.remove();
+		}
+	}
+
+	private <RS> RS spooled(HttpMethod method, String resource, Object body, Invocation<RS> invocation) throws RestEndpointIOException {
+		return spooled(method, resource, Collections.<String, String> emptyMap(), body, invocation);
+	}
+
+	private <RS> RS spooled(HttpMethod method, String resource, Map<String, String> parameters, Object body, Invocation<RS> invocation)
+			throws RestEndpointIOException {
+		if (!spool.isEmpty()) {
+			if (!append(method, resource, parameters, body)) {
+				throw new RestEndpointIOException("Unable to spool request " + method + " " + resource + ". Spool is full");
+			}
+			throw new RequestSpooledException("Request " + method + " " + resource + " is queued behind spooled requests");
+		}
+		try {
+			return invocation.invoke();
+		} catch (RestEndpointException e) {
+			if (!isUnavailable(e) || !append(method, resource, parameters, body)) {
+				throw e;
+			}
+			throw new RequestSpooledException("Request " + method + " " + resource + " is spooled", e);
+		} catch (RestEndpointIOException e) {
+			if (!isUnavailable(e) || !append(method, resource, parameters, body)) {
+				throw e;
+			}
+			throw new RequestSpooledException("Request " + method + " " + resource + " is spooled", e);
+		}
+	}
+
+	private boolean append(HttpMethod method, String resource, Map<String, String> parameters, Object body)
+			throws RestEndpointIOException {
+		ByteArrayOutputStream record = new ByteArrayOutputStream();
+		try {
+			DataOutputStream os = new DataOutputStream(record);
+			os.writeUTF(method.name());
+			os.writeUTF(resource);
+			os.writeInt(null == parameters ? 0 : parameters.size());
+			if (null != parameters) {
+				for (Entry<String, String> parameter : parameters.entrySet()) {
+					os.writeUTF(parameter.getKey());
+					os.writeBoolean(null != parameter.getValue());
+					if (null != parameter.getValue()) {
+						os.writeUTF(parameter.getValue());
+					}
+				}
+			}
+			os.writeUTF(null == body ? "" : body.getClass().getName());
+			if (null != body) {
+				SerializerRegistry.serialize(serializer, body, os);
+			}
+			os.flush();
+			return spool.append(record.toByteArray());
+		} catch (SerializerException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new RestEndpointIOException("Unable to spool request " + method + " " + resource, e);
+		}
+	}
+
+	/**
+	 * @return FALSE if server is still unavailable and record should be
+	 *         replayed later
+	 */
+	private boolean replay(byte[] record) {
+		Invocation<Object> invocation;
+		try {
+			DataInputStream is = new DataInputStream(new ByteArrayInputStream(record));
+			HttpMethod method = HttpMethod.valueOf(is.readUTF());
+			String resource = is.readUTF();
+			int parametersCount = is.readInt();
+			Map<String, String> parameters = new LinkedHashMap<String, String>(parametersCount);
+			for (int i = 0; i < parametersCount; i++) {
+				String name = is.readUTF();
+				parameters.put(name, is.readBoolean() ? is.readUTF() : null);
+			}
+			String bodyClass = is.readUTF();
+			Object body = bodyClass.isEmpty() ? null : serializer.deserialize(ByteStreams.toByteArray(is), Class.forName(bodyClass));
+			invocation = replayed(method, resource, parameters, body);
+		} catch (Exception e) {
+			/* record cannot be restored (e.g. class has gone after restart) */
+			dropped.incrementAndGet();
+			return true;
+		}
+
+		try {
+			invocation.invoke();
+			return true;
+		} catch (SerializerException e) {
+			/* response cannot be parsed, but request has been delivered */
+			return true;
+		} catch (RestEndpointException e) {
+			if (isUnavailable(e)) {
+				return false;
+			}
+			dropped.incrementAndGet();
+			return true;
+		} catch (RestEndpointIOException e) {
+			if (isUnavailable(e)) {
+				return false;
+			}
+			dropped.incrementAndGet();
+			return true;
+		}
+	}
+
+	/**
+	 * Only POST requests are spooled with parameters
+	 */
+	private Invocation<Object> replayed(HttpMethod method, final String resource, final Map<String, String> parameters, final Object body) {
+		if (!parameters.isEmpty()) {
+			return new Invocation<Object>() {
+				@Override
+				public Object invoke() throws RestEndpointIOException {
+					return delegate.post(resource, parameters, body, Object.class);
+				}
+			};
+		}
+		final RestCommand<Object, Object> command = new RestCommand<Object, Object>(resource, method, body);
+		return new Invocation<Object>() {
+			@Override
+			public Object invoke() throws RestEndpointIOException {
+				return delegate.executeRequest(command);
+			}
+		};
+	}
+
+	private static boolean isUnavailable(RestEndpointException e) {
+		return e instanceof RestEndpointServerException || 429 == e.getStatusCode();
+	}
+
+	private static boolean isUnavailable(RestEndpointIOException e) {
+		return e instanceof CircuitBreakerOpenException || e instanceof RequestThrottledException || e.getCause() instanceof IOException;
+	}
+}
@@ -29,10 +29,11 @@ import javax.net.ssl.SSLContext;
 import com.epam.reportportal.apache.http.HttpRequestInterceptor;
 import com.epam.reportportal.apache.http.auth.Credentials;
 import com.epam.reportportal.apache.http.client.HttpClient;
+import com.epam.reportportal.apache.http.conn.socket.LayeredConnectionSocketFactory;
 import com.epam.reportportal.apache.http.conn.ssl.AllowAllHostnameVerifier;
 import com.epam.reportportal.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import com.epam.reportportal.apache.http.conn.ssl.SSLContexts;
-import com.epam.reportportal.apache.http.impl.client.HttpClientBuilder;
+import com.epam.reportportal.apache.http.impl.nio.client.HttpAsyncClientBuilder;
 
 /**
  * SSL Client Factory. Can be customized via {@link HttpRequestInterceptor}
@@ -65,10 +66,27 @@ public class SslClientFactory extends AuthClientFactory implements HttpClientFac
 		this.keyStore = loadKeyStore(keyStore, keyStorePass);
 	}
 
+	public SslClientFactory(Credentials credentials, InputStream keyStore, String keyStorePass, List<HttpRequestInterceptor> interceptors,
+			ConnectionPoolConfig poolConfig) {
+		super(credentials, interceptors, poolConfig);
+		this.keyStore = loadKeyStore(keyStore, keyStorePass);
+	}
+
 	@Override
 	public HttpClient createHttpClient() {
 		try {
+			return initDefaultBuilder().build();
+		} catch (Exception e) {
+			throw new RuntimeException("Unable to create http client", e);
+		}
+	}
 
+	/**
+	 * Creates socket factory trusting to provided keystore
+	 */
+	@Override
+	protected LayeredConnectionSocketFactory getSslSocketFactory() {
+		try {
 			SSLContext sslcontext = SSLContexts.custom().loadTrustMaterial(keyStore).build();
 
 			/*
@@ -77,13 +95,24 @@ public class SslClientFactory extends AuthClientFactory implements HttpClientFac
 			 * .BROWSER_COMPATIBLE_HOSTNAME_VERIFIER here due to some problems
 			 * related to classloaders. Initialize host name verifier explicitly
 			 */
-			SSLConnectionSocketFactory sslsf = new SSLConnectionSocketFactory(sslcontext, new AllowAllHostnameVerifier());
-			HttpClientBuilder builder = initDefaultBuilder();
+			return new SSLConnectionSocketFactory(sslcontext, new AllowAllHostnameVerifier());
+		} catch (Exception e) {
+			throw new RuntimeException("Unable to create SSL socket factory", e);
+		}
+	}
 
-			builder.setSSLSocketFactory(sslsf);
-			return builder.build();
+	/**
+	 * Initializes non-blocking client builder trusting to provided keystore
+	 */
+	@Override
+	protected HttpAsyncClientBuilder initDefaultAsyncBuilder() {
+		try {
+			HttpAsyncClientBuilder builder = super.initDefaultAsyncBuilder();
+			builder.setSSLContext(SSLContexts.custom().loadTrustMaterial(keyStore).build());
+			builder.setHostnameVerifier(new AllowAllHostnameVerifier());
+			return builder;
 		} catch (Exception e) {
-			throw new RuntimeException("Unable to create http client", e);
+			throw new RuntimeException("Unable to create SSL context", e);
 		}
 	}
 
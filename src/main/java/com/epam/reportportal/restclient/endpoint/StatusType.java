@@ -39,6 +39,17 @@ public enum StatusType {
 	/** Server Error Response */
 	SERVER_ERROR(5);
 
+	/** Status types indexed by first symbol of HTTP response code */
+	private static final StatusType[] SERIES;
+
+	static {
+		StatusType[] types = values();
+		SERIES = new StatusType[types[types.length - 1].value + 1];
+		for (StatusType type : types) {
+			SERIES[type.value] = type;
+		}
+	}
+
 	/** First Symbol of HTTP response code */
 	private final int value;
 
@@ -50,21 +61,28 @@ public enum StatusType {
 		return this.value;
 	}
 
+	/**
+	 * @return TRUE for client and server errors
+	 */
+	public boolean isError() {
+		return this == CLIENT_ERROR || this == SERVER_ERROR;
+	}
+
 	/**
 	 * Obrains {@link StatusType} from HTTP status code. If there are no status
-	 * defined throws {@link java.lang.IllegalArgumentException}
+	 * defined throws {@link java.lang.IllegalArgumentException}. Uses
+	 * precomputed table, so nothing is allocated
 	 * 
 	 * @param status
 	 * @return
 	 */
 	public static StatusType valueOf(int status) {
 		int seriesCode = status / 100;
-		for (StatusType series : values()) {
-			if (series.value == seriesCode) {
-				return series;
-			}
+		StatusType series = status >= 0 && seriesCode < SERIES.length ? SERIES[seriesCode] : null;
+		if (null == series) {
+			throw new IllegalArgumentException("No matching constant for [" + status + "]");
 		}
-		throw new IllegalArgumentException("No matching constant for [" + status + "]");
+		return series;
 	}
 
 }
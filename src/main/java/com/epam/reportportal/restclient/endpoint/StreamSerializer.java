@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+import com.epam.reportportal.restclient.endpoint.exception.SerializerException;
+
+/**
+ * {@link Serializer} able to write/read messages directly into/from streams,
+ * so body isn't buffered before it's sent or parsed. Endpoints check whether serializer
+ * implements this interface and fall back to byte-based methods of
+ * {@link Serializer} otherwise
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public interface StreamSerializer extends Serializer {
+
+	/**
+	 * Serializes Message directly into provided output stream. Stream is not
+	 * closed by serializer
+	 * 
+	 * @param t
+	 *            - Message to be serialized
+	 * @param os
+	 *            - Target output stream
+	 * @throws SerializerException
+	 */
+	<T> void serialize(T t, OutputStream os) throws SerializerException;
+
+	/**
+	 * Deserializes message directly from input stream. Stream is read till
+	 * the end of message but not necessarily closed
+	 * 
+	 * @param content
+	 * @param clazz
+	 * @return
+	 * @throws SerializerException
+	 */
+	<T> T deserialize(InputStream content, Class<T> clazz) throws SerializerException;
+
+	/**
+	 * Deserializes message directly from input stream. Stream is read till
+	 * the end of message but not necessarily closed
+	 * 
+	 * @param content
+	 * @param type
+	 *            - Representation of type of response. For generic types (e.g.
+	 *            collections) {@link java.lang.reflect.ParameterizedType} may
+	 *            be used
+	 * @return
+	 * @throws SerializerException
+	 */
+	<T> T deserialize(InputStream content, Type type) throws SerializerException;
+}
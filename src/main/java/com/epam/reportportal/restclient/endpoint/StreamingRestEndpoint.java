@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointIOException;
+
+/**
+ * {@link RestEndpoint} able to read collections lazily, element by element,
+ * so whole collection is never kept in memory
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public interface StreamingRestEndpoint extends RestEndpoint {
+
+	/**
+	 * HTTP GET of collection passing its elements to callback as they are
+	 * read from response, so whole collection is never kept in memory.
+	 * Response serializer should implement {@link StreamingSerializer}
+	 * 
+	 * @param resource
+	 *            - REST Resource
+	 * @param parameters
+	 *            - Map of query parameters. May be null
+	 * @param arrayField
+	 *            - Name of field of response object containing collection
+	 *            (e.g. content of page). NULL if response is collection
+	 *            itself
+	 * @param elementType
+	 *            - Type of collection element
+	 * @param callback
+	 *            - Element callback
+	 * @return - Count of elements
+	 * @throws RestEndpointIOException
+	 */
+	<RS> long stream(String resource, Map<String, String> parameters, String arrayField, Type elementType, ElementCallback<RS> callback)
+			throws RestEndpointIOException;
+
+	/**
+	 * HTTP GET of collection returning lazy iterator over its elements. Each
+	 * element is read from response once previous one is consumed. Response
+	 * is released once iterator is exhausted, otherwise iterator should be
+	 * closed. Response serializer should implement {@link StreamingSerializer}
+	 * 
+	 * @param resource
+	 *            - REST Resource
+	 * @param parameters
+	 *            - Map of query parameters. May be null
+	 * @param arrayField
+	 *            - Name of field of response object containing collection
+	 *            (e.g. content of page). NULL if response is collection
+	 *            itself
+	 * @param elementType
+	 *            - Type of collection element
+	 * @return - Lazy iterator over elements
+	 * @throws RestEndpointIOException
+	 */
+	<RS> CloseableIterator<RS> iterate(String resource, Map<String, String> parameters, String arrayField, Type elementType)
+			throws RestEndpointIOException;
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+import com.epam.reportportal.restclient.endpoint.exception.SerializerException;
+
+/**
+ * {@link Serializer} able to read elements of array one by one, so memory
+ * consumption doesn't depend on size of array
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public interface StreamingSerializer extends StreamSerializer {
+
+	/**
+	 * Deserializes elements of array lazily. Array may be either the root of
+	 * the message or field of the root object (e.g. content of page)
+	 * 
+	 * @param content
+	 *            - Message. Closed once iterator is exhausted or closed
+	 * @param arrayField
+	 *            - Name of field of root object containing array. NULL if
+	 *            array is the root of message
+	 * @param elementType
+	 *            - Type of array element
+	 * @return Lazy iterator over array elements
+	 * @throws SerializerException
+	 *             if message doesn't contain array or array field is missing
+	 */
+	<T> CloseableIterator<T> deserializeElements(InputStream content, String arrayField, Type elementType) throws SerializerException;
+}
@@ -21,13 +21,16 @@
 package com.epam.reportportal.restclient.endpoint;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 
 import com.epam.reportportal.restclient.endpoint.exception.SerializerException;
+import com.google.common.io.ByteStreams;
 import com.google.common.net.MediaType;
 
-public class StringSerializer implements Serializer {
+public class StringSerializer implements StreamSerializer {
 
 	/*
 	 * (non-Javadoc)
@@ -40,6 +43,21 @@ public class StringSerializer implements Serializer {
 		return new ByteArrayInputStream(t.toString().getBytes());
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * StreamSerializer#serialize(java.lang.Object, java.io.OutputStream)
+	 */
+	@Override
+	public <T> void serialize(T t, OutputStream os) throws SerializerException {
+		try {
+			os.write(t.toString().getBytes());
+		} catch (IOException e) {
+			throw new SerializerException("Unable to serialize object '" + t + "'", e);
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -60,6 +78,16 @@ public class StringSerializer implements Serializer {
 		return (T) new String(content);
 	}
 
+	@Override
+	public <T> T deserialize(InputStream content, Class<T> clazz) throws SerializerException {
+		return deserialize(readFully(content), clazz);
+	}
+
+	@Override
+	public <T> T deserialize(InputStream content, Type type) throws SerializerException {
+		return deserialize(readFully(content), type);
+	}
+
 	/**
 	 * Returns default MIME type
 	 */
@@ -81,6 +109,14 @@ public class StringSerializer implements Serializer {
 		return String.class.isAssignableFrom(o.getClass());
 	}
 
+	private byte[] readFully(InputStream content) throws SerializerException {
+		try {
+			return ByteStreams.toByteArray(content);
+		} catch (IOException e) {
+			throw new SerializerException("Unable to read content", e);
+		}
+	}
+
 	/**
 	 * Validates that provided class is assignable from java.lang.String
 	 * 
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.epam.reportportal.apache.http.HttpEntity;
+import com.epam.reportportal.apache.http.entity.ByteArrayEntity;
+
+/**
+ * Collects request body and compresses it with GZIP once its size exceeds
+ * threshold. Bytes written before threshold is reached are buffered as is
+ * (there are at most threshold of them), the rest of body goes directly into
+ * compressor, so uncompressed body is never held in memory completely
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+class ThresholdGzipOutputStream extends OutputStream {
+
+	private static final int GZIP_BUFFER_SIZE = 8192;
+
+	private final int threshold;
+
+	private ExposedByteArrayOutputStream raw;
+
+	private ExposedByteArrayOutputStream compressed;
+
+	private GZIPOutputStream gzip;
+
+	ThresholdGzipOutputStream(int threshold) {
+		this.threshold = threshold;
+		this.raw = new ExposedByteArrayOutputStream(Math.min(threshold + 1, GZIP_BUFFER_SIZE));
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (null != gzip) {
+			gzip.write(b);
+		} else {
+			raw.write(b);
+			switchIfExceeded();
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (null != gzip) {
+			gzip.write(b, off, len);
+		} else {
+			raw.write(b, off, len);
+			switchIfExceeded();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (null != gzip) {
+			gzip.close();
+		}
+	}
+
+	/**
+	 * @return TRUE if body has been compressed
+	 */
+	boolean isCompressed() {
+		return null != gzip;
+	}
+
+	/**
+	 * Creates entity from collected body. Should be called after stream is
+	 * closed
+	 * 
+	 * @param contentType
+	 *            - Content type of body
+	 * @return Entity with known length
+	 */
+	HttpEntity toEntity(String contentType) {
+		ExposedByteArrayOutputStream body = isCompressed() ? compressed : raw;
+		ByteArrayEntity entity = new ByteArrayEntity(body.buffer(), 0, body.size());
+		entity.setContentType(contentType);
+		if (isCompressed()) {
+			entity.setContentEncoding("gzip");
+		}
+		return entity;
+	}
+
+	private void switchIfExceeded() throws IOException {
+		if (raw.size() > threshold) {
+			compressed = new ExposedByteArrayOutputStream(GZIP_BUFFER_SIZE);
+			gzip = new GZIPOutputStream(compressed, GZIP_BUFFER_SIZE);
+			gzip.write(raw.buffer(), 0, raw.size());
+			raw = null;
+		}
+	}
+
+	/**
+	 * Gives access to internal buffer to avoid copying
+	 */
+	private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+		ExposedByteArrayOutputStream(int size) {
+			super(size);
+		}
+
+		byte[] buffer() {
+			return buf;
+		}
+	}
+}
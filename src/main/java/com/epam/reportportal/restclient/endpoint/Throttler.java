@@ -0,0 +1,499 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.epam.reportportal.restclient.endpoint.exception.RequestThrottledException;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Client-side admission control: token-bucket rate limiter and
+ * semaphore-based bulkheads limiting amount of concurrent requests globally
+ * and per resource prefix. Resource is limited by bulkhead of its longest
+ * matching prefix. Use {@link Throttler.Builder} to create instances<br>
+ * Requests admitted asynchronously (see
+ * {@link #acquire(String, AdmissionCallback)}) wait in FIFO queue. Permit is
+ * handed to the head of queue once another permit is released or, if rate is
+ * limited, once rate limiter issues the next permit. Waiter blocked only by
+ * bulkhead of its prefix is skipped, so saturated prefix doesn't stall
+ * requests to other prefixes<br>
+ * Time requests spend waiting for admission is recorded in microseconds, see
+ * {@link #getWaitTimes()}
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class Throttler {
+
+	/**
+	 * Wakes up queue once rate limiter issues the next permit and rejects
+	 * expired waiters. Shared by all throttlers
+	 */
+	private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+			.setDaemon(true).setNameFormat("rest-endpoint-throttler").build());
+
+	/** Rate limiter. NULL if rate isn't limited */
+	private final RateLimiter rateLimiter;
+
+	/** Global bulkhead. NULL if concurrency isn't limited */
+	private final Semaphore bulkhead;
+
+	/** Bulkheads by resource prefix ordered from the longest prefix */
+	private final Map<String, Semaphore> prefixBulkheads;
+
+	/** Max time request waits for admission. Negative means infinite */
+	private final long acquireTimeout;
+
+	/** Interval between permits of rate limiter in nanos */
+	private final long permitInterval;
+
+	/** Requests waiting for asynchronous admission. Guarded by itself */
+	private final Deque<Waiter> waiters = new ArrayDeque<Waiter>();
+
+	/** Whether queue is going to be drained by timer. Guarded by waiters */
+	private boolean drainScheduled;
+
+	private final LatencyHistogram waitTimes = new LatencyHistogram();
+
+	private final AtomicLong rejected = new AtomicLong();
+
+	private Throttler(Builder builder) {
+		this.rateLimiter = builder.permitsPerSecond > 0 ? RateLimiter.create(builder.permitsPerSecond) : null;
+		this.bulkhead = builder.maxConcurrentRequests > 0 ? new Semaphore(builder.maxConcurrentRequests, true) : null;
+		Map<String, Semaphore> prefixBulkheads = new TreeMap<String, Semaphore>(new Comparator<String>() {
+			@Override
+			public int compare(String o1, String o2) {
+				int byLength = Integer.compare(o2.length(), o1.length());
+				return 0 != byLength ? byLength : o1.compareTo(o2);
+			}
+		});
+		for (Map.Entry<String, Integer> prefix : builder.prefixLimits.entrySet()) {
+			prefixBulkheads.put(prefix.getKey(), new Semaphore(prefix.getValue(), true));
+		}
+		this.prefixBulkheads = ImmutableMap.copyOf(prefixBulkheads);
+		this.acquireTimeout = builder.acquireTimeout;
+		this.permitInterval = null == rateLimiter ? 0 : Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / builder.permitsPerSecond));
+	}
+
+	/**
+	 * Waits for admission of request to resource
+	 * 
+	 * @param resource
+	 *            - REST resource
+	 * @return Permit to be released once request is completed
+	 * @throws RequestThrottledException
+	 *             if request isn't admitted within acquire timeout
+	 */
+	public Permit acquire(String resource) throws RequestThrottledException {
+		long started = System.nanoTime();
+		Semaphore prefixBulkhead = getPrefixBulkhead(resource);
+		try {
+			if (!acquire(prefixBulkhead, started)) {
+				throw rejected(resource);
+			}
+			if (!acquire(bulkhead, started)) {
+				release(prefixBulkhead);
+				throw rejected(resource);
+			}
+			if (!acquireRate(started)) {
+				release(bulkhead);
+				release(prefixBulkhead);
+				throw rejected(resource);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RequestThrottledException("Interrupted while waiting for admission of request to " + resource);
+		}
+		waitTimes.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started));
+		return new Permit(this, prefixBulkhead, bulkhead);
+	}
+
+	/**
+	 * Tries to admit request to resource without waiting
+	 * 
+	 * @param resource
+	 *            - REST resource
+	 * @param waitingSince
+	 *            - Time (nanos) request is waiting for admission since. Used
+	 *            for wait time metrics
+	 * @return Permit to be released once request is completed or NULL if
+	 *         request isn't admitted
+	 */
+	public Permit tryAcquire(String resource, long waitingSince) {
+		Semaphore prefixBulkhead = getPrefixBulkhead(resource);
+		if (null != prefixBulkhead && !prefixBulkhead.tryAcquire()) {
+			return null;
+		}
+		if (!tryAcquireShared()) {
+			release(prefixBulkhead);
+			return null;
+		}
+		return admitted(prefixBulkhead, waitingSince);
+	}
+
+	/**
+	 * Admits request to resource without blocking calling thread. If there
+	 * are no permits available, request is queued and callback is notified
+	 * once permit is handed to it or acquire timeout is exceeded. Callback is
+	 * called either by calling thread, thread releasing permit or timer thread,
+	 * so it shouldn't block
+	 * 
+	 * @param resource
+	 *            - REST resource
+	 * @param callback
+	 *            - Admission callback
+	 */
+	public void acquire(String resource, AdmissionCallback callback) {
+		final Waiter waiter = new Waiter(resource, getPrefixBulkhead(resource), callback);
+		synchronized (waiters) {
+			waiters.addLast(waiter);
+		}
+		drain();
+
+		if (acquireTimeout >= 0 && !waiter.admitted) {
+			TIMER.schedule(new Runnable() {
+				@Override
+				public void run() {
+					expire(waiter);
+				}
+			}, acquireTimeout, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * @return Histogram of admission wait times in microseconds
+	 */
+	public LatencyHistogram getWaitTimes() {
+		return waitTimes;
+	}
+
+	/**
+	 * @return Count of rejected requests
+	 */
+	public long getRejected() {
+		return rejected.get();
+	}
+
+	RequestThrottledException rejected(String resource) {
+		rejected.incrementAndGet();
+		return new RequestThrottledException("Request to " + resource + " isn't admitted within " + acquireTimeout + "ms");
+	}
+
+	/**
+	 * Hands permits to waiters in order they are queued. Waiter blocked by
+	 * bulkhead of its prefix is skipped together with later waiters of the
+	 * same bulkhead, so order is kept per prefix. Stops on the first waiter
+	 * not admitted by global bulkhead or rate limiter, so later requests don't
+	 * overtake it
+	 */
+	private void drain() {
+		List<Waiter> admitted = null;
+		synchronized (waiters) {
+			List<Semaphore> saturated = null;
+			Iterator<Waiter> queued = waiters.iterator();
+			while (queued.hasNext()) {
+				Waiter waiter = queued.next();
+				Semaphore prefixBulkhead = waiter.prefixBulkhead;
+				if (null != prefixBulkhead
+						&& ((null != saturated && saturated.contains(prefixBulkhead)) || !prefixBulkhead.tryAcquire())) {
+					if (null == saturated) {
+						saturated = new ArrayList<Semaphore>();
+					}
+					saturated.add(prefixBulkhead);
+					continue;
+				}
+				if (!tryAcquireShared()) {
+					release(prefixBulkhead);
+					scheduleDrain();
+					break;
+				}
+				queued.remove();
+				waiter.admitted = true;
+				waiter.permit = admitted(prefixBulkhead, waiter.waitingSince);
+				if (null == admitted) {
+					admitted = new ArrayList<Waiter>();
+				}
+				admitted.add(waiter);
+			}
+		}
+		if (null != admitted) {
+			for (Waiter waiter : admitted) {
+				waiter.callback.admitted(waiter.permit);
+			}
+		}
+	}
+
+	/**
+	 * Schedules drain of queue once rate limiter issues the next permit.
+	 * Bulkhead permits are handed over on release, so there is nothing to
+	 * schedule if rate isn't limited. Should be called under lock
+	 */
+	private void scheduleDrain() {
+		if (null == rateLimiter || drainScheduled) {
+			return;
+		}
+		drainScheduled = true;
+		TIMER.schedule(new Runnable() {
+			@Override
+			public void run() {
+				synchronized (waiters) {
+					drainScheduled = false;
+				}
+				drain();
+			}
+		}, permitInterval, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Rejects waiter if it's still in queue
+	 */
+	private void expire(Waiter waiter) {
+		boolean removed;
+		synchronized (waiters) {
+			removed = waiters.remove(waiter);
+		}
+		if (removed) {
+			waiter.callback.rejected(rejected(waiter.resource));
+		}
+	}
+
+	/**
+	 * Called once permit is released
+	 */
+	private void released() {
+		synchronized (waiters) {
+			if (waiters.isEmpty()) {
+				return;
+			}
+		}
+		drain();
+	}
+
+	/**
+	 * Tries to acquire global bulkhead and rate permits. Nothing is held if
+	 * any of them isn't acquired
+	 */
+	private boolean tryAcquireShared() {
+		if (null != bulkhead && !bulkhead.tryAcquire()) {
+			return false;
+		}
+		if (null != rateLimiter && !rateLimiter.tryAcquire()) {
+			release(bulkhead);
+			return false;
+		}
+		return true;
+	}
+
+	private Permit admitted(Semaphore prefixBulkhead, long waitingSince) {
+		waitTimes.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - waitingSince));
+		return new Permit(this, prefixBulkhead, bulkhead);
+	}
+
+	private Semaphore getPrefixBulkhead(String resource) {
+		for (Map.Entry<String, Semaphore> prefix : prefixBulkheads.entrySet()) {
+			if (resource.startsWith(prefix.getKey())) {
+				return prefix.getValue();
+			}
+		}
+		return null;
+	}
+
+	private boolean acquire(Semaphore semaphore, long started) throws InterruptedException {
+		if (null == semaphore) {
+			return true;
+		}
+		if (acquireTimeout < 0) {
+			semaphore.acquire();
+			return true;
+		}
+		return semaphore.tryAcquire(remaining(started), TimeUnit.NANOSECONDS);
+	}
+
+	private boolean acquireRate(long started) {
+		if (null == rateLimiter) {
+			return true;
+		}
+		if (acquireTimeout < 0) {
+			rateLimiter.acquire();
+			return true;
+		}
+		return rateLimiter.tryAcquire(remaining(started), TimeUnit.NANOSECONDS);
+	}
+
+	private long remaining(long started) {
+		return TimeUnit.MILLISECONDS.toNanos(acquireTimeout) - (System.nanoTime() - started);
+	}
+
+	private static void release(Semaphore semaphore) {
+		if (null != semaphore) {
+			semaphore.release();
+		}
+	}
+
+	/**
+	 * Admission of single request. Should be released exactly once
+	 * 
+	 * @author Andrei Varabyeu
+	 * 
+	 */
+	public static class Permit {
+
+		private final Throttler throttler;
+
+		private final Semaphore prefixBulkhead;
+
+		private final Semaphore bulkhead;
+
+		private Permit(Throttler throttler, Semaphore prefixBulkhead, Semaphore bulkhead) {
+			this.throttler = throttler;
+			this.prefixBulkhead = prefixBulkhead;
+			this.bulkhead = bulkhead;
+		}
+
+		/**
+		 * Releases permit and hands it to the head of queue (if any)
+		 */
+		public void release() {
+			Throttler.release(bulkhead);
+			Throttler.release(prefixBulkhead);
+			throttler.released();
+		}
+	}
+
+	/**
+	 * Callback of asynchronous admission
+	 * 
+	 * @author Andrei Varabyeu
+	 * 
+	 */
+	public interface AdmissionCallback {
+
+		/**
+		 * Request is admitted
+		 * 
+		 * @param permit
+		 *            - Permit to be released once request is completed
+		 */
+		void admitted(Permit permit);
+
+		/**
+		 * Request isn't admitted within acquire timeout
+		 * 
+		 * @param e
+		 *            - Rejection
+		 */
+		void rejected(RequestThrottledException e);
+	}
+
+	/**
+	 * Request waiting for asynchronous admission
+	 */
+	private static class Waiter {
+
+		private final String resource;
+
+		private final Semaphore prefixBulkhead;
+
+		private final AdmissionCallback callback;
+
+		private final long waitingSince = System.nanoTime();
+
+		/* written under lock of queue, read by thread queued waiter */
+		private volatile boolean admitted;
+
+		private Permit permit;
+
+		Waiter(String resource, Semaphore prefixBulkhead, AdmissionCallback callback) {
+			this.resource = resource;
+			this.prefixBulkhead = prefixBulkhead;
+			this.callback = callback;
+		}
+	}
+
+	/**
+	 * Builder for {@link Throttler}
+	 * 
+	 * @author Andrei Varabyeu
+	 * 
+	 */
+	public static class Builder {
+		private double permitsPerSecond = -1;
+		private int maxConcurrentRequests = -1;
+		private Map<String, Integer> prefixLimits = new TreeMap<String, Integer>();
+		private long acquireTimeout = -1;
+
+		/**
+		 * Limits rate of requests. Non-positive value disables limiter
+		 */
+		public Builder permitsPerSecond(double permitsPerSecond) {
+			this.permitsPerSecond = permitsPerSecond;
+			return this;
+		}
+
+		/**
+		 * Limits amount of concurrent requests. Non-positive value disables
+		 * global bulkhead
+		 */
+		public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+			this.maxConcurrentRequests = maxConcurrentRequests;
+			return this;
+		}
+
+		/**
+		 * Limits amount of concurrent requests to resources starting with
+		 * provided prefix
+		 */
+		public Builder maxConcurrentRequests(String prefix, int maxConcurrentRequests) {
+			Preconditions.checkNotNull(prefix, "Resource prefix shouldn't be null");
+			Preconditions.checkArgument(maxConcurrentRequests > 0, "Max concurrent requests should be positive");
+			this.prefixLimits.put(prefix, maxConcurrentRequests);
+			return this;
+		}
+
+		/**
+		 * Max time request waits for admission. Negative means infinite
+		 */
+		public Builder acquireTimeout(long timeout, TimeUnit unit) {
+			this.acquireTimeout = timeout < 0 ? -1 : unit.toMillis(timeout);
+			return this;
+		}
+
+		public Throttler build() {
+			return new Throttler(this);
+		}
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointIOException;
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link RestEndpoint} decorator admitting requests via {@link Throttler}.
+ * Calling thread waits for admission, so rate of requests and amount of
+ * concurrent requests to the server are capped regardless of amount of
+ * calling threads. For asynchronous execution pass throttler to
+ * {@link ExecutorAsyncRestEndpoint} instead, so I/O threads are not blocked
+ * while waiting
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class ThrottlingRestEndpoint extends RestEndpointDecorator {
+
+	private final Throttler throttler;
+
+	public ThrottlingRestEndpoint(RestEndpoint delegate, Throttler throttler) {
+		super(delegate);
+		this.throttler = Preconditions.checkNotNull(throttler, "Throttler shouldn't be null");
+	}
+
+	public Throttler getThrottler() {
+		return throttler;
+	}
+
+	@Override
+	protected <RS> RS execute(HttpMethod method, String resource, Invocation<RS> invocation) throws RestEndpointIOException {
+		Throttler.Permit permit = throttler.acquire(resource);
+		try {
+			return invocation.invoke();
+		} finally {
+			permit.release();
+		}
+	}
+
+	/**
+	 * Holds permit while response is read, so it's released once iterator is
+	 * exhausted or closed
+	 */
+	@Override
+	public <RS> CloseableIterator<RS> iterate(String resource, Map<String, String> parameters, String arrayField, Type elementType)
+			throws RestEndpointIOException {
+		Throttler.Permit permit = throttler.acquire(resource);
+		try {
+			return new PermitIterator<RS>(streamingDelegate().<RS> iterate(resource, parameters, arrayField, elementType), permit);
+		} catch (RestEndpointIOException e) {
+			permit.release();
+			throw e;
+		} catch (RuntimeException e) {
+			permit.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Releases permit once underlying iterator is exhausted, fails or is
+	 * closed
+	 */
+	private static class PermitIterator<RS> implements CloseableIterator<RS> {
+
+		private final CloseableIterator<RS> delegate;
+
+		private Throttler.Permit permit;
+
+		PermitIterator(CloseableIterator<RS> delegate, Throttler.Permit permit) {
+			this.delegate = delegate;
+			this.permit = permit;
+		}
+
+		@Override
+		public boolean hasNext() {
+			try {
+				if (delegate.hasNext()) {
+					return true;
+				}
+			} catch (RuntimeException e) {
+				release();
+				throw e;
+			}
+			release();
+			return false;
+		}
+
+		@Override
+		public RS next() {
+			try {
+				return delegate.next();
+			} catch (RuntimeException e) {
+				release();
+				throw e;
+			}
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() {
+			try {
+				delegate.close();
+			} finally {
+				release();
+			}
+		}
+
+		private void release() {
+			if (null != permit) {
+				permit.release();
+				permit = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.IOException;
+
+/**
+ * Provider of access tokens used by {@link BearerAuthorizationInterceptor}
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public interface TokenProvider {
+
+	/**
+	 * Returns actual token. Called for each request, so implementations
+	 * obtaining tokens remotely should cache them, see
+	 * {@link RefreshingTokenProvider}
+	 * 
+	 * @return Access token
+	 * @throws IOException
+	 *             if token cannot be obtained
+	 */
+	AccessToken getToken() throws IOException;
+
+	/**
+	 * Notifies provider that token has been rejected by server (e.g. revoked
+	 * before expiration). Next {@link #getToken()} shouldn't return this token
+	 * 
+	 * @param token
+	 *            - Rejected token
+	 */
+	void invalidate(AccessToken token);
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import com.epam.reportportal.apache.http.HttpEntity;
+import com.epam.reportportal.apache.http.HttpEntityEnclosingRequest;
+import com.epam.reportportal.apache.http.HttpRequest;
+import com.epam.reportportal.apache.http.HttpResponse;
+import com.epam.reportportal.apache.http.HttpStatus;
+import com.epam.reportportal.apache.http.client.ServiceUnavailableRetryStrategy;
+import com.epam.reportportal.apache.http.protocol.HttpContext;
+import com.epam.reportportal.apache.http.protocol.HttpCoreContext;
+import com.google.common.base.Preconditions;
+
+/**
+ * Retries request once if server responds with 401 (Unauthorized) to the
+ * token provided by {@link BearerAuthorizationInterceptor}. Rejected token is
+ * invalidated before retry, so retried request is sent with refreshed token.
+ * Requests with non-repeatable bodies are not retried
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class TokenRefreshRetryStrategy implements ServiceUnavailableRetryStrategy {
+
+	private final TokenProvider tokenProvider;
+
+	public TokenRefreshRetryStrategy(TokenProvider tokenProvider) {
+		this.tokenProvider = Preconditions.checkNotNull(tokenProvider, "Token provider shouldn't be null");
+	}
+
+	@Override
+	public boolean retryRequest(HttpResponse response, int executionCount, HttpContext context) {
+		if (HttpStatus.SC_UNAUTHORIZED != response.getStatusLine().getStatusCode() || executionCount > 1) {
+			return false;
+		}
+		AccessToken token = (AccessToken) context.getAttribute(BearerAuthorizationInterceptor.ACCESS_TOKEN);
+		if (null == token || !isRepeatable((HttpRequest) context.getAttribute(HttpCoreContext.HTTP_REQUEST))) {
+			return false;
+		}
+		tokenProvider.invalidate(token);
+		return true;
+	}
+
+	@Override
+	public long getRetryInterval() {
+		return 0;
+	}
+
+	private static boolean isRepeatable(HttpRequest request) {
+		if (request instanceof HttpEntityEnclosingRequest) {
+			HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+			return null == entity || entity.isRepeatable();
+		}
+		return true;
+	}
+}
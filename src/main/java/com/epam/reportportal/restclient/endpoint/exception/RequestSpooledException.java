@@ -0,0 +1,42 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint.exception;
+
+/**
+ * Throwed when request couldn't be delivered right now and has been stored
+ * in spool to be replayed later. Response of request is not available
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class RequestSpooledException extends RestEndpointIOException {
+
+	private static final long serialVersionUID = 1L;
+
+	public RequestSpooledException(String message) {
+		super(message);
+	}
+
+	public RequestSpooledException(String message, Throwable e) {
+		super(message, e);
+	}
+
+}
@@ -20,6 +20,10 @@
  */
 package com.epam.reportportal.restclient.endpoint.exception;
 
+import java.lang.reflect.Type;
+
+import com.epam.reportportal.restclient.endpoint.Serializer;
+
 /**
  * Base HTTP error representation
  * 
@@ -36,15 +40,111 @@ public class RestEndpointException extends RuntimeException {
 	/** HTTP Status Message */
 	protected String statusMessage;
 
-	/** HTTP Response Body */
+	/** HTTP Response Body. May be truncated or null if body isn't captured */
 	protected byte[] content;
 
+	/** Content Type of HTTP Response Body. May be null */
+	protected String contentType;
+
+	/** Whether only beginning of HTTP Response Body is captured */
+	protected boolean contentTruncated;
+
+	/** Serializer able to read HTTP Response Body. May be null */
+	protected transient Serializer contentReader;
+
+	/** Delay in milliseconds requested by server via Retry-After header */
+	protected long retryAfter = -1;
+
 	public RestEndpointException(int statusCode, String statusMessage, byte[] content) {
 		this.statusCode = statusCode;
 		this.statusMessage = statusMessage;
 		this.content = content;
 	}
 
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	public String getStatusMessage() {
+		return statusMessage;
+	}
+
+	/**
+	 * @return HTTP Response Body or NULL if body isn't captured. May be
+	 *         truncated, see {@link #isContentTruncated()}
+	 */
+	public byte[] getContent() {
+		return content;
+	}
+
+	/**
+	 * Deserializes HTTP Response Body into structured error object. Body is
+	 * decoded on each call, so exceptions which body isn't needed are not
+	 * affected
+	 * 
+	 * @param type
+	 *            - Type of error object
+	 * @return Error object
+	 * @throws SerializerException
+	 *             if body isn't captured completely or there is no
+	 *             serializer for its content type
+	 */
+	public <T> T getContent(Class<T> type) throws SerializerException {
+		return getContent((Type) type);
+	}
+
+	/**
+	 * Deserializes HTTP Response Body into structured error object
+	 * 
+	 * @see #getContent(Class)
+	 */
+	public <T> T getContent(Type type) throws SerializerException {
+		if (null == content || contentTruncated) {
+			throw new SerializerException("Response body isn't captured completely");
+		}
+		if (null == contentReader) {
+			throw new SerializerException("Unsupported media type '" + contentType + "'");
+		}
+		return contentReader.deserialize(content, type);
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public void setContentType(String contentType) {
+		this.contentType = contentType;
+	}
+
+	public boolean isContentTruncated() {
+		return contentTruncated;
+	}
+
+	public void setContentTruncated(boolean contentTruncated) {
+		this.contentTruncated = contentTruncated;
+	}
+
+	/**
+	 * @param contentReader
+	 *            - Serializer used to decode HTTP Response Body in
+	 *            {@link #getContent(Type)}
+	 */
+	public void setContentReader(Serializer contentReader) {
+		this.contentReader = contentReader;
+	}
+
+	/**
+	 * @return Delay in milliseconds requested by server via Retry-After
+	 *         header or -1 if server hasn't specified it
+	 */
+	public long getRetryAfter() {
+		return retryAfter;
+	}
+
+	public void setRetryAfter(long retryAfter) {
+		this.retryAfter = retryAfter;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint.exception;
+
+/**
+ * Unchecked wrapper of {@link RestEndpointIOException}. Throwed from
+ * iterators over lazily read elements, since {@link java.util.Iterator}
+ * methods cannot throw checked exceptions
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class UncheckedRestEndpointIOException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public UncheckedRestEndpointIOException(RestEndpointIOException cause) {
+		super(cause.getMessage(), cause);
+	}
+
+	/**
+	 * @return Wrapped exception
+	 */
+	@Override
+	public RestEndpointIOException getCause() {
+		return (RestEndpointIOException) super.getCause();
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.google.common.base.Preconditions;
+import com.google.common.net.MediaType;
+
+/**
+ * Serializer uses Jackson2 CBOR {@link https://tools.ietf.org/html/rfc7049}
+ * binary data format. Content is usually smaller and faster to encode/decode
+ * than JSON text, and the same Jackson-annotated POJOs may be used. Produces
+ * and reads <code>application/cbor</code> content
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class Jackson2CborSerializer extends Jackson2Serializer {
+
+	/** CBOR Media Type */
+	public static final MediaType CBOR = MediaType.create("application", "cbor");
+
+	public Jackson2CborSerializer() {
+		this(new ObjectMapper(new CBORFactory()));
+	}
+
+	public Jackson2CborSerializer(ObjectMapper objectMapper) {
+		this(objectMapper, DEFAULT_CACHE_SIZE);
+	}
+
+	public Jackson2CborSerializer(ObjectMapper objectMapper, int cacheSize) {
+		super(objectMapper, cacheSize, CBOR);
+		Preconditions.checkArgument(objectMapper.getFactory() instanceof CBORFactory, "Object Mapper should be created with CBORFactory");
+	}
+
+}
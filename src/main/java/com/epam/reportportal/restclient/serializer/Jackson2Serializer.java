@@ -24,29 +24,89 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
+import java.util.NoSuchElementException;
 
 import com.epam.reportportal.restclient.endpoint.IOUtils;
-import com.epam.reportportal.restclient.endpoint.Serializer;
+import com.epam.reportportal.restclient.endpoint.CloseableIterator;
+import com.epam.reportportal.restclient.endpoint.StreamingSerializer;
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointIOException;
 import com.epam.reportportal.restclient.endpoint.exception.SerializerException;
+import com.epam.reportportal.restclient.endpoint.exception.UncheckedRestEndpointIOException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.net.MediaType;
 
 /**
  * Serializer uses Jackson2 {@link https://github.com/FasterXML} API to
- * converting to/from POJO/JSON
+ * converting to/from POJO/JSON. Keeps bounded cache of prebuilt
+ * {@link ObjectReader}/{@link ObjectWriter} instances per type, so type
+ * resolution and (de)serializer lookup are done once per type
  * 
  * @author Andrei Varabyeu
  * 
  */
-public class Jackson2Serializer implements Serializer {
+public class Jackson2Serializer implements StreamingSerializer {
+
+	/** Default max count of types readers and writers are cached for */
+	public static final int DEFAULT_CACHE_SIZE = 512;
 
 	/** Default Object Mapper */
 	private ObjectMapper objectMapper;
 
+	/** Readers per target type */
+	private final LoadingCache<Type, ObjectReader> readers;
+
+	/** Writers per serialized class */
+	private final LoadingCache<Class<?>, ObjectWriter> writers;
+
+	/** Media type of produced content */
+	private final MediaType mediaType;
+
 	public Jackson2Serializer(ObjectMapper objectMapper) {
+		this(objectMapper, DEFAULT_CACHE_SIZE);
+	}
+
+	public Jackson2Serializer(ObjectMapper objectMapper, int cacheSize) {
+		this(objectMapper, cacheSize, MediaType.JSON_UTF_8);
+	}
+
+	/**
+	 * Constructor for serializers of other data formats supported by Jackson.
+	 * Object mapper should be created with factory of the same format
+	 * 
+	 * @param objectMapper
+	 *            - Object Mapper
+	 * @param cacheSize
+	 *            - Max count of types readers and writers are cached for
+	 * @param mediaType
+	 *            - Media type of produced content
+	 */
+	protected Jackson2Serializer(final ObjectMapper objectMapper, int cacheSize, MediaType mediaType) {
 		this.objectMapper = objectMapper;
+		this.mediaType = mediaType;
+		this.readers = CacheBuilder.newBuilder().maximumSize(cacheSize).build(new CacheLoader<Type, ObjectReader>() {
+			@Override
+			public ObjectReader load(Type type) {
+				return objectMapper.readerFor(objectMapper.getTypeFactory().constructType(type));
+			}
+		});
+		this.writers = CacheBuilder.newBuilder().maximumSize(cacheSize).build(new CacheLoader<Class<?>, ObjectWriter>() {
+			@Override
+			public ObjectWriter load(Class<?> clazz) {
+				/* target streams are managed by caller */
+				return objectMapper.writerFor(clazz).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			}
+		});
 	}
 
 	/**
@@ -58,15 +118,27 @@ public class Jackson2Serializer implements Serializer {
 		ByteArrayOutputStream baos = null;
 		try {
 			baos = new ByteArrayOutputStream();
-			objectMapper.getFactory().createGenerator(baos).writeObject(t);
+			serialize(t, baos);
 			return new ByteArrayInputStream(baos.toByteArray());
-		} catch (IOException e) {
-			throw new SerializerException("Unable to serialize object '" + t + "'", e);
 		} finally {
 			IOUtils.closeQuietly(baos);
 		}
 	}
 
+	/**
+	 * Serializes POJO marked with <br>
+	 * {@link https://github.com/FasterXML/jackson-annotations} directly into
+	 * output stream. Stream is flushed but not closed
+	 */
+	@Override
+	public <T> void serialize(T t, OutputStream os) throws SerializerException {
+		try {
+			writers.getUnchecked(t.getClass()).writeValue(os, t);
+		} catch (IOException e) {
+			throw new SerializerException("Unable to serialize object '" + t + "'", e);
+		}
+	}
+
 	/**
 	 * Deserializes byte array to POJO marked with <br>
 	 * {@link https://github.com/FasterXML/jackson-annotations}
@@ -74,7 +146,7 @@ public class Jackson2Serializer implements Serializer {
 	@Override
 	public <T> T deserialize(byte[] content, Class<T> clazz) throws SerializerException {
 		try {
-			return objectMapper.getFactory().createParser(content).readValueAs(clazz);
+			return readers.getUnchecked(clazz).readValue(content);
 		} catch (IOException e) {
 			throw new SerializerException("Unable to deserialize content '" + new String(content) + "' to type '" + clazz.getName() + "'",
 					e);
@@ -90,19 +162,100 @@ public class Jackson2Serializer implements Serializer {
 	@Override
 	public <T> T deserialize(byte[] content, Type type) throws SerializerException {
 		try {
-			return objectMapper.readValue(content, TypeFactory.defaultInstance().constructType(type));
+			return readers.getUnchecked(type).readValue(content);
 		} catch (IOException e) {
 			throw new SerializerException("Unable to deserialize content '" + new String(content) + "' to type '" + type.toString() + "'",
 					e);
 		}
 	}
 
+	/**
+	 * Deserializes POJO marked with <br>
+	 * {@link https://github.com/FasterXML/jackson-annotations} directly from
+	 * input stream without buffering of whole content
+	 */
+	@Override
+	public <T> T deserialize(InputStream content, Class<T> clazz) throws SerializerException {
+		try {
+			return readers.getUnchecked(clazz).readValue(content);
+		} catch (IOException e) {
+			throw new SerializerException("Unable to deserialize content to type '" + clazz.getName() + "'", e);
+		}
+	}
+
+	/**
+	 * Deserializes POJO marked with <br>
+	 * {@link https://github.com/FasterXML/jackson-annotations} directly from
+	 * input stream without buffering of whole content<br>
+	 * Uses {@link java.lang.reflect.Type} to understand object to be
+	 * deserialized into
+	 */
+	@Override
+	public <T> T deserialize(InputStream content, Type type) throws SerializerException {
+		try {
+			return readers.getUnchecked(type).readValue(content);
+		} catch (IOException e) {
+			throw new SerializerException("Unable to deserialize content to type '" + type.toString() + "'", e);
+		}
+	}
+
+	/**
+	 * Deserializes elements of array one by one using streaming parser, so
+	 * only current element is kept in memory. Fields of root object following
+	 * the array are not read. Missing array field is treated as error, while
+	 * null array gives no elements
+	 */
+	@Override
+	public <T> CloseableIterator<T> deserializeElements(InputStream content, String arrayField, Type elementType)
+			throws SerializerException {
+		JsonParser parser = null;
+		try {
+			parser = objectMapper.getFactory().createParser(content);
+			JsonToken token = parser.nextToken();
+			if (null != arrayField) {
+				if (JsonToken.START_OBJECT != token) {
+					throw new SerializerException("Expected object containing field '" + arrayField + "' but was " + token);
+				}
+				token = null;
+				while (JsonToken.FIELD_NAME == parser.nextToken()) {
+					token = parser.nextToken();
+					if (arrayField.equals(parser.getCurrentName())) {
+						break;
+					}
+					parser.skipChildren();
+					token = null;
+				}
+				if (null == token) {
+					throw new SerializerException("Field '" + arrayField + "' is not found in content");
+				}
+			}
+			if (JsonToken.VALUE_NULL == token) {
+				parser.close();
+				return new ElementIterator<T>(null, null);
+			}
+			if (JsonToken.START_ARRAY != token) {
+				throw new SerializerException("Expected array but was " + token);
+			}
+			ElementIterator<T> iterator = new ElementIterator<T>(parser, readers.getUnchecked(elementType));
+			parser = null;
+			return iterator;
+		} catch (SerializerException e) {
+			throw e;
+		} catch (JsonProcessingException e) {
+			throw new SerializerException("Unable to find array in content", e);
+		} catch (IOException e) {
+			throw new SerializerException("Unable to read content", e);
+		} finally {
+			IOUtils.closeQuietly(parser);
+		}
+	}
+
 	/**
 	 * Returns default MIME type
 	 */
 	@Override
 	public String getMimeType() {
-		return MediaType.JSON_UTF_8.toString();
+		return mediaType.toString();
 	}
 
 	/**
@@ -110,7 +263,7 @@ public class Jackson2Serializer implements Serializer {
 	 */
 	@Override
 	public boolean canRead(String mimeType) {
-		return MediaType.JSON_UTF_8.withoutParameters().is(MediaType.parse(mimeType).withoutParameters());
+		return mediaType.withoutParameters().is(MediaType.parse(mimeType).withoutParameters());
 	}
 
 	@Override
@@ -118,4 +271,73 @@ public class Jackson2Serializer implements Serializer {
 		return objectMapper.canSerialize(o.getClass());
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Iterator over array elements reading next element once previous one is
+	 * consumed
+	 */
+	private static class ElementIterator<T> implements CloseableIterator<T> {
+
+		/** Parser positioned before next element. NULL once exhausted */
+		private JsonParser parser;
+
+		private final ObjectReader reader;
+
+		private T next;
+
+		/** Whether next element has been read already */
+		private boolean ready;
+
+		public ElementIterator(JsonParser parser, ObjectReader reader) {
+			this.parser = parser;
+			this.reader = reader;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (ready) {
+				return true;
+			}
+			if (null == parser) {
+				return false;
+			}
+			try {
+				if (JsonToken.END_ARRAY == parser.nextToken()) {
+					close();
+					return false;
+				}
+				next = reader.readValue(parser);
+				ready = true;
+				return true;
+			} catch (JsonProcessingException e) {
+				close();
+				throw new UncheckedRestEndpointIOException(new SerializerException("Unable to deserialize array element", e));
+			} catch (IOException e) {
+				close();
+				throw new UncheckedRestEndpointIOException(new RestEndpointIOException("Unable to read array element", e));
+			}
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			T element = next;
+			next = null;
+			ready = false;
+			return element;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() {
+			IOUtils.closeQuietly(parser);
+			parser = null;
+		}
+	}
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.base.Preconditions;
+import com.google.common.net.MediaType;
+
+/**
+ * Serializer uses Jackson2 Smile
+ * {@link https://github.com/FasterXML/smile-format-specification} binary
+ * JSON-compatible data format. Content is usually smaller and faster to
+ * encode/decode than JSON text, and the same Jackson-annotated POJOs may be
+ * used. Produces and reads <code>application/x-jackson-smile</code> content
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class Jackson2SmileSerializer extends Jackson2Serializer {
+
+	/** Smile Media Type */
+	public static final MediaType SMILE = MediaType.create("application", "x-jackson-smile");
+
+	public Jackson2SmileSerializer() {
+		this(new ObjectMapper(new SmileFactory()));
+	}
+
+	public Jackson2SmileSerializer(ObjectMapper objectMapper) {
+		this(objectMapper, DEFAULT_CACHE_SIZE);
+	}
+
+	public Jackson2SmileSerializer(ObjectMapper objectMapper, int cacheSize) {
+		super(objectMapper, cacheSize, SMILE);
+		Preconditions.checkArgument(objectMapper.getFactory() instanceof SmileFactory, "Object Mapper should be created with SmileFactory");
+	}
+
+}
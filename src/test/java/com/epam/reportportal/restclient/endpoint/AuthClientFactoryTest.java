@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.epam.reportportal.apache.http.HttpClientConnection;
+import com.epam.reportportal.apache.http.HttpHost;
+import com.epam.reportportal.apache.http.conn.routing.HttpRoute;
+import com.epam.reportportal.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import com.epam.reportportal.apache.http.protocol.BasicHttpContext;
+
+/**
+ * Unit tests for connection pool built by {@link AuthClientFactory}
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class AuthClientFactoryTest {
+
+	private ServerSocket server;
+
+	private HttpRoute route;
+
+	@Before
+	public void startServer() throws IOException {
+		/* connections are accepted by socket backlog, no I/O is needed */
+		server = new ServerSocket(0, 10, InetAddress.getLoopbackAddress());
+		route = new HttpRoute(new HttpHost("localhost", server.getLocalPort()));
+	}
+
+	@After
+	public void stopServer() throws IOException {
+		server.close();
+	}
+
+	@Test
+	public void testPoolLimits() {
+		ConnectionPoolConfig config = new ConnectionPoolConfig.Builder().maxConnPerRoute(3).maxConnTotal(7).build();
+		PoolingHttpClientConnectionManager connectionManager = new AuthClientFactory(null, null, config).initConnectionManager();
+		try {
+			Assert.assertEquals("Incorrect max total connections", 7, connectionManager.getMaxTotal());
+			Assert.assertEquals("Incorrect max connections per route", 3, connectionManager.getDefaultMaxPerRoute());
+			Assert.assertEquals("Incorrect max connections of route", 3, connectionManager.getMaxPerRoute(route));
+		} finally {
+			connectionManager.shutdown();
+		}
+	}
+
+	@Test
+	public void testConnectionTtl() throws Exception {
+		ConnectionPoolConfig config = new ConnectionPoolConfig.Builder().connectionTtl(100, TimeUnit.MILLISECONDS).build();
+		PoolingHttpClientConnectionManager connectionManager = new AuthClientFactory(null, null, config).initConnectionManager();
+		try {
+			releaseOpenConnection(connectionManager);
+			Assert.assertEquals("Connection is not kept in pool", 1, connectionManager.getTotalStats().getAvailable());
+
+			Thread.sleep(200);
+			connectionManager.closeExpiredConnections();
+			Assert.assertEquals("Connection TTL is not applied", 0, connectionManager.getTotalStats().getAvailable());
+		} finally {
+			connectionManager.shutdown();
+		}
+	}
+
+	@Test
+	public void testIdleConnectionEviction() throws Exception {
+		ConnectionPoolConfig config = new ConnectionPoolConfig.Builder().maxIdleTime(50, TimeUnit.MILLISECONDS)
+				.evictionInterval(50, TimeUnit.MILLISECONDS).build();
+		PoolingHttpClientConnectionManager connectionManager = new AuthClientFactory(null, null, config).initConnectionManager();
+		try {
+			releaseOpenConnection(connectionManager);
+			Assert.assertTrue("Idle connection is not evicted", awaitNoAvailable(connectionManager, 5000));
+		} finally {
+			connectionManager.shutdown();
+		}
+	}
+
+	@Test
+	public void testNoEvictionByDefault() throws Exception {
+		PoolingHttpClientConnectionManager connectionManager = new AuthClientFactory(null, null, ConnectionPoolConfig.DEFAULT)
+				.initConnectionManager();
+		try {
+			releaseOpenConnection(connectionManager);
+			Thread.sleep(200);
+			Assert.assertEquals("Connection is evicted without evictor", 1, connectionManager.getTotalStats().getAvailable());
+		} finally {
+			connectionManager.shutdown();
+		}
+	}
+
+	/**
+	 * Leases connection, opens it and returns back to pool as reusable one
+	 */
+	private void releaseOpenConnection(PoolingHttpClientConnectionManager connectionManager) throws Exception {
+		BasicHttpContext context = new BasicHttpContext();
+		HttpClientConnection connection = connectionManager.requestConnection(route, null).get(1, TimeUnit.SECONDS);
+		connectionManager.connect(connection, route, 1000, context);
+		connectionManager.routeComplete(connection, route, context);
+		connectionManager.releaseConnection(connection, null, -1, TimeUnit.MILLISECONDS);
+	}
+
+	private boolean awaitNoAvailable(PoolingHttpClientConnectionManager connectionManager, long timeoutMillis)
+			throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		while (connectionManager.getTotalStats().getAvailable() > 0) {
+			if (System.currentTimeMillis() > deadline) {
+				return false;
+			}
+			Thread.sleep(10);
+		}
+		return true;
+	}
+}
@@ -20,7 +20,12 @@
  */
 package com.epam.reportportal.restclient.endpoint;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -29,6 +34,8 @@ import com.epam.reportportal.apache.http.Consts;
 import com.epam.reportportal.apache.http.HttpResponse;
 import com.epam.reportportal.apache.http.HttpVersion;
 import com.epam.reportportal.apache.http.StatusLine;
+import com.epam.reportportal.apache.http.entity.ContentType;
+import com.epam.reportportal.apache.http.entity.InputStreamEntity;
 import com.epam.reportportal.apache.http.entity.StringEntity;
 import com.epam.reportportal.apache.http.impl.EnglishReasonPhraseCatalog;
 import com.epam.reportportal.apache.http.message.BasicHttpResponse;
@@ -36,6 +43,9 @@ import com.epam.reportportal.apache.http.message.BasicStatusLine;
 import com.epam.reportportal.restclient.endpoint.exception.RestEndpointClientException;
 import com.epam.reportportal.restclient.endpoint.exception.RestEndpointIOException;
 import com.epam.reportportal.restclient.endpoint.exception.RestEndpointServerException;
+import com.epam.reportportal.restclient.serializer.Jackson2Serializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
 import com.google.inject.Key;
 
 /**
@@ -79,6 +89,23 @@ public class DefaultErrorHandlerTest {
 		Assert.assertFalse("Redirection response is handled", handler.hasError(response));
 	}
 
+	@Test
+	public void testStatusType() {
+		Assert.assertEquals("Incorrect status type", StatusType.INFORMATIONAL, StatusType.valueOf(100));
+		Assert.assertEquals("Incorrect status type", StatusType.SUCCESSFUL, StatusType.valueOf(299));
+		Assert.assertEquals("Incorrect status type", StatusType.SERVER_ERROR, StatusType.valueOf(599));
+		Assert.assertTrue("Client error is not an error", StatusType.CLIENT_ERROR.isError());
+		Assert.assertFalse("Redirection is an error", StatusType.REDIRECTION.isError());
+		for (int status : new int[] { -100, 99, 600 }) {
+			try {
+				StatusType.valueOf(status);
+				Assert.fail("Status type of unknown code " + status + " is found");
+			} catch (IllegalArgumentException e) {
+				/* expected */
+			}
+		}
+	}
+
 	@Test(expected = RestEndpointClientException.class)
 	public void testErrorHandlerClientError() throws RestEndpointIOException {
 		HttpResponse response = getHttpResponse(404, "Not Found");
@@ -109,10 +136,140 @@ public class DefaultErrorHandlerTest {
 		handler.handle(response);
 	}
 
+	@Test
+	public void testHandleIfError() throws RestEndpointIOException {
+		DefaultErrorHandler handler = new DefaultErrorHandler();
+		Assert.assertFalse("Success response is handled", handler.handleIfError(getHttpResponse(200, "Success")));
+		try {
+			handler.handleIfError(getHttpResponse(404, "Not Found"));
+			Assert.fail("Client error is not thrown");
+		} catch (RestEndpointClientException e) {
+			Assert.assertEquals("Incorrect status code", 404, e.getStatusCode());
+		}
+	}
+
+	@Test
+	public void testOverriddenErrorCheck() throws RestEndpointIOException {
+		DefaultErrorHandler lenient = new DefaultErrorHandler() {
+			@Override
+			public boolean hasError(HttpResponse rs) {
+				return 404 != rs.getStatusLine().getStatusCode() && super.hasError(rs);
+			}
+		};
+		HttpResponse response = getHttpResponse(404, "Not Found");
+		Assert.assertFalse("Overridden check is ignored", lenient.handleIfError(response));
+		lenient.handle(response);
+	}
+
+	@Test
+	public void testOverriddenHandle() throws RestEndpointIOException {
+		final List<Integer> handled = Lists.newArrayList();
+		DefaultErrorHandler custom = new DefaultErrorHandler() {
+			@Override
+			public void handle(HttpResponse rs) throws RestEndpointIOException {
+				handled.add(rs.getStatusLine().getStatusCode());
+			}
+		};
+		Assert.assertTrue("Error is not handled", custom.handleIfError(getHttpResponse(404, "Not Found")));
+		Assert.assertEquals("Overridden handler is skipped", Lists.newArrayList(404), handled);
+	}
+
+	@Test
+	public void testErrorHandlerRetryAfter() throws RestEndpointIOException {
+		HttpResponse response = getHttpResponse(503, "Service Unavailable");
+		response.setHeader("Retry-After", "120");
+		try {
+			handler.handle(response);
+			Assert.fail("Server error is not thrown");
+		} catch (RestEndpointServerException e) {
+			Assert.assertEquals("Incorrect Retry-After", 120000L, e.getRetryAfter());
+		}
+	}
+
+	@Test
+	public void testErrorHandlerBodyLimit() throws RestEndpointIOException {
+		HttpResponse response = getHttpResponse(500, "Internal Server Error");
+		try {
+			new DefaultErrorHandler(Collections.<Serializer> emptyList(), 4).handle(response);
+			Assert.fail("Server error is not thrown");
+		} catch (RestEndpointServerException e) {
+			Assert.assertEquals("Incorrect body", "test", new String(e.getContent(), Consts.UTF_8));
+			Assert.assertTrue("Body is not truncated", e.isContentTruncated());
+		}
+
+		try {
+			new DefaultErrorHandler(Collections.<Serializer> emptyList(), 0).handle(response);
+			Assert.fail("Server error is not thrown");
+		} catch (RestEndpointServerException e) {
+			Assert.assertNull("Body is captured", e.getContent());
+		}
+	}
+
+	@Test
+	public void testErrorHandlerReleasesConnection() throws RestEndpointIOException {
+		/* small body isn't captured, but is drained */
+		TrackingStream small = new TrackingStream(16);
+		assertHandled(new DefaultErrorHandler(Collections.<Serializer> emptyList(), 0), small, 16);
+		Assert.assertTrue("Small body is not drained", small.closed);
+
+		/* the rest of large body is left for abort */
+		TrackingStream large = new TrackingStream(64 * 1024);
+		RestEndpointServerException e = assertHandled(new DefaultErrorHandler(Collections.<Serializer> emptyList(), 4), large, 64 * 1024);
+		Assert.assertTrue("Body is not truncated", e.isContentTruncated());
+		Assert.assertFalse("Large body is drained", large.closed);
+
+		/* truncation of body of unknown length is detected by probing */
+		e = assertHandled(new DefaultErrorHandler(Collections.<Serializer> emptyList(), 4), new TrackingStream(5), -1);
+		Assert.assertTrue("Body is not truncated", e.isContentTruncated());
+		Assert.assertEquals("Incorrect body size", 4, e.getContent().length);
+
+		e = assertHandled(new DefaultErrorHandler(Collections.<Serializer> emptyList(), 4), new TrackingStream(4), -1);
+		Assert.assertFalse("Body is truncated", e.isContentTruncated());
+	}
+
+	@Test
+	public void testErrorHandlerStructuredBody() throws RestEndpointIOException {
+		HttpResponse response = getHttpResponse(404, "Not Found");
+		response.setEntity(new StringEntity("{\"errorCode\":4040}", ContentType.APPLICATION_JSON));
+		try {
+			new DefaultErrorHandler(Collections.<Serializer> singletonList(new Jackson2Serializer(new ObjectMapper()))).handle(response);
+			Assert.fail("Client error is not thrown");
+		} catch (RestEndpointClientException e) {
+			Assert.assertFalse("Body is truncated", e.isContentTruncated());
+			Assert.assertEquals("Incorrect error", 4040, e.getContent(Map.class).get("errorCode"));
+		}
+	}
+
+	private RestEndpointServerException assertHandled(DefaultErrorHandler handler, TrackingStream body, long length)
+			throws RestEndpointIOException {
+		HttpResponse response = getHttpResponse(500, "Internal Server Error");
+		response.setEntity(new InputStreamEntity(body, length));
+		try {
+			handler.handle(response);
+			throw new AssertionError("Server error is not thrown");
+		} catch (RestEndpointServerException e) {
+			return e;
+		}
+	}
+
 	private HttpResponse getHttpResponse(int statusCode, String message) {
 		StatusLine statusLine = new BasicStatusLine(HttpVersion.HTTP_1_1, statusCode, message);
 		BasicHttpResponse response = new BasicHttpResponse(statusLine, EnglishReasonPhraseCatalog.INSTANCE, Locale.US);
 		response.setEntity(new StringEntity("test string response body", Consts.UTF_8));
 		return response;
 	}
+
+	private static class TrackingStream extends ByteArrayInputStream {
+
+		private boolean closed;
+
+		TrackingStream(int size) {
+			super(new byte[size]);
+		}
+
+		@Override
+		public void close() throws IOException {
+			closed = true;
+		}
+	}
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link LatencyHistogram}
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class LatencyHistogramTest {
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i);
+		}
+		Assert.assertEquals("Incorrect count", 1000, histogram.getCount());
+		Assert.assertEquals("Incorrect max", 1000, histogram.getMax());
+		Assert.assertEquals("Incorrect mean", 500.5, histogram.getMean(), 0.001);
+		assertWithinError(500, histogram.getValueAtPercentile(50));
+		assertWithinError(990, histogram.getValueAtPercentile(99));
+		Assert.assertEquals("Incorrect 100th percentile", 1000, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void testEmpty() {
+		Assert.assertEquals("Incorrect percentile of empty histogram", 0, new LatencyHistogram().getValueAtPercentile(99));
+	}
+
+	@Test
+	public void testResourceTemplate() {
+		Assert.assertEquals("/api/v1/project/item/{id}/update",
+				HistogramRequestListener.toTemplate("/api/v1/project/item/57f4a3e5c9e77c0001e3ab27/update"));
+		Assert.assertEquals("/launch/{id}", HistogramRequestListener.toTemplate("/launch/123"));
+		Assert.assertEquals("/launch/{id}", HistogramRequestListener.toTemplate("/launch/3f2504e0-4f89-11d3-9a0c-0305e82c3301"));
+		Assert.assertEquals("/api/v1/project/launch", HistogramRequestListener.toTemplate("/api/v1/project/launch"));
+	}
+
+	private void assertWithinError(long expected, long actual) {
+		Assert.assertTrue("Value " + actual + " is too far from " + expected, Math.abs(actual - expected) <= expected / 8);
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RefreshingTokenProvider}
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class RefreshingTokenProviderTest {
+
+	private final AtomicInteger issued = new AtomicInteger();
+
+	@Test
+	public void testCached() throws IOException {
+		RefreshingTokenProvider provider = new RefreshingTokenProvider(new CountingProvider(1, TimeUnit.HOURS));
+		try {
+			Assert.assertSame("Token is not cached", provider.getToken(), provider.getToken());
+			Assert.assertEquals("Incorrect count of issued tokens", 1, issued.get());
+		} finally {
+			provider.close();
+		}
+	}
+
+	@Test
+	public void testSingleFlightInvalidation() throws Exception {
+		final RefreshingTokenProvider provider = new RefreshingTokenProvider(new CountingProvider(1, TimeUnit.HOURS));
+		final AccessToken rejected = provider.getToken();
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			for (int i = 0; i < 8; i++) {
+				executor.submit(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							start.await();
+						} catch (InterruptedException e) {
+							return;
+						}
+						provider.invalidate(rejected);
+					}
+				});
+			}
+			start.countDown();
+			executor.shutdown();
+			Assert.assertTrue("Invalidation is not completed", executor.awaitTermination(5, TimeUnit.SECONDS));
+			Assert.assertEquals("Token is refreshed more than once", 2, issued.get());
+			Assert.assertNotSame("Token is not refreshed", rejected, provider.getToken());
+		} finally {
+			provider.close();
+		}
+	}
+
+	@Test
+	public void testBackgroundRefresh() throws Exception {
+		RefreshingTokenProvider provider = new RefreshingTokenProvider(new CountingProvider(200, TimeUnit.MILLISECONDS), 150,
+				TimeUnit.MILLISECONDS);
+		try {
+			AccessToken first = provider.getToken();
+			TimeUnit.MILLISECONDS.sleep(120);
+			Assert.assertNotSame("Token is not refreshed in background", first, provider.getToken());
+			Assert.assertTrue("Token is not refreshed in background", issued.get() >= 2);
+		} finally {
+			provider.close();
+		}
+	}
+
+	private class CountingProvider implements TokenProvider {
+
+		private final long expiresIn;
+
+		private final TimeUnit unit;
+
+		CountingProvider(long expiresIn, TimeUnit unit) {
+			this.expiresIn = expiresIn;
+			this.unit = unit;
+		}
+
+		@Override
+		public AccessToken getToken() {
+			return new AccessToken("token" + issued.incrementAndGet(), expiresIn, unit);
+		}
+
+		@Override
+		public void invalidate(AccessToken token) {
+		}
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.epam.reportportal.restclient.serializer.Jackson2Serializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.mockwebserver.MockResponse;
+import com.google.mockwebserver.MockWebServer;
+import com.google.mockwebserver.RecordedRequest;
+
+/**
+ * Unit tests for {@link RequestBatcher}
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class RequestBatcherTest {
+
+	private static final Type RESPONSE_TYPE = new ParameterizedTypeReference<List<String>>() {
+	}.getType();
+
+	private MockWebServer server;
+
+	private RestEndpoint endpoint;
+
+	@Before
+	public void before() throws IOException {
+		server = new MockWebServer();
+		server.play();
+		endpoint = new HttpClientRestEndpoint(new AuthClientFactory(null).createHttpClient(),
+				Collections.<Serializer> singletonList(new Jackson2Serializer(new ObjectMapper())), new DefaultErrorHandler(), server
+						.getUrl("/").toString());
+	}
+
+	@After
+	public void after() throws IOException {
+		server.shutdown();
+	}
+
+	@Test
+	public void testBatchBySize() throws Exception {
+		server.enqueue(new MockResponse().setBody("[\"1\",\"2\"]").setHeader("Content-Type", "application/json"));
+		RequestBatcher<String, String> batcher = new RequestBatcher<String, String>(endpoint, "/log", RESPONSE_TYPE, 2, 1,
+				TimeUnit.HOURS);
+		try {
+			ListenableFuture<String> first = batcher.submit("first");
+			ListenableFuture<String> second = batcher.submit("second");
+
+			Assert.assertEquals("Incorrect slice of response", "1", first.get(5, TimeUnit.SECONDS));
+			Assert.assertEquals("Incorrect slice of response", "2", second.get(5, TimeUnit.SECONDS));
+		} finally {
+			batcher.close();
+		}
+
+		RecordedRequest request = server.takeRequest();
+		Assert.assertEquals("Incorrect body", "[\"first\",\"second\"]", new String(request.getBody()));
+		Assert.assertEquals("Requests are not batched", 1, server.getRequestCount());
+	}
+
+	@Test
+	public void testBatchByTime() throws Exception {
+		server.enqueue(new MockResponse().setBody("[\"1\"]").setHeader("Content-Type", "application/json"));
+		RequestBatcher<String, String> batcher = new RequestBatcher<String, String>(endpoint, "/log", RESPONSE_TYPE, 100, 10,
+				TimeUnit.MILLISECONDS);
+		try {
+			Assert.assertEquals("Incorrect slice of response", "1", batcher.submit("first").get(5, TimeUnit.SECONDS));
+		} finally {
+			batcher.close();
+		}
+	}
+}
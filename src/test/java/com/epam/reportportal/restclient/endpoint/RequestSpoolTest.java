@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+/**
+ * Unit tests for {@link RequestSpool}
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class RequestSpoolTest {
+
+	private static final int SEGMENT_SIZE = 64;
+
+	private File directory;
+
+	@Before
+	public void createDirectory() {
+		directory = Files.createTempDir();
+	}
+
+	@After
+	public void deleteDirectory() {
+		for (File file : directory.listFiles()) {
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	@Test
+	public void testReplayOrderAcrossSegments() throws IOException {
+		RequestSpool spool = new RequestSpool(directory, SEGMENT_SIZE, 2);
+		/* 2 records of 32 bytes (with header) fill segment, the third one rolls it */
+		for (int i = 0; i < 3; i++) {
+			Assert.assertTrue("Record is not appended", spool.append(record(i)));
+		}
+		Assert.assertEquals("Segment is not rolled", 2, directory.list().length);
+		spool.remove();
+		spool.close();
+
+		RequestSpool recovered = new RequestSpool(directory, SEGMENT_SIZE, 2);
+		for (int i = 1; i < 3; i++) {
+			Assert.assertEquals("Incorrect order of records", new String(record(i), Charsets.UTF_8),
+					new String(recovered.peek(), Charsets.UTF_8));
+			recovered.remove();
+		}
+		Assert.assertTrue("Spool is not drained", recovered.isEmpty());
+		Assert.assertEquals("Delivered segments are not deleted", 0, directory.list().length);
+		recovered.close();
+	}
+
+	@Test
+	public void testSpoolFull() throws IOException {
+		RequestSpool spool = new RequestSpool(directory, SEGMENT_SIZE, 2);
+		for (int i = 0; i < 4; i++) {
+			Assert.assertTrue("Record is not appended", spool.append(record(i)));
+		}
+		Assert.assertFalse("Record is appended to full spool", spool.append(record(4)));
+		Assert.assertFalse("Too big record is appended", spool.append(new byte[SEGMENT_SIZE]));
+
+		/* room is freed once segment is delivered */
+		spool.remove();
+		spool.remove();
+		Assert.assertNotNull("Records are lost", spool.peek());
+		Assert.assertTrue("Record is not appended", spool.append(record(4)));
+		spool.close();
+	}
+
+	@Test
+	public void testTornTailRecovery() throws IOException {
+		RequestSpool spool = new RequestSpool(directory, SEGMENT_SIZE, 1);
+		spool.append(record(0));
+		spool.append(record(1));
+		spool.close();
+
+		/* corrupt payload of the last record as if it has been torn by crash */
+		File segment = directory.listFiles()[0];
+		RandomAccessFile raf = new RandomAccessFile(segment, "rw");
+		try {
+			raf.seek(SpoolSegment.HEADER_SIZE * 2 + record(0).length + 3);
+			raf.write('X');
+		} finally {
+			raf.close();
+		}
+
+		RequestSpool recovered = new RequestSpool(directory, SEGMENT_SIZE, 1);
+		Assert.assertEquals("Valid record is lost", new String(record(0), Charsets.UTF_8), new String(recovered.peek(), Charsets.UTF_8));
+		/* torn record is discarded, so its space is reused */
+		Assert.assertTrue("Record is not appended after recovered tail", recovered.append(record(2)));
+		recovered.remove();
+		Assert.assertEquals("Torn record is not discarded", new String(record(2), Charsets.UTF_8),
+				new String(recovered.peek(), Charsets.UTF_8));
+		recovered.remove();
+		Assert.assertTrue("Spool is not drained", recovered.isEmpty());
+		recovered.close();
+	}
+
+	private static byte[] record(int i) {
+		return String.format("{\"message\":\"record %02d\"}", i).getBytes(Charsets.UTF_8);
+	}
+}
@@ -20,13 +20,57 @@
  */
 package com.epam.reportportal.restclient.endpoint;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.epam.reportportal.apache.http.HttpException;
+import com.epam.reportportal.apache.http.HttpHost;
+import com.epam.reportportal.apache.http.HttpRequest;
+import com.epam.reportportal.apache.http.HttpResponse;
+import com.epam.reportportal.apache.http.auth.UsernamePasswordCredentials;
+import com.epam.reportportal.apache.http.message.BasicHttpRequest;
+import com.epam.reportportal.apache.http.protocol.HttpCoreContext;
+import com.epam.reportportal.restclient.endpoint.exception.CircuitBreakerOpenException;
+import com.epam.reportportal.restclient.endpoint.exception.RequestSpooledException;
+import com.epam.reportportal.restclient.endpoint.exception.RequestThrottledException;
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointClientException;
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointException;
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointIOException;
+import com.epam.reportportal.restclient.endpoint.exception.RestEndpointServerException;
+import com.epam.reportportal.restclient.endpoint.exception.SerializerException;
+import com.epam.reportportal.restclient.serializer.Jackson2CborSerializer;
+import com.epam.reportportal.restclient.serializer.Jackson2Serializer;
+import com.epam.reportportal.restclient.serializer.Jackson2SmileSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.mockwebserver.MockResponse;
 import com.google.mockwebserver.MockWebServer;
 import com.google.mockwebserver.RecordedRequest;
@@ -115,6 +159,697 @@ public class RestEndointTest {
 		Assert.assertEquals("Incorrect Request Line", "POST / HTTP/1.1", request.getRequestLine());
 	}
 
+	@Test
+	public void testMultipartFile() throws IOException, InterruptedException {
+		File file = File.createTempFile("attachment", ".txt");
+		file.deleteOnExit();
+		Files.write("test attachment", file, Charsets.UTF_8);
+
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		MultiPartRequest<String> multiPartRequest = new MultiPartRequest.Builder<String>().addSerializedPart("json_request_part",
+				SERIALIZED_STRING).addBinaryPart("file", "attachment.txt", "text/plain", file).build();
+		endpoint.post("/", multiPartRequest, String.class);
+
+		RecordedRequest request = server.takeRequest();
+		Assert.assertTrue("Multipart request is sent chunked", request.getChunkSizes().isEmpty());
+		Assert.assertNotNull("Content-Length is not set", request.getHeader("Content-Length"));
+		Assert.assertTrue("File is not sent", request.getUtf8Body().contains("test attachment"));
+	}
+
+	@Test
+	public void testCompression() throws IOException, InterruptedException {
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		((HttpClientRestEndpoint) endpoint).setCompressionThreshold(SERIALIZED_STRING.length() - 1);
+		endpoint.post("/", SERIALIZED_STRING, String.class);
+		endpoint.post("/", "{}", String.class);
+
+		RecordedRequest compressed = server.takeRequest();
+		Assert.assertEquals("Body is not compressed", "gzip", compressed.getHeader("Content-Encoding"));
+		Assert.assertEquals("Incorrect Content-Length", Long.toString(compressed.getBodySize()), compressed.getHeader("Content-Length"));
+		Assert.assertEquals("Incorrect body", SERIALIZED_STRING,
+				new String(ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed.getBody()))), Charsets.UTF_8));
+
+		RecordedRequest plain = server.takeRequest();
+		Assert.assertNull("Body below threshold is compressed", plain.getHeader("Content-Encoding"));
+		Assert.assertNotNull("Content-Length is not set", plain.getHeader("Content-Length"));
+		Assert.assertEquals("Incorrect body", "{}", plain.getUtf8Body());
+	}
+
+	@Test
+	public void testConnectionReuse() throws IOException, InterruptedException {
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		endpoint.get("/", String.class);
+		endpoint.get("/", String.class);
+
+		RecordedRequest first = server.takeRequest();
+		RecordedRequest second = server.takeRequest();
+		Assert.assertEquals("Connection is not reused", first.getSequenceNumber() + 1, second.getSequenceNumber());
+	}
+
+	@Test
+	public void testRequestMetrics() throws IOException, InterruptedException {
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		HistogramRequestListener listener = new HistogramRequestListener();
+		((HttpClientRestEndpoint) endpoint).setRequestListener(listener);
+		endpoint.put("/item/57f4a3e5c9e77c0001e3ab27", SERIALIZED_STRING, String.class);
+		server.takeRequest();
+
+		HistogramRequestListener.EndpointStats stats = listener.getStats().get("PUT /item/{id}");
+		Assert.assertNotNull("Stats are not collected", stats);
+		Assert.assertEquals("Incorrect count of requests", 1, stats.getCount());
+		Assert.assertEquals("Incorrect count of errors", 0, stats.getErrors());
+		Assert.assertEquals("Incorrect bytes sent", SERIALIZED_STRING.length(), stats.getBytesSent());
+		Assert.assertEquals("Incorrect bytes received", SERIALIZED_STRING.length(), stats.getBytesReceived());
+		Assert.assertEquals("Connection lease is not timed", 1, stats.getConnectionLeaseTime().getCount());
+		Assert.assertTrue("Connection lease is included into response time",
+				stats.getConnectionLeaseTime().getMax() + stats.getResponseTime().getMax() <= stats.getTotalTime().getMax());
+	}
+
+	@Test
+	public void testAsyncGet() throws Exception {
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		ExecutorAsyncRestEndpoint asyncEndpoint = new ExecutorAsyncRestEndpoint(endpoint, 1);
+		try {
+			String to = asyncEndpoint.get("/", String.class).get(5, TimeUnit.SECONDS);
+			Assert.assertEquals("Incorrect response body", SERIALIZED_STRING, to);
+		} finally {
+			asyncEndpoint.close();
+		}
+
+		RecordedRequest request = server.takeRequest();
+		Assert.assertEquals("Incorrect Request Line", "GET / HTTP/1.1", request.getRequestLine());
+	}
+
+	@Test
+	public void testNonBlockingAsync() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			server.enqueue(prepareResponse(SERIALIZED_STRING));
+		}
+		server.enqueue(new MockResponse().setResponseCode(404).setBody("not found"));
+		HttpAsyncClientRestEndpoint asyncEndpoint = new HttpAsyncClientRestEndpoint(new AuthClientFactory(null).createHttpAsyncClient(),
+				Lists.<Serializer> newArrayList(new StringSerializer()), null, "http://localhost:" + GuiceTestModule.MOCK_PORT);
+		try {
+			List<ListenableFuture<String>> responses = Lists.newArrayList();
+			for (int i = 0; i < 3; i++) {
+				responses.add(asyncEndpoint.get("/", String.class));
+			}
+			for (String to : Futures.allAsList(responses).get(5, TimeUnit.SECONDS)) {
+				Assert.assertEquals("Incorrect response body", SERIALIZED_STRING, to);
+			}
+
+			try {
+				asyncEndpoint.get("/", String.class).get(5, TimeUnit.SECONDS);
+				Assert.fail("Error isn't handled");
+			} catch (ExecutionException e) {
+				Assert.assertTrue("Incorrect exception", e.getCause() instanceof RestEndpointClientException);
+				Assert.assertEquals("Incorrect error body", "not found", new String(((RestEndpointClientException) e.getCause()).getContent(), Charsets.UTF_8));
+			}
+		} finally {
+			asyncEndpoint.close();
+		}
+
+		for (int i = 0; i < 4; i++) {
+			Assert.assertEquals("Incorrect Request Line", "GET / HTTP/1.1", server.takeRequest().getRequestLine());
+		}
+	}
+
+	@Test
+	public void testCustomErrorHandler() throws IOException, InterruptedException {
+		server.enqueue(prepareResponse(SERIALIZED_STRING).setResponseCode(404));
+		final List<Integer> handled = Lists.newArrayList();
+		RestEndpoint custom = new HttpClientRestEndpoint(new AuthClientFactory(null).createHttpClient(),
+				Lists.<Serializer> newArrayList(new StringSerializer()), new DefaultErrorHandler() {
+					@Override
+					public void handle(HttpResponse rs) throws RestEndpointIOException {
+						handled.add(rs.getStatusLine().getStatusCode());
+					}
+				}, "http://localhost:" + GuiceTestModule.MOCK_PORT);
+		Assert.assertEquals("Incorrect response", SERIALIZED_STRING, custom.get("/", String.class));
+		Assert.assertEquals("Overridden handler is skipped", Lists.newArrayList(404), handled);
+		server.takeRequest();
+	}
+
+	@Test
+	public void testByteArraySerializerFallback() throws Exception {
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		final StringSerializer delegate = new StringSerializer();
+		Serializer byteArrayOnly = new Serializer() {
+			@Override
+			public <T> InputStream serialize(T t) throws SerializerException {
+				return delegate.serialize(t);
+			}
+
+			@Override
+			public <T> T deserialize(byte[] content, Class<T> clazz) throws SerializerException {
+				return delegate.deserialize(content, clazz);
+			}
+
+			@Override
+			public <T> T deserialize(byte[] content, Type type) throws SerializerException {
+				return delegate.deserialize(content, type);
+			}
+
+			@Override
+			public String getMimeType() {
+				return delegate.getMimeType();
+			}
+
+			@Override
+			public boolean canRead(String mimeType) {
+				return delegate.canRead(mimeType);
+			}
+
+			@Override
+			public boolean canWrite(Object o) {
+				return delegate.canWrite(o);
+			}
+		};
+		RestEndpoint legacy = new HttpClientRestEndpoint(new AuthClientFactory(null).createHttpClient(),
+				Lists.newArrayList(byteArrayOnly), null, "http://localhost:" + GuiceTestModule.MOCK_PORT);
+		Assert.assertEquals("Incorrect response", SERIALIZED_STRING, legacy.post("/", SERIALIZED_STRING, String.class));
+		Assert.assertEquals("Incorrect body", SERIALIZED_STRING, new String(server.takeRequest().getBody(), Charsets.UTF_8));
+
+		HttpAsyncClientRestEndpoint asyncLegacy = new HttpAsyncClientRestEndpoint(new AuthClientFactory(null).createHttpAsyncClient(),
+				Lists.newArrayList(byteArrayOnly), null, "http://localhost:" + GuiceTestModule.MOCK_PORT);
+		try {
+			Assert.assertEquals("Incorrect response", SERIALIZED_STRING, asyncLegacy.get("/", String.class).get(5, TimeUnit.SECONDS));
+		} finally {
+			asyncLegacy.close();
+		}
+		server.takeRequest();
+	}
+
+	@Test
+	public void testNonBlockingMultipartFile() throws Exception {
+		File file = File.createTempFile("attachment", ".txt");
+		file.deleteOnExit();
+		String attachment = Strings.repeat("test attachment ", 8192);
+		Files.write(attachment, file, Charsets.UTF_8);
+
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		MultiPartRequest<String> multiPartRequest = new MultiPartRequest.Builder<String>().addSerializedPart("json_request_part",
+				SERIALIZED_STRING).addBinaryPart("file", "attachment.txt", "text/plain", file).build();
+		HttpAsyncClientRestEndpoint asyncEndpoint = new HttpAsyncClientRestEndpoint(new AuthClientFactory(null).createHttpAsyncClient(),
+				Lists.<Serializer> newArrayList(new StringSerializer()), null, "http://localhost:" + GuiceTestModule.MOCK_PORT);
+		try {
+			Assert.assertEquals("Incorrect response body", SERIALIZED_STRING,
+					asyncEndpoint.post("/", multiPartRequest, String.class).get(5, TimeUnit.SECONDS));
+		} finally {
+			asyncEndpoint.close();
+		}
+
+		RecordedRequest request = server.takeRequest();
+		Assert.assertEquals("Incorrect Content-Length", Long.toString(request.getBodySize()), request.getHeader("Content-Length"));
+		String body = request.getUtf8Body();
+		Assert.assertTrue("Serialized part is not sent", body.contains(SERIALIZED_STRING));
+		Assert.assertTrue("File is not sent", body.contains(attachment));
+	}
+
+	@Test
+	public void testRetry() throws IOException, InterruptedException {
+		server.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "0"));
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		RestEndpoint retrying = new RetryingRestEndpoint(endpoint, new RetryPolicy.Builder().initialBackoff(10, TimeUnit.MILLISECONDS)
+				.build());
+		Assert.assertEquals("Incorrect response body", SERIALIZED_STRING, retrying.get("/", String.class));
+
+		Assert.assertEquals("Incorrect Request Line", "GET / HTTP/1.1", server.takeRequest().getRequestLine());
+		Assert.assertEquals("Request is not retried", "GET / HTTP/1.1", server.takeRequest().getRequestLine());
+	}
+
+	@Test
+	public void testRetryNonIdempotent() throws IOException, InterruptedException {
+		server.enqueue(new MockResponse().setResponseCode(503));
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		RestEndpoint retrying = new RetryingRestEndpoint(endpoint);
+		try {
+			retrying.post("/", SERIALIZED_STRING, String.class);
+			Assert.fail("Server error is not thrown");
+		} catch (RestEndpointServerException e) {
+			Assert.assertEquals("Incorrect status code", 503, e.getStatusCode());
+		}
+		/* consume response enqueued for retry */
+		endpoint.get("/", String.class);
+
+		Assert.assertEquals("Incorrect Request Line", "POST / HTTP/1.1", server.takeRequest().getRequestLine());
+		Assert.assertEquals("POST request is retried", "GET / HTTP/1.1", server.takeRequest().getRequestLine());
+	}
+
+	@Test
+	public void testCircuitBreaker() throws IOException, InterruptedException {
+		server.enqueue(new MockResponse().setResponseCode(503));
+		server.enqueue(new MockResponse().setResponseCode(503));
+		CircuitBreakerRestEndpoint breaker = new CircuitBreakerRestEndpoint(endpoint, new CircuitBreakerConfig.Builder().windowSize(2)
+				.minimumCalls(2).openDuration(100, TimeUnit.MILLISECONDS).halfOpenCalls(1).build());
+		for (int i = 0; i < 2; i++) {
+			try {
+				breaker.get("/", String.class);
+				Assert.fail("Server error is not thrown");
+			} catch (RestEndpointServerException e) {
+				server.takeRequest();
+			}
+		}
+		Assert.assertEquals("Circuit is not opened", CircuitBreakerRestEndpoint.State.OPEN, breaker.getState());
+
+		int requestCount = server.getRequestCount();
+		try {
+			breaker.get("/", String.class);
+			Assert.fail("Request is not rejected");
+		} catch (CircuitBreakerOpenException e) {
+			Assert.assertEquals("Request is sent while circuit is open", requestCount, server.getRequestCount());
+		}
+
+		TimeUnit.MILLISECONDS.sleep(150);
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		Assert.assertEquals("Incorrect response body", SERIALIZED_STRING, breaker.get("/", String.class));
+		server.takeRequest();
+		Assert.assertEquals("Circuit is not closed", CircuitBreakerRestEndpoint.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	public void testCircuitBreakerUnexpectedFailure() throws IOException {
+		RestEndpoint broken = new RestEndpointDecorator(endpoint) {
+			@Override
+			protected <RS> RS execute(HttpMethod method, String resource, Invocation<RS> invocation) {
+				throw new IllegalStateException("Connection pool shut down");
+			}
+		};
+		CircuitBreakerRestEndpoint breaker = new CircuitBreakerRestEndpoint(broken, new CircuitBreakerConfig.Builder().windowSize(2)
+				.minimumCalls(2).build());
+		for (int i = 0; i < 2; i++) {
+			try {
+				breaker.get("/", String.class);
+				Assert.fail("Exception is not thrown");
+			} catch (IllegalStateException e) {
+				/* expected */
+			}
+		}
+		Assert.assertEquals("Unexpected failures are not recorded", CircuitBreakerRestEndpoint.State.OPEN, breaker.getState());
+	}
+
+	@Test
+	public void testCircuitBreakerCallsOfPreviousState() throws Exception {
+		final Semaphore entered = new Semaphore(0);
+		final CountDownLatch release = new CountDownLatch(1);
+		RestEndpoint stub = new RestEndpointDecorator(endpoint) {
+			@Override
+			protected <RS> RS execute(HttpMethod method, String resource, Invocation<RS> invocation) {
+				if ("/error".equals(resource)) {
+					throw new AssertionError("Unexpected error");
+				}
+				entered.release();
+				Uninterruptibles.awaitUninterruptibly(release);
+				return null;
+			}
+		};
+		final CircuitBreakerRestEndpoint breaker = new CircuitBreakerRestEndpoint(stub, new CircuitBreakerConfig.Builder().windowSize(2)
+				.minimumCalls(2).openDuration(50, TimeUnit.MILLISECONDS).halfOpenCalls(2).build());
+
+		/* call admitted while circuit is closed */
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> closedCall = executor.submit(new Callable<String>() {
+				@Override
+				public String call() throws Exception {
+					return breaker.get("/slow", String.class);
+				}
+			});
+			Assert.assertTrue("Call is not started", entered.tryAcquire(5, TimeUnit.SECONDS));
+			for (int i = 0; i < 2; i++) {
+				try {
+					breaker.get("/error", String.class);
+					Assert.fail("Error is not thrown");
+				} catch (AssertionError e) {
+					Assert.assertEquals("Incorrect error", "Unexpected error", e.getMessage());
+				}
+			}
+			Assert.assertEquals("Errors are not recorded as failures", CircuitBreakerRestEndpoint.State.OPEN, breaker.getState());
+
+			TimeUnit.MILLISECONDS.sleep(100);
+			Future<String> trialCall = executor.submit(new Callable<String>() {
+				@Override
+				public String call() throws Exception {
+					return breaker.get("/slow", String.class);
+				}
+			});
+			Assert.assertTrue("Trial call is not started", entered.tryAcquire(5, TimeUnit.SECONDS));
+			Assert.assertEquals("Circuit is not half-open", CircuitBreakerRestEndpoint.State.HALF_OPEN, breaker.getState());
+
+			release.countDown();
+			closedCall.get(5, TimeUnit.SECONDS);
+			trialCall.get(5, TimeUnit.SECONDS);
+			Assert.assertEquals("Call of closed state is counted as trial call", CircuitBreakerRestEndpoint.State.HALF_OPEN,
+					breaker.getState());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testThrottling() throws Exception {
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		Throttler throttler = new Throttler.Builder().maxConcurrentRequests("/", 1).permitsPerSecond(1000).build();
+		ExecutorAsyncRestEndpoint asyncEndpoint = new ExecutorAsyncRestEndpoint(endpoint, 2, throttler);
+		try {
+			ListenableFuture<String> first = asyncEndpoint.get("/", String.class);
+			ListenableFuture<String> second = asyncEndpoint.get("/", String.class);
+			Assert.assertEquals("Incorrect response body", SERIALIZED_STRING, first.get(5, TimeUnit.SECONDS));
+			Assert.assertEquals("Incorrect response body", SERIALIZED_STRING, second.get(5, TimeUnit.SECONDS));
+		} finally {
+			asyncEndpoint.close();
+		}
+		server.takeRequest();
+		server.takeRequest();
+		Assert.assertEquals("Wait time is not recorded", 2, throttler.getWaitTimes().getCount());
+
+		Throttler exhausted = new Throttler.Builder().maxConcurrentRequests(1).acquireTimeout(0, TimeUnit.MILLISECONDS).build();
+		Throttler.Permit permit = exhausted.acquire("/");
+		try {
+			new ThrottlingRestEndpoint(endpoint, exhausted).get("/", String.class);
+			Assert.fail("Request is not throttled");
+		} catch (RequestThrottledException e) {
+			Assert.assertEquals("Rejection is not counted", 1, exhausted.getRejected());
+		} finally {
+			permit.release();
+		}
+
+		/* permit is held while response is read */
+		server.enqueue(prepareResponse("[1,2]"));
+		RestEndpoint jackson = new HttpClientRestEndpoint(new AuthClientFactory(null).createHttpClient(),
+				Lists.<Serializer> newArrayList(new Jackson2Serializer(new ObjectMapper())), null, "http://localhost:"
+						+ GuiceTestModule.MOCK_PORT);
+		Throttler single = new Throttler.Builder().maxConcurrentRequests(1).build();
+		CloseableIterator<Integer> elements = new ThrottlingRestEndpoint(jackson, single).iterate("/items", null, null, Integer.class);
+		Assert.assertNull("Permit is released before response is read", single.tryAcquire("/", System.nanoTime()));
+		Assert.assertEquals("Incorrect elements", Lists.newArrayList(1, 2), Lists.newArrayList(elements));
+		Assert.assertNotNull("Permit is not released", single.tryAcquire("/", System.nanoTime()));
+		server.takeRequest();
+	}
+
+	@Test
+	public void testSpool() throws IOException, InterruptedException {
+		File directory = Files.createTempDir();
+		directory.deleteOnExit();
+		SpoolConfig config = new SpoolConfig.Builder().directory(directory).segmentSize(4096).drainInterval(1, TimeUnit.HOURS).build();
+
+		server.enqueue(new MockResponse().setResponseCode(503));
+		SpoolingRestEndpoint spooling = new SpoolingRestEndpoint(endpoint, new StringSerializer(), config);
+		try {
+			spooling.post("/", SERIALIZED_STRING, String.class);
+			Assert.fail("Request is not spooled");
+		} catch (RequestSpooledException e) {
+			server.takeRequest();
+		} finally {
+			spooling.close();
+		}
+
+		/* spooled request is recovered after restart */
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		spooling = new SpoolingRestEndpoint(endpoint, new StringSerializer(), config);
+		try {
+			spooling.drain();
+		} finally {
+			spooling.close();
+		}
+
+		RecordedRequest replayed = server.takeRequest();
+		Assert.assertEquals("Incorrect Request Line", "POST / HTTP/1.1", replayed.getRequestLine());
+		Assert.assertEquals("Incorrect body", SERIALIZED_STRING, replayed.getUtf8Body());
+		Assert.assertEquals("Spooled request is dropped", 0, spooling.getDropped());
+		Assert.assertEquals("Drained segment is not deleted", 0, directory.list().length);
+	}
+
+	@Test
+	public void testSpoolKeepsOrder() throws IOException, InterruptedException {
+		File directory = Files.createTempDir();
+		directory.deleteOnExit();
+		SpoolConfig config = new SpoolConfig.Builder().directory(directory).segmentSize(4096).drainInterval(1, TimeUnit.HOURS).build();
+
+		server.enqueue(new MockResponse().setResponseCode(503));
+		SpoolingRestEndpoint spooling = new SpoolingRestEndpoint(endpoint, new StringSerializer(), config);
+		try {
+			try {
+				spooling.post("/first", SERIALIZED_STRING, String.class);
+				Assert.fail("Request is not spooled");
+			} catch (RequestSpooledException e) {
+				server.takeRequest();
+			}
+
+			try {
+				spooling.post("/second", Collections.singletonMap("param", "value"), SERIALIZED_STRING, String.class);
+				Assert.fail("Request with parameters overtakes spooled requests");
+			} catch (RequestSpooledException e) {
+				/* expected */
+			}
+
+			MultiPartRequest<String> multiPartRequest = new MultiPartRequest.Builder<String>().addSerializedPart("json_request_part",
+					SERIALIZED_STRING).build();
+			try {
+				spooling.post("/third", multiPartRequest, String.class);
+				Assert.fail("Multipart request overtakes spooled requests");
+			} catch (RequestSpooledException e) {
+				Assert.fail("Multipart request is spooled");
+			} catch (RestEndpointIOException e) {
+				/* expected */
+			}
+
+			server.enqueue(prepareResponse(SERIALIZED_STRING));
+			server.enqueue(prepareResponse(SERIALIZED_STRING));
+			spooling.drain();
+		} finally {
+			spooling.close();
+		}
+
+		Assert.assertEquals("Incorrect Request Line", "POST /first HTTP/1.1", server.takeRequest().getRequestLine());
+		RecordedRequest replayed = server.takeRequest();
+		Assert.assertEquals("Incorrect Request Line", "POST /second?param=value HTTP/1.1", replayed.getRequestLine());
+		Assert.assertEquals("Incorrect body", SERIALIZED_STRING, replayed.getUtf8Body());
+		Assert.assertEquals("Spooled request is dropped", 0, spooling.getDropped());
+	}
+
+	@Test
+	public void testConditionalGet() throws IOException, InterruptedException {
+		server.enqueue(prepareResponse(SERIALIZED_STRING).setHeader("ETag", "\"v1\""));
+		server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+		((HttpClientRestEndpoint) endpoint).setResponseCacheSize(10);
+		try {
+			String first = endpoint.get("/cached", String.class);
+			String second = endpoint.get("/cached", String.class);
+			Assert.assertSame("Cached response is not returned", first, second);
+		} finally {
+			((HttpClientRestEndpoint) endpoint).setResponseCacheSize(0);
+		}
+
+		Assert.assertNull("Unexpected validator", server.takeRequest().getHeader("If-None-Match"));
+		Assert.assertEquals("Incorrect validator", "\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+	}
+
+	@Test
+	public void testNotModifiedWithoutCachedResponse() throws IOException, InterruptedException {
+		server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+		((HttpClientRestEndpoint) endpoint).setResponseCacheSize(10);
+		try {
+			endpoint.get("/uncached", String.class);
+			Assert.fail("Not Modified response is converted");
+		} catch (RestEndpointException e) {
+			Assert.assertEquals("Incorrect status code", 304, e.getStatusCode());
+		} finally {
+			((HttpClientRestEndpoint) endpoint).setResponseCacheSize(0);
+		}
+		server.takeRequest();
+	}
+
+	@Test
+	public void testPreemptiveAuth() throws IOException, InterruptedException, HttpException {
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		AuthClientFactory clientFactory = new AuthClientFactory(new UsernamePasswordCredentials("user", "pass"));
+		clientFactory.setPreemptiveAuth("http://localhost:" + GuiceTestModule.MOCK_PORT);
+		RestEndpoint preemptive = new HttpClientRestEndpoint(clientFactory.createHttpClient(),
+				Lists.<Serializer> newArrayList(new StringSerializer()), null, "http://localhost:" + GuiceTestModule.MOCK_PORT);
+		preemptive.get("/", String.class);
+		preemptive.get("/", String.class);
+
+		for (int i = 0; i < 2; i++) {
+			Assert.assertEquals("Incorrect authorization header", "Basic dXNlcjpwYXNz", server.takeRequest().getHeader("Authorization"));
+		}
+
+		/* credentials are not sent to third-party hosts */
+		PreemptiveBasicAuthInterceptor interceptor = new PreemptiveBasicAuthInterceptor(new UsernamePasswordCredentials("user", "pass"),
+				new HttpHost("localhost", 443, "https"));
+		HttpCoreContext context = HttpCoreContext.create();
+		context.setAttribute(HttpCoreContext.HTTP_TARGET_HOST, new HttpHost("localhost", -1, "https"));
+		HttpRequest sameHost = new BasicHttpRequest("GET", "/");
+		interceptor.process(sameHost, context);
+		Assert.assertTrue("Authorization header is not added", sameHost.containsHeader("Authorization"));
+
+		context.setAttribute(HttpCoreContext.HTTP_TARGET_HOST, new HttpHost("example.com", 443, "https"));
+		HttpRequest otherHost = new BasicHttpRequest("GET", "/");
+		interceptor.process(otherHost, context);
+		Assert.assertFalse("Authorization header is sent to another host", otherHost.containsHeader("Authorization"));
+	}
+
+	@Test
+	public void testTokenRefresh() throws IOException, InterruptedException {
+		server.enqueue(new MockResponse().setResponseCode(401));
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		final AtomicInteger issued = new AtomicInteger();
+		AuthClientFactory clientFactory = new AuthClientFactory(null);
+		clientFactory.setTokenProvider(new RefreshingTokenProvider(new TokenProvider() {
+			@Override
+			public AccessToken getToken() {
+				return new AccessToken("token" + issued.incrementAndGet(), 1, TimeUnit.HOURS);
+			}
+
+			@Override
+			public void invalidate(AccessToken token) {
+			}
+		}));
+		RestEndpoint bearer = new HttpClientRestEndpoint(clientFactory.createHttpClient(),
+				Lists.<Serializer> newArrayList(new StringSerializer()), null, "http://localhost:" + GuiceTestModule.MOCK_PORT);
+		Assert.assertEquals("Incorrect response body", SERIALIZED_STRING, bearer.get("/", String.class));
+
+		Assert.assertEquals("Incorrect token", "Bearer token1", server.takeRequest().getHeader("Authorization"));
+		Assert.assertEquals("Token is not refreshed", "Bearer token2", server.takeRequest().getHeader("Authorization"));
+		Assert.assertEquals("Incorrect count of issued tokens", 2, issued.get());
+	}
+
+	@Test
+	public void testContentNegotiation() throws IOException, InterruptedException {
+		Jackson2SmileSerializer smile = new Jackson2SmileSerializer();
+		HttpClientRestEndpoint negotiating = new HttpClientRestEndpoint(new AuthClientFactory(null).createHttpClient(),
+				Lists.<Serializer> newArrayList(smile, new Jackson2Serializer(new ObjectMapper())), null,
+				"http://localhost:" + GuiceTestModule.MOCK_PORT);
+		negotiating.setContentNegotiation(true);
+		Map<String, Integer> body = Collections.singletonMap("intField", 100);
+
+		server.enqueue(new MockResponse().setBody(ByteStreams.toByteArray(smile.serialize(body))).setHeader("Content-Type",
+				Jackson2SmileSerializer.SMILE.toString()));
+		Assert.assertEquals("Incorrect response", body, negotiating.post("/", body, Map.class));
+		RecordedRequest request = server.takeRequest();
+		Assert.assertEquals("Incorrect Accept header", "application/x-jackson-smile, application/json;q=0.9", request.getHeader("Accept"));
+		Assert.assertEquals("Incorrect Content-Type", Jackson2SmileSerializer.SMILE.toString(), request.getHeader("Content-Type"));
+		Assert.assertEquals("Incorrect body", body, smile.deserialize(request.getBody(), Map.class));
+
+		/* server answering with JSON makes client to fall back to JSON */
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		negotiating.post("/", body, Map.class);
+		negotiating.post("/", body, Map.class);
+		server.takeRequest();
+		Assert.assertEquals("Incorrect body", "{\"intField\":100}", new String(server.takeRequest().getBody()));
+	}
+
+	@Test
+	public void testUnsupportedMediaTypeFallback() throws IOException, InterruptedException {
+		HttpClientRestEndpoint negotiating = new HttpClientRestEndpoint(new AuthClientFactory(null).createHttpClient(),
+				Lists.<Serializer> newArrayList(new Jackson2CborSerializer(), new Jackson2Serializer(new ObjectMapper())), null,
+				"http://localhost:" + GuiceTestModule.MOCK_PORT);
+		negotiating.setContentNegotiation(true);
+		Map<String, Integer> body = Collections.singletonMap("intField", 100);
+
+		server.enqueue(new MockResponse().setResponseCode(415));
+		server.enqueue(prepareResponse(SERIALIZED_STRING));
+		negotiating.post("/", body, Map.class);
+
+		Assert.assertEquals("Incorrect Content-Type", Jackson2CborSerializer.CBOR.toString(), server.takeRequest().getHeader("Content-Type"));
+		RecordedRequest request = server.takeRequest();
+		validateHeader(request);
+		Assert.assertEquals("Incorrect body", "{\"intField\":100}", new String(request.getBody()));
+	}
+
+	@Test
+	public void testStream() throws IOException, InterruptedException {
+		StreamingRestEndpoint jackson = new HttpClientRestEndpoint(new AuthClientFactory(null).createHttpClient(),
+				Lists.<Serializer> newArrayList(new Jackson2Serializer(new ObjectMapper())), null, "http://localhost:"
+						+ GuiceTestModule.MOCK_PORT);
+		server.enqueue(prepareResponse("[" + String.format(SERIALIZED_STRING_PATTERN, 1, "first") + ","
+				+ String.format(SERIALIZED_STRING_PATTERN, 2, "second") + "]"));
+		final List<Map<String, Object>> elements = Lists.newArrayList();
+		long count = jackson.stream("/items", Collections.singletonMap("page", "1"), null, Map.class,
+				new ElementCallback<Map<String, Object>>() {
+					@Override
+					public void onElement(Map<String, Object> element) {
+						elements.add(element);
+					}
+				});
+
+		Assert.assertEquals("Incorrect count of elements", 2, count);
+		Assert.assertEquals("Incorrect element", "second", elements.get(1).get("stringField"));
+		Assert.assertEquals("Incorrect Request Line", "GET /items?page=1 HTTP/1.1", server.takeRequest().getRequestLine());
+	}
+
+	@Test
+	public void testStreamWithoutContentType() throws IOException, InterruptedException {
+		StreamingRestEndpoint jackson = new HttpClientRestEndpoint(new AuthClientFactory(null).createHttpClient(),
+				Lists.<Serializer> newArrayList(new Jackson2Serializer(new ObjectMapper())), null, "http://localhost:"
+						+ GuiceTestModule.MOCK_PORT);
+		server.enqueue(new MockResponse().setBody("[1,2]"));
+		try {
+			jackson.iterate("/items", null, null, Integer.class);
+			Assert.fail("Response without content type is streamed");
+		} catch (SerializerException e) {
+			/* expected */
+		}
+		server.takeRequest();
+	}
+
+	@Test
+	public void testIterateField() throws IOException, InterruptedException {
+		StreamingRestEndpoint jackson = new HttpClientRestEndpoint(new AuthClientFactory(null).createHttpClient(),
+				Lists.<Serializer> newArrayList(new Jackson2Serializer(new ObjectMapper())), null, "http://localhost:"
+						+ GuiceTestModule.MOCK_PORT);
+		String page = "{\"page\":{\"number\":1},\"content\":[" + String.format(SERIALIZED_STRING_PATTERN, 1, "first") + ","
+				+ String.format(SERIALIZED_STRING_PATTERN, 2, "second") + "],\"size\":2}";
+		server.enqueue(prepareResponse(page));
+		server.enqueue(prepareResponse(page));
+		server.enqueue(prepareResponse("{\"page\":{\"number\":1}}"));
+
+		CloseableIterator<Map<String, Object>> elements = jackson.iterate("/items", null, "content", Map.class);
+		Assert.assertEquals("Incorrect element", 1, elements.next().get("intField"));
+		Assert.assertEquals("Incorrect element", 2, elements.next().get("intField"));
+		Assert.assertFalse("Unexpected element", elements.hasNext());
+
+		/* interrupted iteration shouldn't affect next requests */
+		elements = jackson.iterate("/items", null, "content", Map.class);
+		Assert.assertTrue("Element is not found", elements.hasNext());
+		elements.close();
+
+		try {
+			jackson.iterate("/items", null, "content", Map.class);
+			Assert.fail("Missing field is not reported");
+		} catch (SerializerException e) {
+			Assert.assertEquals("Incorrect error", "Field 'content' is not found in content", e.getMessage());
+		}
+		for (int i = 0; i < 3; i++) {
+			server.takeRequest();
+		}
+	}
+
+	@Test
+	public void testPaginator() throws IOException, InterruptedException {
+		StreamingRestEndpoint jackson = new HttpClientRestEndpoint(new AuthClientFactory(null).createHttpClient(),
+				Lists.<Serializer> newArrayList(new Jackson2Serializer(new ObjectMapper())), null, "http://localhost:"
+						+ GuiceTestModule.MOCK_PORT);
+		String pattern = "{\"content\":[%s],\"page\":{\"size\":2}}";
+		server.enqueue(prepareResponse(String.format(pattern, "1,2")));
+		server.enqueue(prepareResponse(String.format(pattern, "3,4")));
+		server.enqueue(prepareResponse(String.format(pattern, "5")));
+
+		Paginator paginator = new Paginator(jackson, new PaginatorConfig.Builder().pageSize(2).prefetchPages(1).build());
+		CloseableIterator<Integer> elements = paginator.iterate("/launch", Collections.singletonMap("filter", "name"), Integer.class);
+		Assert.assertEquals("Incorrect elements", Lists.newArrayList(1, 2, 3, 4, 5), Lists.newArrayList(elements));
+
+		for (int page = 1; page <= 3; page++) {
+			Assert.assertEquals("Incorrect Request Line", "GET /launch?filter=name&page.page=" + page + "&page.size=2 HTTP/1.1", server
+					.takeRequest().getRequestLine());
+		}
+	}
+
 	private void validateHeader(RecordedRequest request) {
 		Assert.assertTrue(request.getHeaders().contains("Content-Type: application/json; charset=utf-8"));
 	}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2016 EPAM Systems
+ *
+ *
+ * This file is part of EPAM Report Portal.
+ * https://github.com/reportportal/client-java-rest-core
+ *
+ * Report Portal is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Report Portal is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Report Portal.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.epam.reportportal.restclient.endpoint;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.epam.reportportal.restclient.endpoint.exception.RequestThrottledException;
+import com.google.common.collect.Lists;
+
+/**
+ * Unit tests for {@link Throttler}
+ * 
+ * @author Andrei Varabyeu
+ * 
+ */
+public class ThrottlerTest {
+
+	@Test
+	public void testPermitHandover() {
+		Throttler throttler = new Throttler.Builder().maxConcurrentRequests(1).build();
+		List<Integer> admitted = Lists.newArrayList();
+		List<Throttler.Permit> permits = Lists.newArrayList();
+		for (int i = 0; i < 3; i++) {
+			throttler.acquire("/", new RecordingCallback(i, admitted, permits, null));
+		}
+		Assert.assertEquals("Incorrect admitted requests", Lists.newArrayList(0), admitted);
+
+		permits.get(0).release();
+		Assert.assertEquals("Permit is not handed to the head", Lists.newArrayList(0, 1), admitted);
+		permits.get(1).release();
+		Assert.assertEquals("Permit is not handed to the head", Lists.newArrayList(0, 1, 2), admitted);
+		permits.get(2).release();
+		Assert.assertNotNull("Permit is not released", throttler.tryAcquire("/", System.nanoTime()));
+	}
+
+	@Test
+	public void testSaturatedPrefixIsolation() {
+		Throttler throttler = new Throttler.Builder().maxConcurrentRequests("/launch", 1).maxConcurrentRequests(3).build();
+		Throttler.Permit launch = throttler.tryAcquire("/launch", System.nanoTime());
+		List<Integer> admitted = Lists.newArrayList();
+		List<Throttler.Permit> permits = Lists.newArrayList();
+		throttler.acquire("/launch/1", new RecordingCallback(0, admitted, permits, null));
+		throttler.acquire("/item", new RecordingCallback(1, admitted, permits, null));
+		throttler.acquire("/launch/2", new RecordingCallback(2, admitted, permits, null));
+		Assert.assertEquals("Saturated prefix stalls other prefixes", Lists.newArrayList(1), admitted);
+
+		launch.release();
+		Assert.assertEquals("Prefix order is not kept", Lists.newArrayList(1, 0), admitted);
+		permits.get(1).release();
+		Assert.assertEquals("Prefix order is not kept", Lists.newArrayList(1, 0, 2), admitted);
+	}
+
+	@Test
+	public void testRateLimitedHandover() throws InterruptedException {
+		Throttler throttler = new Throttler.Builder().permitsPerSecond(50).build();
+		List<Integer> admitted = Lists.newArrayList();
+		CountDownLatch done = new CountDownLatch(3);
+		for (int i = 0; i < 3; i++) {
+			throttler.acquire("/", new RecordingCallback(i, admitted, Lists.<Throttler.Permit> newArrayList(), done));
+		}
+		Assert.assertTrue("Requests are not admitted", done.await(5, TimeUnit.SECONDS));
+		synchronized (admitted) {
+			Assert.assertEquals("Requests are not admitted in order", Lists.newArrayList(0, 1, 2), admitted);
+		}
+	}
+
+	@Test
+	public void testAsyncRejection() throws InterruptedException {
+		Throttler throttler = new Throttler.Builder().maxConcurrentRequests(1).acquireTimeout(10, TimeUnit.MILLISECONDS).build();
+		Throttler.Permit permit = throttler.tryAcquire("/", System.nanoTime());
+		final CountDownLatch rejected = new CountDownLatch(1);
+		throttler.acquire("/", new Throttler.AdmissionCallback() {
+			@Override
+			public void admitted(Throttler.Permit permit) {
+				Assert.fail("Request is admitted");
+			}
+
+			@Override
+			public void rejected(RequestThrottledException e) {
+				rejected.countDown();
+			}
+		});
+		Assert.assertTrue("Request is not rejected", rejected.await(5, TimeUnit.SECONDS));
+		Assert.assertEquals("Rejection is not counted", 1, throttler.getRejected());
+
+		/* released permit isn't handed to rejected request */
+		permit.release();
+		Assert.assertNotNull("Permit is not released", throttler.tryAcquire("/", System.nanoTime()));
+	}
+
+	private static class RecordingCallback implements Throttler.AdmissionCallback {
+
+		private final int id;
+		private final List<Integer> admitted;
+		private final List<Throttler.Permit> permits;
+		private final CountDownLatch done;
+
+		RecordingCallback(int id, List<Integer> admitted, List<Throttler.Permit> permits, CountDownLatch done) {
+			this.id = id;
+			this.admitted = admitted;
+			this.permits = permits;
+			this.done = done;
+		}
+
+		@Override
+		public void admitted(Throttler.Permit permit) {
+			synchronized (admitted) {
+				admitted.add(id);
+				permits.add(permit);
+			}
+			if (null != done) {
+				done.countDown();
+			}
+		}
+
+		@Override
+		public void rejected(RequestThrottledException e) {
+			Assert.fail("Request is rejected");
+		}
+	}
+}
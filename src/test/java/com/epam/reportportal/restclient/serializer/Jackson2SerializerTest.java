@@ -21,14 +21,16 @@
 package com.epam.reportportal.restclient.serializer;
 
 import com.epam.reportportal.restclient.serializer.Jackson2Serializer;
+import com.google.common.base.Charsets;
 import com.google.common.io.CharStreams;
 import org.junit.Assert;
 import org.junit.Test;
 
-import com.epam.reportportal.restclient.endpoint.Serializer;
+import com.epam.reportportal.restclient.endpoint.StreamSerializer;
 import com.epam.reportportal.restclient.endpoint.exception.SerializerException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 
@@ -69,7 +71,7 @@ public class Jackson2SerializerTest {
 
 	}
 
-	private Serializer serializer = new Jackson2Serializer(new ObjectMapper());
+	private StreamSerializer serializer = new Jackson2Serializer(new ObjectMapper());
 
 	@Test
 	public void testSerialization() throws IOException {
@@ -78,6 +80,13 @@ public class Jackson2SerializerTest {
 		Assert.assertEquals("Incorrect Serialization", SERIALIZED_STRING, seriazationResult);
 	}
 
+	@Test
+	public void testStreamSerialization() throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		serializer.serialize(new TestObject(100, "test string"), baos);
+		Assert.assertEquals("Incorrect Serialization", SERIALIZED_STRING, new String(baos.toByteArray(), Charsets.UTF_8));
+	}
+
 	@Test
 	public void testDerialization() throws SerializerException {
 		TestObject to = serializer.deserialize(SERIALIZED_STRING.getBytes(), TestObject.class);